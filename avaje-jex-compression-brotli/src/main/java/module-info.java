@@ -0,0 +1,19 @@
+/**
+ * Brotli response compression for Jex - see {@link io.avaje.jex.compression.brotli.BrotliCompressor}.
+ *
+ * <pre>{@code
+ * Jex.create()
+ *   .config(config -> config.compression(c -> c.compressor(BrotliCompressor.create())))
+ *   .port(8080)
+ *   .start();
+ *
+ * }</pre>
+ */
+module io.avaje.jex.compression.brotli {
+
+  exports io.avaje.jex.compression.brotli;
+
+  requires transitive io.avaje.jex;
+  requires com.aayushatharva.brotli4j;
+
+}
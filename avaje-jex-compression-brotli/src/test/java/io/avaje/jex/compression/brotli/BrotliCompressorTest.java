@@ -0,0 +1,71 @@
+package io.avaje.jex.compression.brotli;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+
+import com.aayushatharva.brotli4j.decoder.BrotliInputStream;
+
+import io.avaje.jex.Jex;
+import io.avaje.jex.test.TestPair;
+
+class BrotliCompressorTest {
+
+  static final String CONTENT = "{\"id\":42,\"name\":\"brotli\",\"tags\":[\"a\",\"b\"]}".repeat(200);
+
+  static TestPair pair = init();
+
+  static TestPair init() {
+    final Jex app =
+        Jex.create()
+            .config(c -> c.compression(comp -> comp.compressor(BrotliCompressor.create())))
+            .get(
+                "/json",
+                ctx -> {
+                  // written via the outputStream as byte array writes are not compressed
+                  try (var os = ctx.contentType("application/json").outputStream()) {
+                    os.write(CONTENT.getBytes(StandardCharsets.UTF_8));
+                  }
+                });
+
+    return TestPair.create(app);
+  }
+
+  @AfterAll
+  static void end() {
+    pair.shutdown();
+  }
+
+  @Test
+  void brotli_preferredOverGzip() throws IOException {
+    HttpResponse<InputStream> res =
+        pair.request().header("Accept-Encoding", "gzip, br").path("json").GET().asInputStream();
+
+    assertThat(res.statusCode()).isEqualTo(200);
+    assertThat(res.headers().firstValue("Content-Encoding")).hasValue("br");
+    try (var in = new BrotliInputStream(res.body())) {
+      assertThat(new String(in.readAllBytes())).isEqualTo(CONTENT);
+    }
+  }
+
+  @Test
+  void gzip_whenBrotliNotAccepted() {
+    HttpResponse<String> res =
+        pair.request().header("Accept-Encoding", "gzip").path("json").GET().asString();
+
+    assertThat(res.headers().firstValue("Content-Encoding")).hasValue("gzip");
+  }
+
+  @Test
+  void invalidQuality() {
+    assertThatThrownBy(() -> BrotliCompressor.create(12))
+        .isInstanceOf(IllegalArgumentException.class);
+  }
+}
@@ -0,0 +1,117 @@
+package io.avaje.jex.compression.zstd;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Collection;
+
+import com.github.luben.zstd.Zstd;
+import com.github.luben.zstd.ZstdDictTrainer;
+import com.github.luben.zstd.ZstdOutputStreamNoFinalizer;
+
+import io.avaje.jex.compression.Compressor;
+
+/**
+ * Compressor for the {@code zstd} content encoding using the native Zstandard library.
+ *
+ * <p>Register it with the compression config, where it is preferred over gzip for clients that
+ * accept both.
+ *
+ * <pre>{@code
+ * Jex.create()
+ *   .config(config -> config.compression(c -> c.compressor(ZstdCompressor.create())))
+ *
+ * }</pre>
+ *
+ * <p>Responses can also be compressed with a shared dictionary, see {@link #dictionary(byte[])}.
+ */
+public final class ZstdCompressor implements Compressor {
+
+  static final String ENCODING = "zstd";
+
+  private static final int DEFAULT_LEVEL = 3;
+
+  /** Levels above 19 use a window larger than the 8MB clients are required to support. */
+  static final int MAX_LEVEL = 19;
+
+  private final int level;
+
+  private ZstdCompressor(int level) {
+    this.level = checkLevel(level);
+  }
+
+  static int checkLevel(int level) {
+    if (level < Zstd.minCompressionLevel() || level > MAX_LEVEL) {
+      throw new IllegalArgumentException(
+          "Valid range for parameter level is " + Zstd.minCompressionLevel() + " to " + MAX_LEVEL);
+    }
+    return level;
+  }
+
+  /** Create a Zstandard compressor with level 3. */
+  public static ZstdCompressor create() {
+    return new ZstdCompressor(DEFAULT_LEVEL);
+  }
+
+  /**
+   * Create a Zstandard compressor with the given level.
+   *
+   * @param level The compression level, negative levels are faster, higher levels are smaller.
+   */
+  public static ZstdCompressor create(int level) {
+    return new ZstdCompressor(level);
+  }
+
+  /**
+   * Create a compressor for the {@code dcz} dictionary compressed Zstandard content encoding of
+   * RFC 9842 using the given shared dictionary at level 3.
+   *
+   * <p>It is only used for requests with an {@code Available-Dictionary} header holding the hash of
+   * this dictionary, so register it in addition to a compressor for clients without the dictionary.
+   * Serving the dictionary itself, with a {@code Use-As-Dictionary} header, is up to the
+   * application.
+   *
+   * @param dictionary The dictionary, for example as trained by {@link #trainDictionary}.
+   */
+  public static Compressor dictionary(byte[] dictionary) {
+    return new ZstdDictionaryCompressor(dictionary, DEFAULT_LEVEL);
+  }
+
+  /**
+   * Create a compressor for the {@code dcz} content encoding using the given shared dictionary.
+   *
+   * @param dictionary The dictionary, for example as trained by {@link #trainDictionary}.
+   * @param level The compression level.
+   * @see #dictionary(byte[])
+   */
+  public static Compressor dictionary(byte[] dictionary, int level) {
+    return new ZstdDictionaryCompressor(dictionary, checkLevel(level));
+  }
+
+  /**
+   * Train a dictionary from samples of typical response bodies, such as the JSON payloads of an
+   * API.
+   *
+   * @param samples The sample content, ideally hundreds of samples or more.
+   * @param dictionarySize The maximum size of the dictionary in bytes, for example 64KB.
+   * @return The trained dictionary.
+   */
+  public static byte[] trainDictionary(Collection<byte[]> samples, int dictionarySize) {
+    final long samplesSize = samples.stream().mapToLong(s -> s.length).sum();
+    final var trainer =
+        new ZstdDictTrainer((int) Math.min(samplesSize, Integer.MAX_VALUE), dictionarySize);
+    for (byte[] sample : samples) {
+      trainer.addSample(sample);
+    }
+    return trainer.trainSamples();
+  }
+
+  @Override
+  public String encoding() {
+    return ENCODING;
+  }
+
+  @Override
+  public OutputStream compress(OutputStream out) throws IOException {
+    return new ZstdOutputStreamNoFinalizer(out, level);
+  }
+}
@@ -0,0 +1,108 @@
+package io.avaje.jex.compression.zstd;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.List;
+import java.util.StringJoiner;
+
+import com.github.luben.zstd.ZstdDictCompress;
+import com.github.luben.zstd.ZstdOutputStreamNoFinalizer;
+
+import io.avaje.jex.compression.Compressor;
+import io.avaje.jex.http.Context;
+
+/**
+ * Compressor for the {@code dcz} content encoding, Zstandard compressed with a dictionary the
+ * client already holds.
+ */
+final class ZstdDictionaryCompressor implements Compressor {
+
+  static final String ENCODING = "dcz";
+  static final String AVAILABLE_DICTIONARY = "Available-Dictionary";
+  static final String ACCEPT_ENCODING = "Accept-Encoding";
+  static final String VARY = "Vary";
+  static final String VARY_VALUE = AVAILABLE_DICTIONARY + ", " + ACCEPT_ENCODING;
+
+  /** The fixed header of a dcz stream which is followed by the SHA-256 of the dictionary. */
+  private static final byte[] MAGIC = {0x5e, 0x2a, 0x4d, 0x18, 0x20, 0x00, 0x00, 0x00};
+
+  private final ZstdDictCompress dictionary;
+  private final byte[] hash;
+  private final String availableDictionary;
+
+  ZstdDictionaryCompressor(byte[] dictionary, int level) {
+    this.dictionary = new ZstdDictCompress(dictionary, level);
+    this.hash = sha256(dictionary);
+    // the Available-Dictionary request header is a structured field byte sequence
+    this.availableDictionary = ":" + Base64.getEncoder().encodeToString(hash) + ":";
+  }
+
+  private static byte[] sha256(byte[] content) {
+    try {
+      return MessageDigest.getInstance("SHA-256").digest(content);
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException(e);
+    }
+  }
+
+  @Override
+  public String encoding() {
+    return ENCODING;
+  }
+
+  /**
+   * Only asked when the response would otherwise be compressed and the client accepts dcz, in
+   * which case the encoding depends on the dictionary the client holds.
+   */
+  @Override
+  public boolean accepts(Context ctx) {
+    vary(ctx);
+    return availableDictionary.equals(ctx.header(AVAILABLE_DICTIONARY));
+  }
+
+  /** Add Available-Dictionary and Accept-Encoding to the single Vary header keeping its values. */
+  private static void vary(Context ctx) {
+    final List<String> values = ctx.responseHeaderValues(VARY);
+    if (values == null || values.isEmpty()) {
+      ctx.header(VARY, VARY_VALUE);
+      return;
+    }
+    final var merged = new StringJoiner(", ");
+    boolean dictionary = false;
+    boolean encoding = false;
+    for (String value : values) {
+      for (String token : value.split(",")) {
+        token = token.trim();
+        if ("*".equals(token)) {
+          // already varies on everything
+          return;
+        }
+        if (!token.isEmpty()) {
+          dictionary |= token.equalsIgnoreCase(AVAILABLE_DICTIONARY);
+          encoding |= token.equalsIgnoreCase(ACCEPT_ENCODING);
+          merged.add(token);
+        }
+      }
+    }
+    if (dictionary && encoding && values.size() == 1) {
+      return;
+    }
+    if (!dictionary) {
+      merged.add(AVAILABLE_DICTIONARY);
+    }
+    if (!encoding) {
+      merged.add(ACCEPT_ENCODING);
+    }
+    ctx.header(VARY, List.of(merged.toString()));
+  }
+
+  @Override
+  public OutputStream compress(OutputStream out) throws IOException {
+    out.write(MAGIC);
+    out.write(hash);
+    return new ZstdOutputStreamNoFinalizer(out).setDict(dictionary);
+  }
+}
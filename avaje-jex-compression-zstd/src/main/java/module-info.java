@@ -0,0 +1,19 @@
+/**
+ * Zstandard response compression for Jex - see {@link io.avaje.jex.compression.zstd.ZstdCompressor}.
+ *
+ * <pre>{@code
+ * Jex.create()
+ *   .config(config -> config.compression(c -> c.compressor(ZstdCompressor.create())))
+ *   .port(8080)
+ *   .start();
+ *
+ * }</pre>
+ */
+module io.avaje.jex.compression.zstd {
+
+  exports io.avaje.jex.compression.zstd;
+
+  requires transitive io.avaje.jex;
+  requires com.github.luben.zstd_jni;
+
+}
@@ -0,0 +1,166 @@
+package io.avaje.jex.compression.zstd;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+
+import com.github.luben.zstd.ZstdInputStream;
+
+import io.avaje.jex.Jex;
+import io.avaje.jex.test.TestPair;
+
+class ZstdCompressorTest {
+
+  static final String CONTENT = "{\"id\":42,\"name\":\"zstd\",\"tags\":[\"a\",\"b\"]}".repeat(200);
+  static final byte[] DICTIONARY =
+      "{\"id\":0,\"name\":\"\",\"tags\":[\"a\",\"b\"]}".getBytes(StandardCharsets.UTF_8);
+
+  static TestPair pair = init();
+
+  static TestPair init() {
+    final Jex app =
+        Jex.create()
+            .config(
+                c ->
+                    c.compression(
+                        comp ->
+                            comp.compressor(ZstdCompressor.create())
+                                .compressor(ZstdCompressor.dictionary(DICTIONARY))))
+            .get(
+                "/json",
+                ctx -> {
+                  // written via the outputStream as byte array writes are not compressed
+                  try (var os = ctx.contentType("application/json").outputStream()) {
+                    os.write(CONTENT.getBytes(StandardCharsets.UTF_8));
+                  }
+                })
+            .get(
+                "/varyOrigin",
+                ctx -> {
+                  ctx.header("Vary", "Origin");
+                  try (var os = ctx.contentType("application/json").outputStream()) {
+                    os.write(CONTENT.getBytes(StandardCharsets.UTF_8));
+                  }
+                })
+            .get("/small", ctx -> ctx.contentType("application/json").write("{}"));
+
+    return TestPair.create(app);
+  }
+
+  @AfterAll
+  static void end() {
+    pair.shutdown();
+  }
+
+  @Test
+  void zstd() throws IOException {
+    HttpResponse<InputStream> res =
+        pair.request().header("Accept-Encoding", "gzip, zstd").path("json").GET().asInputStream();
+
+    assertThat(res.statusCode()).isEqualTo(200);
+    assertThat(res.headers().firstValue("Content-Encoding")).hasValue("zstd");
+    // dcz not accepted by the client
+    assertThat(res.headers().allValues("Vary")).isEmpty();
+    try (var in = new ZstdInputStream(res.body())) {
+      assertThat(new String(in.readAllBytes(), StandardCharsets.UTF_8)).isEqualTo(CONTENT);
+    }
+  }
+
+  @Test
+  void dcz_withAvailableDictionary() throws Exception {
+    byte[] hash = MessageDigest.getInstance("SHA-256").digest(DICTIONARY);
+    HttpResponse<InputStream> res =
+        pair.request()
+            .header("Accept-Encoding", "gzip, zstd, dcz")
+            .header("Available-Dictionary", ":" + Base64.getEncoder().encodeToString(hash) + ":")
+            .path("json")
+            .GET()
+            .asInputStream();
+
+    assertThat(res.headers().firstValue("Content-Encoding")).hasValue("dcz");
+    assertThat(res.headers().allValues("Vary")).containsExactly("Available-Dictionary, Accept-Encoding");
+    try (var body = res.body()) {
+      byte[] header = body.readNBytes(40);
+      assertThat(Arrays.copyOfRange(header, 0, 8))
+          .isEqualTo(new byte[] {0x5e, 0x2a, 0x4d, 0x18, 0x20, 0x00, 0x00, 0x00});
+      assertThat(Arrays.copyOfRange(header, 8, 40)).isEqualTo(hash);
+      try (var in = new ZstdInputStream(body).setDict(DICTIONARY)) {
+        assertThat(new String(in.readAllBytes(), StandardCharsets.UTF_8)).isEqualTo(CONTENT);
+      }
+    }
+  }
+
+  @Test
+  void dcz_otherDictionary_zstd() {
+    HttpResponse<String> res =
+        pair.request()
+            .header("Accept-Encoding", "zstd, dcz")
+            .header("Available-Dictionary", ":b3RoZXI=:")
+            .path("json")
+            .GET()
+            .asString();
+
+    assertThat(res.headers().firstValue("Content-Encoding")).hasValue("zstd");
+    assertThat(res.headers().allValues("Vary")).containsExactly("Available-Dictionary, Accept-Encoding");
+  }
+
+  @Test
+  void dcz_mergedIntoExistingVary() {
+    HttpResponse<String> res =
+        pair.request()
+            .header("Accept-Encoding", "zstd, dcz")
+            .header("Available-Dictionary", ":b3RoZXI=:")
+            .path("varyOrigin")
+            .GET()
+            .asString();
+
+    assertThat(res.headers().firstValue("Content-Encoding")).hasValue("zstd");
+    assertThat(res.headers().allValues("Vary"))
+        .containsExactly("Origin, Available-Dictionary, Accept-Encoding");
+  }
+
+  @Test
+  void dcz_notCompressed_noVary() {
+    HttpResponse<String> res =
+        pair.request()
+            .header("Accept-Encoding", "zstd, dcz")
+            .header("Available-Dictionary", ":b3RoZXI=:")
+            .path("small")
+            .GET()
+            .asString();
+
+    assertThat(res.headers().firstValue("Content-Encoding")).isEmpty();
+    assertThat(res.headers().allValues("Vary")).isEmpty();
+  }
+
+  @Test
+  void trainDictionary() {
+    List<byte[]> samples = new ArrayList<>();
+    for (int i = 0; i < 2000; i++) {
+      samples.add(
+          ("{\"id\":" + i + ",\"name\":\"customer" + i % 37 + "\",\"status\":\"ACTIVE\",\"tags\":[\"t"
+                  + i % 11 + "\"]}")
+              .getBytes(StandardCharsets.UTF_8));
+    }
+    byte[] dictionary = ZstdCompressor.trainDictionary(samples, 4096);
+    assertThat(dictionary).isNotEmpty();
+    assertThat(dictionary.length).isLessThanOrEqualTo(4096);
+  }
+
+  @Test
+  void invalidLevel() {
+    assertThatThrownBy(() -> ZstdCompressor.create(20)).isInstanceOf(IllegalArgumentException.class);
+  }
+}
@@ -4,6 +4,7 @@ import java.util.List;
 import java.util.function.Consumer;
 
 import io.avaje.jex.Jex;
+import io.avaje.jex.Routing;
 import io.avaje.jex.cors.CorsPluginBuilder.CorsData;
 import io.avaje.jex.http.Context;
 import io.avaje.jex.spi.JexPlugin;
@@ -57,22 +58,68 @@ public final class CorsPlugin implements JexPlugin {
       jex.options(corsRule.path(), ctx -> handleCors(ctx, corsRule));
     }
 
-    jex.filter(
-        (ctx, chain) -> {
-          // If it's a preflight, OPTIONS call option handler
-          if ("OPTIONS".equals(ctx.method())) {
-            chain.proceed();
-            return;
-          }
-          final var path = ctx.path();
-          for (final var rule : config.rules) {
-            if (matchesPath(path, rule.path())) {
-              handleCors(ctx, rule);
-              break;
-            }
-          }
-          chain.proceed();
-        });
+    for (final var rule : config.rules) {
+      jex.filter(new RuleFilter(rule));
+    }
+    jex.filter(new RequestPathFilter());
+  }
+
+  /**
+   * Return the first rule matching the request path.
+   */
+  private CorsData matchingRule(String requestPath) {
+    for (final var rule : config.rules) {
+      if (matchesPath(requestPath, rule.path())) {
+        return rule;
+      }
+    }
+    return null;
+  }
+
+  /**
+   * Return the rule that applies to every request of the route, or null when no rule applies or
+   * the rule depends on the request path.
+   */
+  private CorsData routeRule(String routePath) {
+    if (!isLiteral(routePath)) {
+      return null;
+    }
+    for (final var rule : config.rules) {
+      if (mayMatch(routePath, rule.path())) {
+        return coversAll(routePath, rule.path()) ? rule : null;
+      }
+    }
+    return null;
+  }
+
+  /** Return true when the rule for the route can only be chosen using the request path. */
+  private boolean matchedByRequestPath(String routePath) {
+    if (!isLiteral(routePath)) {
+      return true;
+    }
+    for (final var rule : config.rules) {
+      if (mayMatch(routePath, rule.path())) {
+        return !coversAll(routePath, rule.path());
+      }
+    }
+    return false;
+  }
+
+  /** A route without parameters or wildcards, only matching its own path give or take a trailing slash. */
+  private static boolean isLiteral(String routePath) {
+    return routePath.indexOf('{') < 0 && routePath.indexOf('<') < 0 && routePath.indexOf('*') < 0;
+  }
+
+  private boolean mayMatch(String routePath, String rulePath) {
+    return matchesPath(routePath, rulePath) || matchesPath(toggleTrailingSlash(routePath), rulePath);
+  }
+
+  private boolean coversAll(String routePath, String rulePath) {
+    return matchesPath(routePath, rulePath) && matchesPath(toggleTrailingSlash(routePath), rulePath);
+  }
+
+  private static String toggleTrailingSlash(String path) {
+    return path.length() > 1 && path.endsWith("/") ? path.substring(0, path.length() - 1) : path + "/";
   }
 
   private boolean matchesPath(String requestPath, String rulePath) {
@@ -83,6 +130,53 @@ public final class CorsPlugin implements JexPlugin {
     return requestPath.equals(rulePath);
   }
 
+  /**
+   * Sets the CORS headers for a rule, only applied to the (non-preflight) routes where the rule is
+   * the first match for every request path the route matches.
+   */
+  private final class RuleFilter implements Routing.ScopedFilter {
+
+    private final CorsData rule;
+
+    RuleFilter(CorsData rule) {
+      this.rule = rule;
+    }
+
+    @Override
+    public boolean appliesTo(Routing.Type type, String path) {
+      // preflight OPTIONS requests are handled by the options handler
+      return type != Routing.Type.OPTIONS && routeRule(path) == rule;
+    }
+
+    @Override
+    public void filter(Context ctx, FilterChain chain) {
+      handleCors(ctx, rule);
+      chain.proceed();
+    }
+  }
+
+  /**
+   * Sets the CORS headers for the first rule matching the request path, applied to the
+   * (non-preflight) routes with path parameters or wildcards, or where the matching rule otherwise
+   * depends on the request path.
+   */
+  private final class RequestPathFilter implements Routing.ScopedFilter {
+
+    @Override
+    public boolean appliesTo(Routing.Type type, String path) {
+      return type != Routing.Type.OPTIONS && matchedByRequestPath(path);
+    }
+
+    @Override
+    public void filter(Context ctx, FilterChain chain) {
+      final var rule = matchingRule(ctx.path());
+      if (rule != null) {
+        handleCors(ctx, rule);
+      }
+      chain.proceed();
+    }
+  }
+
   private void handleCors(Context ctx, CorsData cfg) {
     final var clientOrigin = ctx.header(ORIGIN);
     if (clientOrigin == null || !CorsUtils.isValidOrigin(clientOrigin, true)) return;
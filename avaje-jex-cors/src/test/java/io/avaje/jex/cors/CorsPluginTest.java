@@ -42,6 +42,14 @@ class CorsPluginTest {
             .reflectClientOrigin(true)
             .allowCredentials(true)
             .buildRule()
+          .createRule()
+            .path("/users/1")
+            .allowHost("https://users.com")
+            .buildRule()
+          .createRule()
+            .path("/exact")
+            .allowHost("https://exact.com")
+            .buildRule()
           .build();
     server =
         Jex.create()
@@ -50,6 +58,9 @@ class CorsPluginTest {
             .get("/public/data", ctx -> ctx.text("public"))
             .get("/reflect/me", ctx -> ctx.text("reflected"))
             .get("/other", ctx -> ctx.text("other"))
+            .get("/users/{id}", ctx -> ctx.text("user " + ctx.pathParam("id")))
+            .get("/public/items/{id}", ctx -> ctx.text("item " + ctx.pathParam("id")))
+            .get("/exact", ctx -> ctx.text("exact"))
             .port(0)
             .start();
 
@@ -135,6 +146,53 @@ class CorsPluginTest {
     assertThat(response.headers().firstValue("Access-Control-Allow-Credentials")).hasValue("true");
   }
 
+  @Test
+  void concretePathRule_exactRoute() throws Exception {
+    var response = get("/exact", "https://exact.com");
+
+    assertThat(response.statusCode()).isEqualTo(200);
+    assertThat(response.headers().firstValue("Access-Control-Allow-Origin"))
+        .hasValue("https://exact.com");
+  }
+
+  @Test
+  void concretePathRule_parameterisedRoute() throws Exception {
+    var response = get("/users/1", "https://users.com");
+
+    assertThat(response.statusCode()).isEqualTo(200);
+    assertThat(response.body()).isEqualTo("user 1");
+    assertThat(response.headers().firstValue("Access-Control-Allow-Origin"))
+        .hasValue("https://users.com");
+  }
+
+  @Test
+  void concretePathRule_parameterisedRoute_otherPath_noCorsHeaders() throws Exception {
+    var response = get("/users/2", "https://users.com");
+
+    assertThat(response.statusCode()).isEqualTo(200);
+    assertThat(response.body()).isEqualTo("user 2");
+    assertThat(response.headers().firstValue("Access-Control-Allow-Origin")).isEmpty();
+  }
+
+  @Test
+  void prefixRule_parameterisedRoute() throws Exception {
+    var response = get("/public/items/7", "https://anyone.io");
+
+    assertThat(response.statusCode()).isEqualTo(200);
+    assertThat(response.body()).isEqualTo("item 7");
+    assertThat(response.headers().firstValue("Access-Control-Allow-Origin")).hasValue("*");
+  }
+
+  private static HttpResponse<String> get(String path, String origin) throws Exception {
+    var request =
+        HttpRequest.newBuilder()
+            .uri(URI.create(baseUrl + path))
+            .header("Origin", origin)
+            .GET()
+            .build();
+    return client.send(request, HttpResponse.BodyHandlers.ofString());
+  }
+
   @Test
   void preflightRequest_returns204WithPreflightHeaders() throws Exception {
     var request =
@@ -60,7 +60,7 @@ final class GrizzlyHttpExchangeDelegate extends HttpExchange {
     this.request = request;
     this.response = response;
     this.inputStream = request.getInputStream();
-    this.outputStream = response.getOutputStream();
+    this.outputStream = new GrizzlyOutputStream(response.getOutputBuffer());
   }
 
   @Override
@@ -0,0 +1,50 @@
+package io.avaje.jex.grizzly.spi;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+
+import org.glassfish.grizzly.http.io.OutputBuffer;
+
+import io.avaje.jex.spi.ByteBufferWriter;
+
+/** Response body that passes NIO buffers to Grizzly without copying them. */
+final class GrizzlyOutputStream extends OutputStream implements ByteBufferWriter {
+
+  private final OutputBuffer outputBuffer;
+
+  GrizzlyOutputStream(OutputBuffer outputBuffer) {
+    this.outputBuffer = outputBuffer;
+  }
+
+  @Override
+  public void write(int b) throws IOException {
+    outputBuffer.writeByte(b);
+  }
+
+  @Override
+  public void write(byte[] b, int off, int len) throws IOException {
+    outputBuffer.write(b, off, len);
+  }
+
+  @Override
+  public void write(ByteBuffer[] buffers) throws IOException {
+    for (ByteBuffer buffer : buffers) {
+      if (buffer.hasRemaining()) {
+        // wrapped rather than copied by grizzly, a slice such that grizzly has its own position
+        outputBuffer.writeByteBuffer(buffer.slice());
+        buffer.position(buffer.limit());
+      }
+    }
+  }
+
+  @Override
+  public void flush() throws IOException {
+    outputBuffer.flush();
+  }
+
+  @Override
+  public void close() throws IOException {
+    outputBuffer.close();
+  }
+}
@@ -0,0 +1,84 @@
+package io.avaje.jex.grizzly.spi;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.net.http.HttpResponse;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+
+import io.avaje.jex.Jex;
+import io.avaje.jex.test.TestPair;
+
+class GrizzlyOutputStreamTest {
+
+  static final byte[] HELLO = "hello ".getBytes(StandardCharsets.UTF_8);
+  static final byte[] WORLD = "world".getBytes(StandardCharsets.UTF_8);
+
+  static final AtomicReference<ByteBuffer[]> written = new AtomicReference<>();
+  static TestPair pair = init();
+
+  static TestPair init() {
+    final Jex app =
+        Jex.create()
+            .config(c -> c.serverProvider(new GrizzlyHttpServerProvider()))
+            .get("/heap", ctx -> ctx.write(ByteBuffer.wrap(HELLO)))
+            .get("/direct", ctx -> ctx.write(direct(WORLD)))
+            .get(
+                "/gather",
+                ctx -> ctx.write(new ByteBuffer[] {ByteBuffer.wrap(HELLO), direct(WORLD)}))
+            .get(
+                "/consumed",
+                ctx -> {
+                  var buffers = new ByteBuffer[] {ByteBuffer.wrap(HELLO), direct(WORLD)};
+                  written.set(buffers);
+                  ctx.write(buffers);
+                });
+    return TestPair.create(app);
+  }
+
+  static ByteBuffer direct(byte[] content) {
+    return ByteBuffer.allocateDirect(content.length).put(content).flip();
+  }
+
+  @AfterAll
+  static void end() {
+    pair.shutdown();
+  }
+
+  @Test
+  void heapBuffer() {
+    HttpResponse<String> res = pair.request().path("heap").GET().asString();
+    assertThat(res.statusCode()).isEqualTo(200);
+    assertThat(res.body()).isEqualTo("hello ");
+    assertThat(res.headers().firstValue("Content-Length")).hasValue("6");
+  }
+
+  @Test
+  void directBuffer() {
+    HttpResponse<String> res = pair.request().path("direct").GET().asString();
+    assertThat(res.statusCode()).isEqualTo(200);
+    assertThat(res.body()).isEqualTo("world");
+  }
+
+  @Test
+  void gatheringWrite() {
+    HttpResponse<String> res = pair.request().path("gather").GET().asString();
+    assertThat(res.statusCode()).isEqualTo(200);
+    assertThat(res.body()).isEqualTo("hello world");
+    assertThat(res.headers().firstValue("Content-Length")).hasValue("11");
+  }
+
+  @Test
+  void gatheringWrite_buffersConsumed() {
+    HttpResponse<String> res = pair.request().path("consumed").GET().asString();
+    assertThat(res.body()).isEqualTo("hello world");
+    // positions are advanced before the response is completed
+    for (ByteBuffer buffer : written.get()) {
+      assertThat(buffer.remaining()).isZero();
+    }
+  }
+}
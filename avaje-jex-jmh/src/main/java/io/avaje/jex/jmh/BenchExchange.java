@@ -0,0 +1,157 @@
+package io.avaje.jex.jmh;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+
+import com.sun.net.httpserver.Headers;
+import com.sun.net.httpserver.HttpContext;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpPrincipal;
+
+/**
+ * In memory exchange that is reset and reused between invocations so that benchmarks measure the
+ * allocations of the dispatch path rather than the exchange.
+ */
+final class BenchExchange extends HttpExchange {
+
+  private static final InetSocketAddress ADDRESS = new InetSocketAddress("localhost", 8080);
+  private static final byte[] EMPTY = {};
+
+  private final Headers requestHeaders = new Headers();
+  private final Headers responseHeaders = new Headers();
+  private final String method;
+  private final URI uri;
+  private final OutputStream responseBody = new DiscardStream();
+  private int responseCode = -1;
+  private long bytesWritten;
+
+  BenchExchange(String method, String path) {
+    this.method = method;
+    this.uri = URI.create(path);
+  }
+
+  /**
+   * Add a request header.
+   */
+  BenchExchange header(String name, String value) {
+    requestHeaders.add(name, value);
+    return this;
+  }
+
+  /**
+   * Reset the response state for the next invocation.
+   */
+  BenchExchange reset() {
+    responseHeaders.clear();
+    responseCode = -1;
+    return this;
+  }
+
+  long bytesWritten() {
+    return bytesWritten;
+  }
+
+  @Override
+  public Headers getRequestHeaders() {
+    return requestHeaders;
+  }
+
+  @Override
+  public Headers getResponseHeaders() {
+    return responseHeaders;
+  }
+
+  @Override
+  public URI getRequestURI() {
+    return uri;
+  }
+
+  @Override
+  public String getRequestMethod() {
+    return method;
+  }
+
+  @Override
+  public HttpContext getHttpContext() {
+    return null;
+  }
+
+  @Override
+  public void close() {
+    // reused
+  }
+
+  @Override
+  public InputStream getRequestBody() {
+    return new ByteArrayInputStream(EMPTY);
+  }
+
+  @Override
+  public OutputStream getResponseBody() {
+    return responseBody;
+  }
+
+  @Override
+  public void sendResponseHeaders(int rCode, long responseLength) {
+    this.responseCode = rCode;
+  }
+
+  @Override
+  public InetSocketAddress getRemoteAddress() {
+    return ADDRESS;
+  }
+
+  @Override
+  public int getResponseCode() {
+    return responseCode;
+  }
+
+  @Override
+  public InetSocketAddress getLocalAddress() {
+    return ADDRESS;
+  }
+
+  @Override
+  public String getProtocol() {
+    return "HTTP/1.1";
+  }
+
+  @Override
+  public Object getAttribute(String name) {
+    return null;
+  }
+
+  @Override
+  public void setAttribute(String name, Object value) {
+    // not used
+  }
+
+  @Override
+  public void setStreams(InputStream i, OutputStream o) {
+    // not used
+  }
+
+  @Override
+  public HttpPrincipal getPrincipal() {
+    return null;
+  }
+
+  /**
+   * Discards the response body and can be written to again after close.
+   */
+  private final class DiscardStream extends OutputStream {
+
+    @Override
+    public void write(int b) {
+      bytesWritten++;
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) {
+      bytesWritten += len;
+    }
+  }
+}
@@ -0,0 +1,21 @@
+package io.avaje.jex.jmh;
+
+import java.util.List;
+
+import io.avaje.jsonb.Json;
+
+/**
+ * Bean serialised by the json benchmarks.
+ */
+@Json
+public record BenchItem(long id, String name, String description, double price, List<String> tags) {
+
+  static BenchItem of(int id) {
+    return new BenchItem(
+        id,
+        "item-" + id,
+        "A reasonably sized description for item " + id + " used by the json benchmarks",
+        id * 1.25,
+        List.of("alpha", "beta", "gamma"));
+  }
+}
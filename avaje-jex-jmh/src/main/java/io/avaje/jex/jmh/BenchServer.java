@@ -0,0 +1,156 @@
+package io.avaje.jex.jmh;
+
+import java.net.InetSocketAddress;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executor;
+
+import com.sun.net.httpserver.Authenticator;
+import com.sun.net.httpserver.Filter;
+import com.sun.net.httpserver.HttpContext;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+import com.sun.net.httpserver.HttpsServer;
+import com.sun.net.httpserver.spi.HttpServerProvider;
+
+import io.avaje.jex.Jex;
+
+/**
+ * Server that does not listen, used to obtain the handler that Jex registers so that benchmarks
+ * dispatch requests with an in memory exchange (no server or network).
+ */
+final class BenchServer extends HttpServer {
+
+  private final InetSocketAddress address;
+  private final Map<String, Object> attributes = new HashMap<>();
+  private HttpHandler handler;
+  private Executor executor;
+
+  private BenchServer(InetSocketAddress address) {
+    this.address = address;
+  }
+
+  /** Start the Jex app on a bench server and return the handler of its requests. */
+  static HttpHandler handler(Jex jex) {
+    final var provider = new Provider();
+    jex.config(c -> c.health(false).serverProvider(provider)).start();
+    return provider.server.handler;
+  }
+
+  private static final class Provider extends HttpServerProvider {
+
+    private BenchServer server;
+
+    @Override
+    public HttpServer createHttpServer(InetSocketAddress addr, int backlog) {
+      server = new BenchServer(addr);
+      return server;
+    }
+
+    @Override
+    public HttpsServer createHttpsServer(InetSocketAddress addr, int backlog) {
+      throw new UnsupportedOperationException();
+    }
+  }
+
+  @Override
+  public void bind(InetSocketAddress addr, int backlog) {
+    // not listening
+  }
+
+  @Override
+  public void start() {
+    // not listening
+  }
+
+  @Override
+  public void setExecutor(Executor executor) {
+    this.executor = executor;
+  }
+
+  @Override
+  public Executor getExecutor() {
+    return executor;
+  }
+
+  @Override
+  public void stop(int delay) {
+    // not listening
+  }
+
+  @Override
+  public HttpContext createContext(String path, HttpHandler handler) {
+    this.handler = handler;
+    return new Context(path);
+  }
+
+  @Override
+  public HttpContext createContext(String path) {
+    return new Context(path);
+  }
+
+  @Override
+  public void removeContext(String path) {
+    handler = null;
+  }
+
+  @Override
+  public void removeContext(HttpContext context) {
+    handler = null;
+  }
+
+  @Override
+  public InetSocketAddress getAddress() {
+    return address;
+  }
+
+  private final class Context extends HttpContext {
+
+    private final String path;
+
+    private Context(String path) {
+      this.path = path;
+    }
+
+    @Override
+    public HttpHandler getHandler() {
+      return handler;
+    }
+
+    @Override
+    public void setHandler(HttpHandler handler) {
+      BenchServer.this.handler = handler;
+    }
+
+    @Override
+    public String getPath() {
+      return path;
+    }
+
+    @Override
+    public HttpServer getServer() {
+      return BenchServer.this;
+    }
+
+    @Override
+    public Map<String, Object> getAttributes() {
+      return attributes;
+    }
+
+    @Override
+    public List<Filter> getFilters() {
+      return List.of();
+    }
+
+    @Override
+    public Authenticator setAuthenticator(Authenticator auth) {
+      return null;
+    }
+
+    @Override
+    public Authenticator getAuthenticator() {
+      return null;
+    }
+  }
+}
@@ -0,0 +1,64 @@
+package io.avaje.jex.jmh;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import io.avaje.jex.compression.CompressionConfig;
+import io.avaje.jex.compression.Compressor;
+
+/**
+ * Selection of the compressor from the Accept-Encoding request header.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CompressionConfigBenchmark {
+
+  private final CompressionConfig config = new CompressionConfig();
+
+  private final List<String> browser = List.of("gzip, deflate, br, zstd");
+  private final List<String> qValues = List.of("br;q=1.0, gzip;q=0.8, *;q=0.1");
+  private final List<String> multiValue = List.of("deflate", "gzip;q=0.5");
+  private final List<String> identity = List.of("identity");
+  private final List<String> encodings = List.of("br", "zstd", "gzip");
+
+  @Benchmark
+  public Optional<Compressor> browser() {
+    return config.findMatchingCompressor(browser);
+  }
+
+  @Benchmark
+  public Optional<Compressor> qValues() {
+    return config.findMatchingCompressor(qValues);
+  }
+
+  @Benchmark
+  public Optional<Compressor> multiValue() {
+    return config.findMatchingCompressor(multiValue);
+  }
+
+  @Benchmark
+  public Optional<Compressor> identity() {
+    return config.findMatchingCompressor(identity);
+  }
+
+  /** Negotiation without the cache of the compressor by header value. */
+  @Benchmark
+  public Optional<String> uncached() {
+    return CompressionConfig.findMatchingEncoding(qValues, encodings);
+  }
+}
@@ -0,0 +1,73 @@
+package io.avaje.jex.jmh;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.sun.net.httpserver.HttpHandler;
+
+import io.avaje.jex.Jex;
+
+/**
+ * Parsing of the Cookie request header via {@code Context.cookieMap()}.
+ *
+ * <p>Each invocation dispatches a request, subtract {@link DispatchBenchmark#literal()} for the
+ * cost of the parsing.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CookieParserBenchmark {
+
+  private HttpHandler handler;
+  private BenchExchange single;
+  private BenchExchange typical;
+  private BenchExchange rfc2965;
+
+  @Setup
+  public void setup() {
+    handler = BenchServer.handler(Jex.create()
+      .get("/cookies", ctx -> ctx.status(ctx.cookieMap().isEmpty() ? 400 : 204)));
+
+    single = exchange("session=0f3c9a1e2b7d4c5a");
+    typical = exchange(
+      "session=0f3c9a1e2b7d4c5a; theme=dark; lang=en-NZ; _ga=GA1.2.1234567890.1700000000;"
+        + " consent=\"analytics,marketing\"");
+    rfc2965 = exchange("$Version=1; session=abc; $Path=/; theme=dark; $Domain=example.com");
+  }
+
+  private static BenchExchange exchange(String cookie) {
+    return new BenchExchange("GET", "/cookies").header("Cookie", cookie);
+  }
+
+  @Benchmark
+  public int single() throws IOException {
+    handler.handle(single.reset());
+    return single.getResponseCode();
+  }
+
+  @Benchmark
+  public int typical() throws IOException {
+    handler.handle(typical.reset());
+    return typical.getResponseCode();
+  }
+
+  @Benchmark
+  public int rfc2965() throws IOException {
+    handler.handle(rfc2965.reset());
+    return rfc2965.getResponseCode();
+  }
+}
@@ -0,0 +1,83 @@
+package io.avaje.jex.jmh;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.sun.net.httpserver.HttpHandler;
+
+import io.avaje.jex.Jex;
+
+/**
+ * Request dispatch through the handler Jex registers with the server, without a server or
+ * network.
+ *
+ * <p>Run with {@code -prof gc} and compare {@code gc.alloc.rate.norm} (bytes allocated per
+ * operation) for the hit, parameter, filtered and not found paths.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DispatchBenchmark {
+
+  private HttpHandler handler;
+  private HttpHandler filteredHandler;
+  private BenchExchange literal;
+  private BenchExchange param;
+  private BenchExchange notFound;
+
+  @Setup
+  public void setup() {
+    handler = BenchServer.handler(jex());
+    filteredHandler = BenchServer.handler(jex()
+      .filter((ctx, chain) -> chain.proceed())
+      .filter((ctx, chain) -> chain.proceed()));
+
+    literal = new BenchExchange("GET", "/hello");
+    param = new BenchExchange("GET", "/users/42");
+    notFound = new BenchExchange("GET", "/missing/path");
+  }
+
+  private static Jex jex() {
+    return Jex.create()
+      .get("/hello", ctx -> ctx.status(204))
+      .get("/users/{id}", ctx -> ctx.status(ctx.pathParam("id").isEmpty() ? 400 : 204));
+  }
+
+  @Benchmark
+  public int literal() throws IOException {
+    handler.handle(literal.reset());
+    return literal.getResponseCode();
+  }
+
+  @Benchmark
+  public int param() throws IOException {
+    handler.handle(param.reset());
+    return param.getResponseCode();
+  }
+
+  @Benchmark
+  public int filtered() throws IOException {
+    filteredHandler.handle(literal.reset());
+    return literal.getResponseCode();
+  }
+
+  @Benchmark
+  public int notFound() throws IOException {
+    handler.handle(notFound.reset());
+    return notFound.getResponseCode();
+  }
+}
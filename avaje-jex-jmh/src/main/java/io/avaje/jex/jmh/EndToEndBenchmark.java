@@ -0,0 +1,73 @@
+package io.avaje.jex.jmh;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import io.avaje.jex.Jex;
+
+/**
+ * In process GET requests against the JDK HttpServer over loopback using the JDK HttpClient.
+ *
+ * <p>Forks with {@code sun.net.httpserver.nodelay=true} as otherwise the separate writes of the
+ * response headers and body wait on delayed ACKs (around 40ms per request).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Dsun.net.httpserver.nodelay=true")
+public class EndToEndBenchmark {
+
+  private Jex.Server server;
+  private HttpClient client;
+  private HttpRequest text;
+  private HttpRequest param;
+
+  @Setup
+  public void setup() {
+    server = Jex.create()
+      .config(c -> c.health(false))
+      .get("/hello", ctx -> ctx.text("hello world"))
+      .get("/users/{id}", ctx -> ctx.text(ctx.pathParam("id")))
+      .port(0)
+      .start();
+
+    client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+    final String base = "http://localhost:" + server.port();
+    text = HttpRequest.newBuilder(URI.create(base + "/hello")).GET().build();
+    param = HttpRequest.newBuilder(URI.create(base + "/users/42")).GET().build();
+  }
+
+  @TearDown
+  public void tearDown() {
+    client.close();
+    server.shutdown();
+  }
+
+  @Benchmark
+  public String text() throws IOException, InterruptedException {
+    return client.send(text, HttpResponse.BodyHandlers.ofString()).body();
+  }
+
+  @Benchmark
+  public String param() throws IOException, InterruptedException {
+    return client.send(param, HttpResponse.BodyHandlers.ofString()).body();
+  }
+}
@@ -0,0 +1,79 @@
+package io.avaje.jex.jmh;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.sun.net.httpserver.HttpHandler;
+
+import io.avaje.jex.Jex;
+import io.avaje.jex.core.json.JsonbJsonService;
+
+/**
+ * Json responses using {@link JsonbJsonService}, serialising to a byte array and writing through
+ * {@code Context.json()} (which uses the buffered response output stream).
+ *
+ * <p>The {@code items} parameter is the number of beans in the response list, with 1 writing a
+ * single bean.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JsonBenchmark {
+
+  @Param({"1", "100"})
+  int items;
+
+  private JsonbJsonService jsonService;
+  private Object body;
+  private HttpHandler handler;
+  private BenchExchange exchange;
+
+  @Setup
+  public void setup() {
+    if (items == 1) {
+      body = BenchItem.of(1);
+    } else {
+      final List<BenchItem> list = new ArrayList<>(items);
+      for (int i = 0; i < items; i++) {
+        list.add(BenchItem.of(i));
+      }
+      body = list;
+    }
+    jsonService = new JsonbJsonService();
+    handler = BenchServer.handler(Jex.create()
+      .config(c -> c.jsonService(jsonService))
+      .get("/json", ctx -> ctx.json(body)));
+    exchange = new BenchExchange("GET", "/json");
+  }
+
+  @Benchmark
+  public int toJsonBytes() {
+    final var os = new ByteArrayOutputStream(1024);
+    jsonService.toJson(body, os);
+    return os.size();
+  }
+
+  @Benchmark
+  public int contextJson() throws IOException {
+    handler.handle(exchange.reset());
+    return exchange.getResponseCode();
+  }
+}
@@ -0,0 +1,61 @@
+package io.avaje.jex.jmh;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.sun.net.httpserver.HttpHandler;
+
+import io.avaje.jex.Jex;
+
+/**
+ * Parsing of the raw query string into the query parameter map via {@code
+ * Context.queryParamMap()}.
+ *
+ * <p>Each invocation dispatches a request, subtract {@link DispatchBenchmark#literal()} for the
+ * cost of the parsing.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class QueryParamBenchmark {
+
+  private HttpHandler handler;
+  private BenchExchange plain;
+  private BenchExchange encoded;
+
+  @Setup
+  public void setup() {
+    handler = BenchServer.handler(Jex.create()
+      .get("/query", ctx -> ctx.status(ctx.queryParamMap().isEmpty() ? 400 : 204)));
+
+    plain = new BenchExchange("GET", "/query?page=2&size=50&sort=name&order=asc");
+    encoded = new BenchExchange(
+      "GET", "/query?q=caf%C3%A9+au+lait&tags=a%2Cb&tags=c&redirect=%2Fhome%3Fx%3D1&empty=&flag");
+  }
+
+  @Benchmark
+  public int plain() throws IOException {
+    handler.handle(plain.reset());
+    return plain.getResponseCode();
+  }
+
+  @Benchmark
+  public int encoded() throws IOException {
+    handler.handle(encoded.reset());
+    return encoded.getResponseCode();
+  }
+}
@@ -0,0 +1,100 @@
+package io.avaje.jex.jmh;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import io.avaje.jex.Jex;
+import io.avaje.jex.Routing;
+import io.avaje.jex.routes.RoutesBuilder;
+import io.avaje.jex.routes.SpiRoutes;
+
+/**
+ * Route matching cost for literal, trailing slash, parameter, wrong method and missing paths as
+ * the number of registered routes grows.
+ *
+ * <p>Literal paths are served by the exact match map so their cost should not change with the
+ * number of routes. {@code matchLiteral} uses the last registered route and {@code
+ * matchLiteralFirst} the first, which was the worst case for the linear scan of literal routes.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RouteIndexBenchmark {
+
+  @Param({"10", "100", "1000"})
+  int routes;
+
+  private SpiRoutes index;
+  private String literalPath;
+  private String firstLiteralPath;
+  private String literalSlashPath;
+  private String paramPath;
+  private String missPath;
+
+  @Setup
+  public void setup() {
+    final var jex = Jex.create();
+    for (int i = 0; i < routes; i++) {
+      jex.get("/api/resource" + i + "/status", ctx -> {});
+      jex.get("/api/resource" + i + "/{id}/detail", ctx -> {});
+    }
+    jex.get("/health/liveness", ctx -> {});
+    index = new RoutesBuilder(jex.routing(), jex.config()).build();
+
+    final int last = routes - 1;
+    literalPath = "/api/resource" + last + "/status";
+    firstLiteralPath = "/api/resource0/status";
+    literalSlashPath = literalPath + "/";
+    paramPath = "/api/resource" + last + "/42/detail";
+    missPath = "/api/resource" + last + "/42/missing";
+  }
+
+  @Benchmark
+  public SpiRoutes.Match matchLiteral() {
+    return index.match(Routing.Type.GET, literalPath);
+  }
+
+  @Benchmark
+  public SpiRoutes.Match matchLiteralFirst() {
+    return index.match(Routing.Type.GET, firstLiteralPath);
+  }
+
+  @Benchmark
+  public SpiRoutes.Match matchLiteralTrailingSlash() {
+    return index.match(Routing.Type.GET, literalSlashPath);
+  }
+
+  @Benchmark
+  public SpiRoutes.Match matchParam() {
+    return index.match(Routing.Type.GET, paramPath);
+  }
+
+  @Benchmark
+  public String matchParamAndRead() {
+    return index.match(Routing.Type.GET, paramPath).pathParam("id");
+  }
+
+  @Benchmark
+  public SpiRoutes.Match matchWrongMethod() {
+    return index.match(Routing.Type.POST, paramPath);
+  }
+
+  @Benchmark
+  public SpiRoutes.Match matchMiss() {
+    return index.match(Routing.Type.GET, missPath);
+  }
+}
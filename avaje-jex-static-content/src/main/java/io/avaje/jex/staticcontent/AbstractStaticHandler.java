@@ -1,18 +1,33 @@
 package io.avaje.jex.staticcontent;
 
 import static io.avaje.jex.core.Constants.CONTENT_LENGTH;
+import static io.avaje.jex.core.Constants.ETAG;
+import static io.avaje.jex.core.Constants.IF_MODIFIED_SINCE;
+import static io.avaje.jex.core.Constants.IF_NONE_MATCH;
+import static io.avaje.jex.core.Constants.LAST_MODIFIED;
+import static io.avaje.jex.core.Constants.RANGE;
 
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
 import java.net.FileNameMap;
 import java.net.URLConnection;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.HexFormat;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
-import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Predicate;
+import java.util.function.Supplier;
 
 import com.sun.net.httpserver.HttpExchange;
 
@@ -27,6 +42,10 @@ import io.avaje.jex.http.NotFoundException;
 abstract sealed class AbstractStaticHandler implements ExchangeHandler
     permits StaticFileHandler, StaticClassResourceHandler {
 
+  /** Limits of the pre-compressed resources held in memory. */
+  static final int MAX_COMPRESSED_ENTRIES = 1024;
+  static final long MAX_COMPRESSED_BYTES = 64L * 1024 * 1024;
+
   protected final Map<String, String> mimeTypes;
   protected final CompressionConfig compressionConfig;
   protected final String filesystemRoot;
@@ -34,8 +53,11 @@ abstract sealed class AbstractStaticHandler implements ExchangeHandler
   protected final Predicate<Context> skipFilePredicate;
   protected final Map<String, String> headers;
   protected final boolean precompress;
-  protected final Map<String, CachedResource> compressedFiles = new ConcurrentHashMap<>();
+  protected final ResourceCache compressedFiles =
+      new ResourceCache(MAX_COMPRESSED_ENTRIES, MAX_COMPRESSED_BYTES);
   private static final FileNameMap MIME_MAP = URLConnection.getFileNameMap();
+  private static final DateTimeFormatter HTTP_DATE =
+      DateTimeFormatter.RFC_1123_DATE_TIME.withZone(ZoneOffset.UTC);
 
   protected AbstractStaticHandler(
       String urlPrefix,
@@ -54,6 +76,100 @@ abstract sealed class AbstractStaticHandler implements ExchangeHandler
     this.precompress = precompress;
   }
 
+  /** Return a strong ETag from the size and last modified time of a file. */
+  protected static String fileETag(long size, long lastModified) {
+    return "\"" + Long.toHexString(size) + "-" + Long.toHexString(lastModified) + "\"";
+  }
+
+  /** Return a strong ETag from a hash of the content, streamed through to the given output. */
+  protected static String contentETag(InputStream content, OutputStream out) throws IOException {
+    try (var digest = new DigestInputStream(content, MessageDigest.getInstance("SHA-256"))) {
+      digest.transferTo(out);
+      var hash = digest.getMessageDigest().digest();
+      return "\"" + HexFormat.of().formatHex(hash, 0, 16) + "\"";
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException(e);
+    }
+  }
+
+  /** Return the ETag of the representation with the given content encoding. */
+  private static String encodedETag(String etag, String encoding) {
+    if (encoding == null || etag.startsWith("W/") || !etag.endsWith("\"")) {
+      return etag;
+    }
+    return etag.substring(0, etag.length() - 1) + "-" + encoding + "\"";
+  }
+
+  /**
+   * Return the encoding that content of the given length is compressed with when written via the
+   * context output stream, or null when written as is. Range responses are never compressed.
+   */
+  protected String responseEncoding(Context ctx, long length) {
+    if (ctx.header(RANGE) != null) {
+      return null;
+    }
+    return compressionConfig.responseEncoding(ctx, length).orElse(null);
+  }
+
+  /**
+   * Set the ETag and Last-Modified headers, then send a 304 Not Modified response and return true
+   * when the request conditions show the client already has the content.
+   *
+   * <p>The 304 response carries the ETag of the representation a 200 response would have sent,
+   * suffixed with the content encoding when the content would be compressed.
+   *
+   * @param etag the strong ETag of the identity content
+   * @param lastModified the last modified time in millis, or 0 when unknown
+   * @param encoding supplies the content encoding of the 200 response, or null for identity
+   */
+  protected boolean notModified(
+      Context ctx, String etag, long lastModified, Supplier<String> encoding) {
+    ctx.header(ETAG, etag);
+    if (lastModified > 0) {
+      ctx.header(LAST_MODIFIED, HTTP_DATE.format(Instant.ofEpochMilli(lastModified)));
+    }
+    final String ifNoneMatch = ctx.header(IF_NONE_MATCH);
+    if (ifNoneMatch != null) {
+      if (!matchesETag(ifNoneMatch, etag)) {
+        return false;
+      }
+    } else if (lastModified <= 0 || !notModifiedSince(ctx.header(IF_MODIFIED_SINCE), lastModified)) {
+      return false;
+    }
+    final String encodedETag = encodedETag(etag, encoding.get());
+    if (!encodedETag.equals(etag)) {
+      ctx.header(ETAG, List.of(encodedETag));
+    }
+    ctx.writeEmpty(304);
+    return true;
+  }
+
+  /** Weak comparison that also matches the encoded variants of the ETag. */
+  private static boolean matchesETag(String ifNoneMatch, String etag) {
+    final String encodedPrefix = etag.substring(0, etag.length() - 1) + "-";
+    for (String tag : ifNoneMatch.split(",")) {
+      tag = tag.trim();
+      if (tag.startsWith("W/")) {
+        tag = tag.substring(2);
+      }
+      if ("*".equals(tag) || tag.equals(etag) || tag.startsWith(encodedPrefix)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private static boolean notModifiedSince(String ifModifiedSince, long lastModified) {
+    if (ifModifiedSince == null) {
+      return false;
+    }
+    try {
+      return lastModified / 1000 <= ZonedDateTime.parse(ifModifiedSince, HTTP_DATE).toEpochSecond();
+    } catch (DateTimeParseException e) {
+      return false;
+    }
+  }
+
   protected void throw404(HttpExchange jdkExchange) {
     throw new NotFoundException("File Not Found for request: " + jdkExchange.getRequestURI());
   }
@@ -85,10 +201,12 @@ abstract sealed class AbstractStaticHandler implements ExchangeHandler
   }
 
   protected boolean isCached(final String path) {
-    return precompress && compressedFiles.containsKey(path);
+    return precompress && compressedFiles.contains(path);
   }
 
-  protected void addCachedEntry(Context ctx, String urlPath, InputStream fis) throws IOException {
+  protected void addCachedEntry(Context ctx, String urlPath, InputStream fis, long lastModified)
+      throws IOException {
+    var etag = ctx.responseHeader(ETAG);
     var baos = new ByteArrayOutputStream();
     CompressedOutputStream compressed = new CompressedOutputStream(compressionConfig, ctx, baos);
     fis.transferTo(compressed);
@@ -103,11 +221,16 @@ abstract sealed class AbstractStaticHandler implements ExchangeHandler
     ctx.write(bytes);
     var encoding = ctx.responseHeader(Constants.CONTENT_ENCODING);
     compressedFiles.put(
-        urlPath, new CachedResource(responseHeaders, bytes, encoding != null, encoding));
+        urlPath,
+        new CachedResource(responseHeaders, bytes, encoding != null, encoding, etag, lastModified));
   }
 
   protected boolean writeCached(Context ctx, String path) throws IOException {
     var cached = compressedFiles.get(path);
+    if (cached == null) {
+      // evicted since checked
+      return false;
+    }
     var bytes = cached.bytes();
 
     boolean isHead = "HEAD".equals(ctx.method());
@@ -115,12 +238,14 @@ abstract sealed class AbstractStaticHandler implements ExchangeHandler
       if (ctx.header(Constants.ACCEPT_ENCODING) == null) {
         return false;
       }
-      var compressor =
-          compressionConfig.findMatchingCompressor(List.of(ctx.header(Constants.ACCEPT_ENCODING)));
+      var compressor = compressionConfig.findCompressor(ctx);
 
       if (compressor.isEmpty() || !compressor.get().encoding().equals(cached.encoding())) {
         return false;
       }
+      if (notModified(ctx, cached.etag(), cached.lastModified(), cached::encoding)) {
+        return true;
+      }
       ctx.headerMap(cached.headers());
       ctx.header(Constants.CONTENT_LENGTH, String.valueOf(bytes.length));
       if (isHead) {
@@ -132,6 +257,10 @@ abstract sealed class AbstractStaticHandler implements ExchangeHandler
     }
 
     ctx.header(Constants.CONTENT_TYPE, cached.headers().get(Constants.CONTENT_TYPE));
+    if (notModified(
+        ctx, cached.etag(), cached.lastModified(), () -> responseEncoding(ctx, bytes.length))) {
+      return true;
+    }
     if (isHead) {
       writeHeadResponse(ctx, new ByteArrayInputStream(bytes));
       return true;
@@ -4,4 +4,9 @@ import java.util.List;
 import java.util.Map;
 
 record CachedResource(
-    Map<String, List<String>> headers, byte[] bytes, boolean isCompressed, String encoding) {}
+    Map<String, List<String>> headers,
+    byte[] bytes,
+    boolean isCompressed,
+    String encoding,
+    String etag,
+    long lastModified) {}
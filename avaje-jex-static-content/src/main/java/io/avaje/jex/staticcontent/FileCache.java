@@ -0,0 +1,124 @@
+package io.avaje.jex.staticcontent;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.LinkedHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Bounded cache of file content with least recently used eviction.
+ *
+ * <p>Entries are validated against the last modified time and size of the file on each lookup.
+ * Files of at least the mapped size are memory mapped rather than held on heap, their memory is
+ * released by the garbage collector once evicted.
+ */
+final class FileCache {
+
+  private final ReentrantLock lock = new ReentrantLock();
+  private final LinkedHashMap<Path, Entry> entries = new LinkedHashMap<>(64, 0.75f, true);
+  private final int maxEntries;
+  private final long maxHeapBytes;
+  private final long minMappedSize;
+  private long heapBytes;
+
+  private record Entry(ByteBuffer content, long lastModified, long size, boolean mapped) {
+
+    boolean matches(BasicFileAttributes attributes) {
+      return size == attributes.size() && lastModified == attributes.lastModifiedTime().toMillis();
+    }
+  }
+
+  FileCache(int maxEntries, long maxHeapBytes, long minMappedSize) {
+    this.maxEntries = maxEntries;
+    this.maxHeapBytes = maxHeapBytes;
+    this.minMappedSize = minMappedSize;
+  }
+
+  /**
+   * Return the content of the file, loading it if not cached or changed. Returns null when the
+   * file is too large to cache on heap and is below the mapped size, or is larger than a buffer
+   * can hold such that it is streamed instead.
+   *
+   * <p>The returned buffer is shared and must not be modified.
+   */
+  ByteBuffer get(Path file, BasicFileAttributes attributes) throws IOException {
+    lock.lock();
+    try {
+      final Entry entry = entries.get(file);
+      if (entry != null && entry.matches(attributes)) {
+        return entry.content;
+      }
+    } finally {
+      lock.unlock();
+    }
+    final Entry loaded = load(file, attributes);
+    if (loaded == null) {
+      return null;
+    }
+    put(file, loaded);
+    return loaded.content;
+  }
+
+  private Entry load(Path file, BasicFileAttributes attributes) throws IOException {
+    final long size = attributes.size();
+    final long lastModified = attributes.lastModifiedTime().toMillis();
+    if (size > Integer.MAX_VALUE) {
+      // a buffer is int indexed
+      return null;
+    }
+    if (size >= minMappedSize) {
+      try (var channel = FileChannel.open(file)) {
+        return new Entry(channel.map(FileChannel.MapMode.READ_ONLY, 0, size), lastModified, size, true);
+      }
+    }
+    if (size > maxHeapBytes) {
+      return null;
+    }
+    return new Entry(ByteBuffer.wrap(Files.readAllBytes(file)), lastModified, size, false);
+  }
+
+  private void put(Path file, Entry entry) {
+    lock.lock();
+    try {
+      remove(entries.put(file, entry));
+      if (!entry.mapped) {
+        heapBytes += entry.content.capacity();
+      }
+      final var it = entries.values().iterator();
+      while (it.hasNext() && (entries.size() > maxEntries || heapBytes > maxHeapBytes)) {
+        remove(it.next());
+        it.remove();
+      }
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  private void remove(Entry entry) {
+    if (entry != null && !entry.mapped) {
+      heapBytes -= entry.content.capacity();
+    }
+  }
+
+  int size() {
+    lock.lock();
+    try {
+      return entries.size();
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  long heapBytes() {
+    lock.lock();
+    try {
+      return heapBytes;
+    } finally {
+      lock.unlock();
+    }
+  }
+}
@@ -0,0 +1,275 @@
+package io.avaje.jex.staticcontent;
+
+import static io.avaje.jex.core.Constants.ACCEPT_ENCODING;
+import static io.avaje.jex.core.Constants.CONTENT_ENCODING;
+import static io.avaje.jex.core.Constants.CONTENT_LENGTH;
+import static io.avaje.jex.core.Constants.ETAG;
+import static io.avaje.jex.core.Constants.RANGE;
+import static io.avaje.jex.core.Constants.VARY;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+import io.avaje.jex.compression.CompressionConfig;
+import io.avaje.jex.compression.Compressor;
+import io.avaje.jex.http.Context;
+
+/**
+ * Index of the compressed variants of static files built at startup.
+ *
+ * <p>Variants are sibling files with a {@code .br}, {@code .zst} or {@code .gz} extension and,
+ * when compressing at startup, in memory content compressed by each configured compressor for
+ * encodings that have no sibling file. The in memory content is limited to a total size, files
+ * without a variant are compressed on the fly as normal.
+ */
+final class PrecompressedIndex {
+
+  /** Sibling file extensions and their encodings in order of preference. */
+  private static final List<Map.Entry<String, String>> EXTENSIONS =
+      List.of(Map.entry(".br", "br"), Map.entry(".zst", "zstd"), Map.entry(".gz", "gzip"));
+
+  /** Default limit of the total size of the content compressed at startup. */
+  static final long MAX_COMPRESSED_BYTES = 64L * 1024 * 1024;
+
+  private final Map<Path, Variants> byFile;
+
+  /**
+   * A compressed variant held in a sibling file or in memory, with the last modified time of the
+   * sibling file or of the file compressed in memory.
+   */
+  private record Variant(String encoding, Path file, byte[] content, long size, long lastModified) {
+
+    /** Return true if the variant has the content of the file last modified at the given time. */
+    boolean current(long fileLastModified) {
+      return file != null ? lastModified >= fileLastModified : lastModified == fileLastModified;
+    }
+  }
+
+  /** The variants of a file in order of preference. */
+  private record Variants(List<String> encodings, Map<String, Variant> byEncoding) {}
+
+  private PrecompressedIndex(Map<Path, Variants> byFile) {
+    this.byFile = byFile;
+  }
+
+  /**
+   * Build the index of the given file or the files under the given directory.
+   *
+   * @param root The single file or directory to index.
+   * @param compress When true compress files without a sibling variant for each compressor.
+   * @param compression The compression configuration.
+   * @param mimeLookup Function returning the content type for a file name.
+   */
+  static PrecompressedIndex build(
+      Path root, boolean compress, CompressionConfig compression, Function<String, String> mimeLookup) {
+    return build(root, compress, compression, mimeLookup, MAX_COMPRESSED_BYTES);
+  }
+
+  /** Build the index holding at most maxCompressedBytes of content compressed at startup. */
+  static PrecompressedIndex build(
+      Path root,
+      boolean compress,
+      CompressionConfig compression,
+      Function<String, String> mimeLookup,
+      long maxCompressedBytes) {
+    final List<Path> files;
+    try (Stream<Path> walk = Files.walk(root)) {
+      files = walk.filter(Files::isRegularFile).filter(f -> !isVariant(f)).toList();
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+    final List<Compressor> compressors =
+        compress && compression.compressionEnabled() ? compression.compressors() : List.of();
+
+    // read and compress on dedicated threads rather than blocking the common pool
+    final var budget = new AtomicLong(maxCompressedBytes);
+    final var futures = new ArrayList<Future<Map.Entry<Path, Variants>>>(files.size());
+    final int threads = Math.max(1, Math.min(files.size(), Runtime.getRuntime().availableProcessors()));
+    try (var executor =
+        Executors.newFixedThreadPool(
+            threads, Thread.ofPlatform().name("avaje-jex-precompress-", 0).daemon().factory())) {
+      for (Path file : files) {
+        futures.add(executor.submit(() -> variants(file, compressors, compression, mimeLookup, budget)));
+      }
+    }
+    final Map<Path, Variants> byFile = new LinkedHashMap<>();
+    for (var future : futures) {
+      final var entry = result(future);
+      if (entry != null) {
+        byFile.put(entry.getKey(), entry.getValue());
+      }
+    }
+    return new PrecompressedIndex(Map.copyOf(byFile));
+  }
+
+  private static <T> T result(Future<T> future) {
+    try {
+      return future.get();
+    } catch (ExecutionException e) {
+      if (e.getCause() instanceof RuntimeException cause) {
+        throw cause;
+      }
+      throw new IllegalStateException(e.getCause());
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IllegalStateException(e);
+    }
+  }
+
+  private static boolean isVariant(Path file) {
+    final String name = file.getFileName().toString();
+    return EXTENSIONS.stream().anyMatch(e -> name.endsWith(e.getKey()));
+  }
+
+  private static Map.Entry<Path, Variants> variants(
+      Path file,
+      List<Compressor> compressors,
+      CompressionConfig compression,
+      Function<String, String> mimeLookup,
+      AtomicLong budget) {
+    try {
+      final long lastModified = Files.getLastModifiedTime(file).toMillis();
+      final var byEncoding = new LinkedHashMap<String, Variant>();
+      for (var extension : EXTENSIONS) {
+        final Path sibling = file.resolveSibling(file.getFileName() + extension.getKey());
+        if (Files.isRegularFile(sibling)) {
+          final long siblingModified = Files.getLastModifiedTime(sibling).toMillis();
+          if (siblingModified >= lastModified) {
+            // otherwise stale, older than the file it was compressed from
+            byEncoding.put(
+                extension.getValue(),
+                new Variant(extension.getValue(), sibling, null, Files.size(sibling), siblingModified));
+          }
+        }
+      }
+      if (!compressors.isEmpty()
+          && Files.size(file) >= compression.minSizeForCompression()
+          && compression.allowsForCompression(mimeLookup.apply(file.getFileName().toString()))) {
+        final byte[] content = Files.readAllBytes(file);
+        for (Compressor compressor : compressors) {
+          if (!byEncoding.containsKey(compressor.encoding()) && budget.get() > 0) {
+            final byte[] compressed = compress(compressor, content);
+            if (budget.addAndGet(-compressed.length) >= 0) {
+              byEncoding.put(
+                  compressor.encoding(),
+                  new Variant(compressor.encoding(), null, compressed, compressed.length, lastModified));
+            } else {
+              // over the limit, compressed on the fly instead
+              budget.addAndGet(compressed.length);
+            }
+          }
+        }
+      }
+      if (byEncoding.isEmpty()) {
+        return null;
+      }
+      final var encodings = orderOfPreference(byEncoding.keySet(), compressors);
+      return Map.entry(file.toAbsolutePath().normalize(), new Variants(encodings, Map.copyOf(byEncoding)));
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  private static byte[] compress(Compressor compressor, byte[] content) throws IOException {
+    final var out = new ByteArrayOutputStream(content.length / 2);
+    try (var os = compressor.compress(out)) {
+      os.write(content);
+    }
+    return out.toByteArray();
+  }
+
+  /** Configured compressors first then the remaining sibling encodings. */
+  private static List<String> orderOfPreference(Collection<String> encodings, List<Compressor> compressors) {
+    final var ordered = new ArrayList<String>();
+    for (Compressor compressor : compressors) {
+      ordered.add(compressor.encoding());
+    }
+    for (var extension : EXTENSIONS) {
+      if (!ordered.contains(extension.getValue())) {
+        ordered.add(extension.getValue());
+      }
+    }
+    ordered.retainAll(encodings);
+    return List.copyOf(ordered);
+  }
+
+  /** Return the number of files with compressed variants. */
+  int size() {
+    return byFile.size();
+  }
+
+  /**
+   * Write the best compressed variant of the file for the request returning true, or return false
+   * when there is no acceptable variant or the variant is older than the file.
+   *
+   * @param lastModified The current last modified time of the file.
+   */
+  boolean write(Context ctx, Path file, long lastModified) {
+    final Variants variants = byFile.get(file);
+    if (variants == null) {
+      return false;
+    }
+    ctx.header(VARY, "Accept-Encoding");
+    final Variant variant = variant(ctx, variants, lastModified);
+    if (variant == null) {
+      return false;
+    }
+    ctx.header(CONTENT_ENCODING, variant.encoding());
+    encodedETag(ctx, variant.encoding());
+    if ("HEAD".equals(ctx.method())) {
+      ctx.header(CONTENT_LENGTH, String.valueOf(variant.size()));
+      ctx.writeEmpty(200);
+    } else if (variant.file() != null) {
+      ctx.sendFile(variant.file());
+    } else {
+      ctx.write(ByteBuffer.wrap(variant.content()));
+    }
+    return true;
+  }
+
+  /**
+   * Return the encoding of the variant of the file written for the request, or null when there is
+   * no acceptable variant.
+   *
+   * @param lastModified The current last modified time of the file.
+   */
+  String encoding(Context ctx, Path file, long lastModified) {
+    final Variants variants = byFile.get(file);
+    final Variant variant = variants == null ? null : variant(ctx, variants, lastModified);
+    return variant == null ? null : variant.encoding();
+  }
+
+  private static Variant variant(Context ctx, Variants variants, long lastModified) {
+    if (ctx.header(RANGE) != null) {
+      return null;
+    }
+    final Variant variant =
+        CompressionConfig.findMatchingEncoding(ctx.headerValues(ACCEPT_ENCODING), variants.encodings())
+            .map(variants.byEncoding()::get)
+            .orElse(null);
+    return variant != null && variant.current(lastModified) ? variant : null;
+  }
+
+  /** Suffix a strong ETag with the encoding so each representation has its own ETag. */
+  private static void encodedETag(Context ctx, String encoding) {
+    final String etag = ctx.responseHeader(ETAG);
+    if (etag != null && !etag.startsWith("W/") && etag.endsWith("\"")) {
+      ctx.header(ETAG, List.of(etag.substring(0, etag.length() - 1) + "-" + encoding + "\""));
+    }
+  }
+}
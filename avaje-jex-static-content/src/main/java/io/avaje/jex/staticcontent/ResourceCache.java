@@ -0,0 +1,86 @@
+package io.avaje.jex.staticcontent;
+
+import java.util.LinkedHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Bounded cache of pre-compressed resources with least recently used eviction.
+ *
+ * <p>Resources are evicted when either the number of entries or the total size of their content
+ * exceeds the limit. A resource larger than the size limit is not cached.
+ */
+final class ResourceCache {
+
+  private final ReentrantLock lock = new ReentrantLock();
+  private final LinkedHashMap<String, CachedResource> entries = new LinkedHashMap<>(64, 0.75f, true);
+  private final int maxEntries;
+  private final long maxBytes;
+  private long bytes;
+
+  ResourceCache(int maxEntries, long maxBytes) {
+    this.maxEntries = maxEntries;
+    this.maxBytes = maxBytes;
+  }
+
+  /** Return the cached resource for the path, or null when not cached. */
+  CachedResource get(String path) {
+    lock.lock();
+    try {
+      return entries.get(path);
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /** Return true if the resource for the path is cached, without changing the eviction order. */
+  boolean contains(String path) {
+    lock.lock();
+    try {
+      return entries.containsKey(path);
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  void put(String path, CachedResource resource) {
+    if (resource.bytes().length > maxBytes) {
+      return;
+    }
+    lock.lock();
+    try {
+      remove(entries.put(path, resource));
+      bytes += resource.bytes().length;
+      final var it = entries.values().iterator();
+      while (it.hasNext() && (entries.size() > maxEntries || bytes > maxBytes)) {
+        remove(it.next());
+        it.remove();
+      }
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  private void remove(CachedResource resource) {
+    if (resource != null) {
+      bytes -= resource.bytes().length;
+    }
+  }
+
+  int size() {
+    lock.lock();
+    try {
+      return entries.size();
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  long bytes() {
+    lock.lock();
+    try {
+      return bytes;
+    } finally {
+      lock.unlock();
+    }
+  }
+}
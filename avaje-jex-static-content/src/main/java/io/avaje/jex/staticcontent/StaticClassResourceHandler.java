@@ -3,9 +3,17 @@ package io.avaje.jex.staticcontent;
 import static io.avaje.jex.core.Constants.*;
 
 import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URISyntaxException;
 import java.net.URL;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Predicate;
 
 import io.avaje.jex.compression.CompressionConfig;
@@ -18,6 +26,11 @@ final class StaticClassResourceHandler extends AbstractStaticHandler {
   private final URL spaRoot;
   private final URL singleFile;
   private final ClassResourceLoader resourceLoader;
+  private final Map<String, ContentTag> contentTags = new ConcurrentHashMap<>();
+  private final Map<String, Path> extractedFiles = new ConcurrentHashMap<>();
+
+  /** The content hash ETag and length of a resource in a jar. */
+  private record ContentTag(String etag, long length) {}
 
   StaticClassResourceHandler(
       String urlPrefix,
@@ -99,8 +112,19 @@ final class StaticClassResourceHandler extends AbstractStaticHandler {
     try (var fis = path.openStream()) {
       ctx.header(CONTENT_TYPE, lookupMime(urlPath));
       ctx.headers(headers);
+      final Path file = filePath(path);
+      final var attributes =
+          file == null ? null : Files.readAttributes(file, BasicFileAttributes.class);
+      final long lastModified = attributes == null ? 0 : attributes.lastModifiedTime().toMillis();
+      final ContentTag tag =
+          attributes == null
+              ? contentTag(path)
+              : new ContentTag(fileETag(attributes.size(), lastModified), attributes.size());
+      if (notModified(ctx, tag.etag(), lastModified, () -> responseEncoding(ctx, tag.length()))) {
+        return;
+      }
       if (precompress) {
-        addCachedEntry(ctx, urlPath, fis);
+        addCachedEntry(ctx, urlPath, fis, lastModified);
         return;
       }
 
@@ -109,9 +133,65 @@ final class StaticClassResourceHandler extends AbstractStaticHandler {
         return;
       }
 
-      ctx.rangedWrite(fis);
+      if (file != null) {
+        ctx.rangedWrite(FileChannel.open(file));
+      } else if (ctx.header(RANGE) != null) {
+        ctx.rangedWrite(FileChannel.open(extracted(path)));
+      } else {
+        ctx.rangedWrite(fis);
+      }
     } catch (final IOException e) {
       throw404(ctx.exchange());
     }
   }
+
+  /** Return the file of a resource in an exploded directory, or null when in a jar. */
+  private static Path filePath(URL url) {
+    if (!"file".equals(url.getProtocol())) {
+      return null;
+    }
+    try {
+      return Path.of(url.toURI());
+    } catch (URISyntaxException e) {
+      return null;
+    }
+  }
+
+  /**
+   * Return a temporary file copy of a jar resource so that ranges can be read by position rather
+   * than by reading and discarding the entry up to the range. Copied once on the first range
+   * request as class path content is fixed.
+   */
+  private Path extracted(URL url) {
+    return extractedFiles.computeIfAbsent(
+        url.toString(),
+        k -> {
+          try (var is = url.openStream()) {
+            final Path file = Files.createTempFile("jex-static", null);
+            file.toFile().deleteOnExit();
+            Files.copy(is, file, StandardCopyOption.REPLACE_EXISTING);
+            return file;
+          } catch (IOException e) {
+            throw new UncheckedIOException(e);
+          }
+        });
+  }
+
+  /**
+   * Return the content hash ETag and length of a resource, computed once as class path content is
+   * fixed.
+   */
+  private ContentTag contentTag(URL url) {
+    return contentTags.computeIfAbsent(
+        url.toString(),
+        k -> {
+          try (var is = url.openStream()) {
+            final var counter = new CountingOutputStream();
+            final String etag = contentETag(is, counter);
+            return new ContentTag(etag, counter.count());
+          } catch (IOException e) {
+            throw new UncheckedIOException(e);
+          }
+        });
+  }
 }
@@ -85,12 +85,54 @@ public sealed interface StaticContent extends JexPlugin
     Builder spaRoot(String spaIndex);
 
     /**
-     * Sent resources will be pre-compressed and cached in memory when this is enabled
+     * Sent resources will be pre-compressed and cached in memory when this is enabled. At most 1024
+     * resources and 64MB of content are cached, evicting the least recently used resources.
      *
      * @return the updated configuration
      */
     Builder preCompress();
 
+    /**
+     * Index pre-compressed variants of the files at startup and serve the best variant for the
+     * request Accept-Encoding. Sibling files with a {@code .br}, {@code .zst} or {@code .gz}
+     * extension, typically produced at build time, are served as is. Only applies to file system
+     * content.
+     *
+     * @return the updated configuration
+     */
+    Builder precompressedFiles();
+
+    /**
+     * Index pre-compressed variants of the files at startup as per {@link #precompressedFiles()}
+     * and compress, in parallel, the files that have no variant for each configured compressor.
+     * The compressed content is held in memory, up to a total of 64MB after which files are
+     * compressed on the fly.
+     *
+     * @return the updated configuration
+     */
+    Builder compressAtStartup();
+
+    /**
+     * Cache the content of served files in memory, evicting the least recently used files when
+     * either limit is exceeded. A cached file is re-read when its last modified time or size
+     * changes. Only applies to file system content that is not pre-compressed.
+     *
+     * @param maxEntries the maximum number of files to cache
+     * @param maxHeapBytes the maximum total size of the files cached on heap
+     * @return the updated configuration
+     */
+    Builder cache(int maxEntries, long maxHeapBytes);
+
+    /**
+     * Memory map cached files of at least the given size rather than reading them onto the heap.
+     * Mapped files count towards the maximum number of cached files but not the heap size. Mapped
+     * files must not be truncated while they are being served.
+     *
+     * @param minMappedSize the size at which cached files are memory mapped
+     * @return the updated configuration
+     */
+    Builder cacheMapped(long minMappedSize);
+
     /**
      * Sets a custom resource loader for loading class/module path resources. This is normally used
      * when running the application on the module path when files cannot be discovered.
@@ -6,6 +6,7 @@ import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.NoSuchFileException;
 import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
 import java.util.Map;
 import java.util.function.Predicate;
 
@@ -19,6 +20,8 @@ final class StaticFileHandler extends AbstractStaticHandler {
   private final Path indexFile;
   private final Path spaRoot;
   private final Path singleFile;
+  private final FileCache cache;
+  private PrecompressedIndex index;
 
   StaticFileHandler(
       String urlPrefix,
@@ -29,6 +32,7 @@ final class StaticFileHandler extends AbstractStaticHandler {
       Path welcomeFile,
       Path spaRoot,
       Path singleFile, boolean precompress,
+      FileCache cache,
       CompressionConfig compressionConfig) {
     super(
         urlPrefix,
@@ -41,6 +45,11 @@ final class StaticFileHandler extends AbstractStaticHandler {
     this.indexFile = welcomeFile;
     this.spaRoot = spaRoot;
     this.singleFile = singleFile;
+    this.cache = cache;
+  }
+
+  void index(PrecompressedIndex index) {
+    this.index = index;
   }
 
   @Override
@@ -93,21 +102,46 @@ final class StaticFileHandler extends AbstractStaticHandler {
 
   private void sendFile(Context ctx, HttpExchange jdkExchange, String urlPath, Path canonicalFile)
       throws IOException {
-    try (var fis = Files.newInputStream(canonicalFile)) {
+    try {
+      final var attributes = Files.readAttributes(canonicalFile, BasicFileAttributes.class);
+      if (!attributes.isRegularFile()) {
+        throw new NoSuchFileException(urlPath);
+      }
       String mimeType = lookupMime(urlPath);
       ctx.header(CONTENT_TYPE, mimeType);
       ctx.headers(headers);
+      final long lastModified = attributes.lastModifiedTime().toMillis();
+      final long size = attributes.size();
+      if (notModified(
+          ctx,
+          fileETag(size, lastModified),
+          lastModified,
+          () -> encoding(ctx, canonicalFile, size, lastModified))) {
+        return;
+      }
+      if (index != null && index.write(ctx, canonicalFile, lastModified)) {
+        return;
+      }
       if (precompress) {
-        addCachedEntry(ctx, urlPath, fis);
+        try (var fis = Files.newInputStream(canonicalFile)) {
+          addCachedEntry(ctx, urlPath, fis, lastModified);
+        }
         return;
       }
 
       if ("HEAD".equals(ctx.method())) {
-        writeHeadResponse(ctx, fis);
+        try (var fis = Files.newInputStream(canonicalFile)) {
+          writeHeadResponse(ctx, fis);
+        }
         return;
       }
 
-      ctx.rangedWrite(fis);
+      final var content = cache == null ? null : cache.get(canonicalFile, attributes);
+      if (content != null) {
+        ctx.rangedWrite(content);
+      } else {
+        ctx.rangedWrite(canonicalFile, attributes.size());
+      }
     } catch (NoSuchFileException e) {
       if (spaRoot != null) {
         final var path = spaRoot.toString();
@@ -117,4 +151,10 @@ final class StaticFileHandler extends AbstractStaticHandler {
       throw404(jdkExchange);
     }
   }
+
+  /** Return the encoding of the compressed variant or of the compressed response, if any. */
+  private String encoding(Context ctx, Path file, long size, long lastModified) {
+    final String variant = index == null ? null : index.encoding(ctx, file, lastModified);
+    return variant != null ? variant : responseEncoding(ctx, size);
+  }
 }
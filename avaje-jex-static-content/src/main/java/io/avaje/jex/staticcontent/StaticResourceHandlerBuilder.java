@@ -35,6 +35,11 @@ final class StaticResourceHandlerBuilder implements StaticContent.Builder, Stati
   private Predicate<Context> skipFilePredicate = NO_OP_PREDICATE;
   private boolean isClasspath = true;
   private boolean precompress;
+  private boolean precompressedFiles;
+  private boolean compressAtStartup;
+  private int cacheMaxEntries;
+  private long cacheMaxHeapBytes;
+  private long cacheMinMappedSize = Long.MAX_VALUE;
   private Role[] roles = {};
 
   private StaticResourceHandlerBuilder(String root) {
@@ -137,6 +142,32 @@ final class StaticResourceHandlerBuilder implements StaticContent.Builder, Stati
     return this;
   }
 
+  @Override
+  public StaticResourceHandlerBuilder precompressedFiles() {
+    this.precompressedFiles = true;
+    return this;
+  }
+
+  @Override
+  public StaticResourceHandlerBuilder compressAtStartup() {
+    this.precompressedFiles = true;
+    this.compressAtStartup = true;
+    return this;
+  }
+
+  @Override
+  public StaticResourceHandlerBuilder cache(int maxEntries, long maxHeapBytes) {
+    this.cacheMaxEntries = maxEntries;
+    this.cacheMaxHeapBytes = maxHeapBytes;
+    return this;
+  }
+
+  @Override
+  public StaticResourceHandlerBuilder cacheMapped(long minMappedSize) {
+    this.cacheMinMappedSize = minMappedSize;
+    return this;
+  }
+
   StaticResourceHandlerBuilder file() {
     this.isClasspath = false;
     return this;
@@ -179,7 +210,7 @@ final class StaticResourceHandlerBuilder implements StaticContent.Builder, Stati
       }
     }
 
-    return new StaticFileHandler(
+    var handler = new StaticFileHandler(
         path,
         fsRoot,
         mimeTypes,
@@ -189,7 +220,13 @@ final class StaticResourceHandlerBuilder implements StaticContent.Builder, Stati
         spaRootFile,
         singleFile,
         precompress,
+        cacheMaxEntries > 0 ? new FileCache(cacheMaxEntries, cacheMaxHeapBytes, cacheMinMappedSize) : null,
         compress);
+    if (precompressedFiles) {
+      var indexRoot = singleFile != null ? singleFile : Path.of(fsRoot);
+      handler.index(PrecompressedIndex.build(indexRoot, compressAtStartup, compress, handler::lookupMime));
+    }
+    return handler;
   }
 
   private StaticClassResourceHandler classPathHandler(CompressionConfig compress) {
@@ -0,0 +1,214 @@
+package io.avaje.jex.staticcontent;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.net.http.HttpResponse;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+
+import io.avaje.jex.Jex;
+import io.avaje.jex.test.TestPair;
+
+class ETagTest {
+
+  static TestPair pair = init();
+
+  static TestPair init() {
+    final Jex app =
+        Jex.create()
+            .plugin(
+                StaticContent.ofFile("src/test/resources/public")
+                    .directoryIndex("index.html")
+                    .route("/files/*")
+                    .build())
+            .plugin(
+                StaticContent.ofClassPath("/public")
+                    .directoryIndex("index.html")
+                    .route("/cp/*")
+                    .build())
+            .plugin(
+                StaticContent.ofFile("src/test/resources/public")
+                    .directoryIndex("index.html")
+                    .preCompress()
+                    .route("/pre/*")
+                    .build())
+            .plugin(
+                StaticContent.ofFile("src/test/resources/precompressed")
+                    .directoryIndex("index.html")
+                    .precompressedFiles()
+                    .route("/variants/*")
+                    .build());
+
+    return TestPair.create(app);
+  }
+
+  @AfterAll
+  static void end() {
+    pair.shutdown();
+  }
+
+  private static HttpResponse<String> get(String path) {
+    return pair.request().path(path).GET().asString();
+  }
+
+  @Test
+  void file_etagAndLastModified() {
+    HttpResponse<String> res = get("files/sus.txt");
+    assertThat(res.statusCode()).isEqualTo(200);
+    assertThat(res.headers().firstValue("ETag").orElseThrow()).startsWith("\"").endsWith("\"");
+    assertThat(res.headers().firstValue("Last-Modified")).isPresent();
+  }
+
+  @Test
+  void file_ifNoneMatch_304() {
+    String etag = get("files/sus.txt").headers().firstValue("ETag").orElseThrow();
+
+    HttpResponse<String> res =
+        pair.request().header("If-None-Match", "\"other\", " + etag).path("files/sus.txt").GET().asString();
+    assertThat(res.statusCode()).isEqualTo(304);
+    assertThat(res.body()).isEmpty();
+    assertThat(res.headers().firstValue("ETag")).hasValue(etag);
+  }
+
+  @Test
+  void file_ifNoneMatch_mismatch_200() {
+    HttpResponse<String> res =
+        pair.request().header("If-None-Match", "\"other\"").path("files/sus.txt").GET().asString();
+    assertThat(res.statusCode()).isEqualTo(200);
+    assertThat(res.body()).isNotEmpty();
+  }
+
+  @Test
+  void file_ifModifiedSince_304() {
+    String lastModified = get("files/sus.txt").headers().firstValue("Last-Modified").orElseThrow();
+
+    HttpResponse<String> res =
+        pair.request().header("If-Modified-Since", lastModified).path("files/sus.txt").GET().asString();
+    assertThat(res.statusCode()).isEqualTo(304);
+  }
+
+  @Test
+  void file_ifNoneMatch_takesPrecedence() {
+    String lastModified = get("files/sus.txt").headers().firstValue("Last-Modified").orElseThrow();
+
+    HttpResponse<String> res =
+        pair.request()
+            .header("If-None-Match", "\"other\"")
+            .header("If-Modified-Since", lastModified)
+            .path("files/sus.txt")
+            .GET()
+            .asString();
+    assertThat(res.statusCode()).isEqualTo(200);
+  }
+
+  @Test
+  void file_gzip_encodedETag() {
+    String etag = get("files/index.html").headers().firstValue("ETag").orElseThrow();
+
+    HttpResponse<String> res =
+        pair.request().header("Accept-Encoding", "gzip").path("files/index.html").GET().asString();
+    assertThat(res.headers().firstValue("Content-Encoding")).hasValue("gzip");
+    String encoded = res.headers().firstValue("ETag").orElseThrow();
+    assertThat(encoded).isEqualTo(etag.substring(0, etag.length() - 1) + "-gzip\"");
+
+    HttpResponse<String> notModified =
+        pair.request()
+            .header("Accept-Encoding", "gzip")
+            .header("If-None-Match", encoded)
+            .path("files/index.html")
+            .GET()
+            .asString();
+    assertThat(notModified.statusCode()).isEqualTo(304);
+    assertThat(notModified.headers().firstValue("ETag")).hasValue(encoded);
+  }
+
+  @Test
+  void file_gzip_identityETagMatch_304EncodedETag() {
+    String etag = get("files/index.html").headers().firstValue("ETag").orElseThrow();
+
+    HttpResponse<String> notModified =
+        pair.request()
+            .header("Accept-Encoding", "gzip")
+            .header("If-None-Match", etag)
+            .path("files/index.html")
+            .GET()
+            .asString();
+    assertThat(notModified.statusCode()).isEqualTo(304);
+    assertThat(notModified.headers().firstValue("ETag"))
+        .hasValue(etag.substring(0, etag.length() - 1) + "-gzip\"");
+  }
+
+  @Test
+  void file_range_304IdentityETag() {
+    String etag = get("files/index.html").headers().firstValue("ETag").orElseThrow();
+
+    HttpResponse<String> notModified =
+        pair.request()
+            .header("Accept-Encoding", "gzip")
+            .header("Range", "bytes=0-9")
+            .header("If-None-Match", etag)
+            .path("files/index.html")
+            .GET()
+            .asString();
+    assertThat(notModified.statusCode()).isEqualTo(304);
+    assertThat(notModified.headers().firstValue("ETag")).hasValue(etag);
+  }
+
+  @Test
+  void classPath_gzip_304EncodedETag() {
+    HttpResponse<String> res =
+        pair.request().header("Accept-Encoding", "gzip").path("cp/index.html").GET().asString();
+    assertThat(res.headers().firstValue("Content-Encoding")).hasValue("gzip");
+    String encoded = res.headers().firstValue("ETag").orElseThrow();
+
+    HttpResponse<String> notModified =
+        pair.request()
+            .header("Accept-Encoding", "gzip")
+            .header("If-None-Match", encoded)
+            .path("cp/index.html")
+            .GET()
+            .asString();
+    assertThat(notModified.statusCode()).isEqualTo(304);
+    assertThat(notModified.headers().firstValue("ETag")).hasValue(encoded);
+  }
+
+  @Test
+  void classPath_ifNoneMatch_304() {
+    String etag = get("cp/sus.txt").headers().firstValue("ETag").orElseThrow();
+
+    HttpResponse<String> res =
+        pair.request().header("If-None-Match", etag).path("cp/sus.txt").GET().asString();
+    assertThat(res.statusCode()).isEqualTo(304);
+  }
+
+  @Test
+  void preCompress_cached_304() {
+    String etag = get("pre/sus.txt").headers().firstValue("ETag").orElseThrow();
+    // second request is served from the cache
+    assertThat(get("pre/sus.txt").headers().firstValue("ETag")).hasValue(etag);
+
+    HttpResponse<String> res =
+        pair.request().header("If-None-Match", etag).path("pre/sus.txt").GET().asString();
+    assertThat(res.statusCode()).isEqualTo(304);
+  }
+
+  @Test
+  void precompressedVariant_encodedETag() {
+    HttpResponse<String> res =
+        pair.request().header("Accept-Encoding", "br").path("variants/app.js").GET().asString();
+    assertThat(res.headers().firstValue("Content-Encoding")).hasValue("br");
+    String encoded = res.headers().firstValue("ETag").orElseThrow();
+    assertThat(encoded).endsWith("-br\"");
+
+    HttpResponse<String> notModified =
+        pair.request()
+            .header("Accept-Encoding", "br")
+            .header("If-None-Match", encoded)
+            .path("variants/app.js")
+            .GET()
+            .asString();
+    assertThat(notModified.statusCode()).isEqualTo(304);
+    assertThat(notModified.headers().firstValue("ETag")).hasValue(encoded);
+  }
+}
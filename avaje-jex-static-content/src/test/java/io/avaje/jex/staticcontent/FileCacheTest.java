@@ -0,0 +1,125 @@
+package io.avaje.jex.staticcontent;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+
+import org.junit.jupiter.api.Test;
+
+class FileCacheTest {
+
+  final Path dir = createDir();
+
+  static Path createDir() {
+    try {
+      var dir = Files.createTempDirectory("fileCache");
+      dir.toFile().deleteOnExit();
+      return dir;
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  private Path file(String name, int size) throws IOException {
+    return Files.write(dir.resolve(name), new byte[size]);
+  }
+
+  private static ByteBuffer get(FileCache cache, Path file) throws IOException {
+    return cache.get(file, Files.readAttributes(file, BasicFileAttributes.class));
+  }
+
+  @Test
+  void cached() throws IOException {
+    var cache = new FileCache(10, 1000, Long.MAX_VALUE);
+    var file = file("a.txt", 100);
+
+    var content = get(cache, file);
+    assertThat(content.remaining()).isEqualTo(100);
+    assertThat(get(cache, file)).isSameAs(content);
+    assertThat(cache.heapBytes()).isEqualTo(100);
+  }
+
+  @Test
+  void modified_reloaded() throws IOException {
+    var cache = new FileCache(10, 1000, Long.MAX_VALUE);
+    var file = file("a.txt", 10);
+    var content = get(cache, file);
+
+    Files.writeString(file, "changed", StandardCharsets.UTF_8);
+    Files.setLastModifiedTime(file, FileTime.fromMillis(System.currentTimeMillis() + 5000));
+    var reloaded = get(cache, file);
+    assertThat(reloaded).isNotSameAs(content);
+    assertThat(StandardCharsets.UTF_8.decode(reloaded.duplicate()).toString()).isEqualTo("changed");
+    assertThat(cache.size()).isEqualTo(1);
+    assertThat(cache.heapBytes()).isEqualTo(7);
+  }
+
+  @Test
+  void evict_leastRecentlyUsed_byCount() throws IOException {
+    var cache = new FileCache(2, 1000, Long.MAX_VALUE);
+    var a = file("a.txt", 10);
+    var b = file("b.txt", 10);
+    var c = file("c.txt", 10);
+    var contentA = get(cache, a);
+    var contentB = get(cache, b);
+    get(cache, a);
+    get(cache, c);
+
+    assertThat(cache.size()).isEqualTo(2);
+    assertThat(get(cache, a)).isSameAs(contentA);
+    assertThat(get(cache, b)).isNotSameAs(contentB);
+  }
+
+  @Test
+  void evict_byHeapBytes() throws IOException {
+    var cache = new FileCache(10, 250, Long.MAX_VALUE);
+    get(cache, file("a.txt", 100));
+    get(cache, file("b.txt", 100));
+    get(cache, file("c.txt", 100));
+
+    assertThat(cache.size()).isEqualTo(2);
+    assertThat(cache.heapBytes()).isEqualTo(200);
+  }
+
+  @Test
+  void tooLarge_notCached() throws IOException {
+    var cache = new FileCache(10, 50, Long.MAX_VALUE);
+    assertThat(get(cache, file("a.txt", 100))).isNull();
+    assertThat(cache.size()).isZero();
+  }
+
+  @Test
+  void mapped() throws IOException {
+    var cache = new FileCache(10, 50, 100);
+    var content = get(cache, file("a.bin", 1000));
+
+    assertThat(content.isDirect()).isTrue();
+    assertThat(content.remaining()).isEqualTo(1000);
+    assertThat(cache.size()).isEqualTo(1);
+    assertThat(cache.heapBytes()).isZero();
+  }
+
+  @Test
+  void mapped_largerThanBuffer_notCached() throws IOException {
+    var cache = new FileCache(10, 50, 100);
+    var file = dir.resolve("large.bin");
+    try (var raf = new RandomAccessFile(file.toFile(), "rw")) {
+      // sparse so no disk space is used
+      raf.setLength(Integer.MAX_VALUE + 1L);
+    }
+    try {
+      assertThat(get(cache, file)).isNull();
+      assertThat(cache.size()).isZero();
+    } finally {
+      Files.delete(file);
+    }
+  }
+}
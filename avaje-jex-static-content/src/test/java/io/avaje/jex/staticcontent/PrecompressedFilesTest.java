@@ -0,0 +1,123 @@
+package io.avaje.jex.staticcontent;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.zip.GZIPInputStream;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+
+import io.avaje.jex.Jex;
+import io.avaje.jex.test.TestPair;
+
+class PrecompressedFilesTest {
+
+  static TestPair pair = init();
+
+  static TestPair init() {
+    siblingsModifiedWith("src/test/resources/precompressed/app.js");
+    final Jex app =
+        Jex.create()
+            .plugin(
+                StaticContent.ofFile("src/test/resources/precompressed")
+                    .directoryIndex("index.html")
+                    .precompressedFiles()
+                    .route("/files/*")
+                    .build())
+            .plugin(
+                StaticContent.ofFile("src/test/resources/public")
+                    .directoryIndex("index.html")
+                    .compressAtStartup()
+                    .route("/startup/*")
+                    .build());
+
+    return TestPair.create(app);
+  }
+
+  /** Checkout order does not preserve that the siblings are newer than the file. */
+  private static void siblingsModifiedWith(String file) {
+    try {
+      var lastModified = Files.getLastModifiedTime(Path.of(file));
+      for (String ext : new String[] {".br", ".gz"}) {
+        Files.setLastModifiedTime(Path.of(file + ext), lastModified);
+      }
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  @AfterAll
+  static void end() {
+    pair.shutdown();
+  }
+
+  private static byte[] file(String path) throws IOException {
+    return Files.readAllBytes(Path.of("src/test/resources", path));
+  }
+
+  @Test
+  void sibling_br() throws IOException {
+    HttpResponse<InputStream> res =
+        pair.request().header("Accept-Encoding", "gzip, br").path("files/app.js").GET().asInputStream();
+
+    assertThat(res.statusCode()).isEqualTo(200);
+    assertThat(res.headers().firstValue("Content-Encoding")).hasValue("br");
+    assertThat(res.headers().firstValue("Vary")).hasValue("Accept-Encoding");
+    assertThat(res.headers().firstValue("Content-Type").orElseThrow()).contains("javascript");
+    assertThat(res.body().readAllBytes()).isEqualTo(file("precompressed/app.js.br"));
+  }
+
+  @Test
+  void sibling_gzip_byQuality() throws IOException {
+    HttpResponse<InputStream> res =
+        pair.request().header("Accept-Encoding", "br;q=0.5, gzip").path("files/app.js").GET().asInputStream();
+
+    assertThat(res.headers().firstValue("Content-Encoding")).hasValue("gzip");
+    assertThat(res.body().readAllBytes()).isEqualTo(file("precompressed/app.js.gz"));
+  }
+
+  @Test
+  void sibling_head() {
+    HttpResponse<String> res =
+        pair.request().header("Accept-Encoding", "gzip").path("files/app.js").HEAD().asString();
+
+    assertThat(res.headers().firstValue("Content-Encoding")).hasValue("gzip");
+    assertThat(res.headers().firstValue("Content-Length")).hasValue("326");
+  }
+
+  @Test
+  void noAcceptEncoding_identity() throws IOException {
+    HttpResponse<InputStream> res = pair.request().path("files/app.js").GET().asInputStream();
+
+    assertThat(res.headers().firstValue("Content-Encoding")).isEmpty();
+    assertThat(res.headers().firstValue("Vary")).hasValue("Accept-Encoding");
+    assertThat(res.body().readAllBytes()).isEqualTo(file("precompressed/app.js"));
+  }
+
+  @Test
+  void noVariant() {
+    HttpResponse<String> res =
+        pair.request().header("Accept-Encoding", "gzip").path("files/index.html").GET().asString();
+
+    assertThat(res.statusCode()).isEqualTo(200);
+    assertThat(res.headers().firstValue("Vary")).isEmpty();
+  }
+
+  @Test
+  void compressAtStartup() throws IOException {
+    HttpResponse<InputStream> res =
+        pair.request().header("Accept-Encoding", "gzip").path("startup/index.html").GET().asInputStream();
+
+    assertThat(res.headers().firstValue("Content-Encoding")).hasValue("gzip");
+    assertThat(res.headers().firstValue("Content-Length")).isPresent();
+    try (var in = new GZIPInputStream(res.body())) {
+      assertThat(in.readAllBytes()).isEqualTo(file("public/index.html"));
+    }
+  }
+}
@@ -0,0 +1,98 @@
+package io.avaje.jex.staticcontent;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.junit.jupiter.api.Test;
+
+import io.avaje.jex.compression.CompressionConfig;
+import io.avaje.jex.compression.Compressor;
+
+class PrecompressedIndexTest {
+
+  final Path dir = createDir();
+
+  static Path createDir() {
+    try {
+      var dir = Files.createTempDirectory("precompressed");
+      dir.toFile().deleteOnExit();
+      return dir;
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  private Path text(String name) throws IOException {
+    return Files.writeString(dir.resolve(name), "precompressed content ".repeat(500));
+  }
+
+  private PrecompressedIndex build(long maxCompressedBytes) {
+    return PrecompressedIndex.build(
+        dir, true, new CompressionConfig(), name -> "text/plain", maxCompressedBytes);
+  }
+
+  @Test
+  void compressAtStartup() throws IOException {
+    text("a.txt");
+    text("b.txt");
+    assertThat(build(PrecompressedIndex.MAX_COMPRESSED_BYTES).size()).isEqualTo(2);
+  }
+
+  @Test
+  void compressAtStartup_overBudget_notHeld() throws IOException {
+    text("a.txt");
+    text("b.txt");
+    assertThat(build(0).size()).isZero();
+  }
+
+  @Test
+  void compressAtStartup_dedicatedThreads() throws IOException {
+    text("a.txt");
+    text("b.txt");
+    Set<String> threads = ConcurrentHashMap.newKeySet();
+    var compression =
+        new CompressionConfig()
+            .compressor(
+                new Compressor() {
+                  @Override
+                  public String encoding() {
+                    return "x-test";
+                  }
+
+                  @Override
+                  public OutputStream compress(OutputStream out) {
+                    threads.add(Thread.currentThread().getName());
+                    return out;
+                  }
+                });
+    PrecompressedIndex.build(dir, true, compression, name -> "text/plain");
+    assertThat(threads).isNotEmpty();
+    assertThat(threads.stream().allMatch(name -> name.startsWith("avaje-jex-precompress-"))).isTrue();
+  }
+
+  @Test
+  void siblingVariant() throws IOException {
+    var file = text("a.txt");
+    var sibling = Files.write(dir.resolve("a.txt.gz"), new byte[10]);
+    Files.setLastModifiedTime(sibling, FileTime.fromMillis(Files.getLastModifiedTime(file).toMillis() + 5000));
+    assertThat(PrecompressedIndex.build(dir, false, new CompressionConfig(), name -> "text/plain").size())
+        .isEqualTo(1);
+  }
+
+  @Test
+  void siblingVariant_olderThanFile_notIndexed() throws IOException {
+    var file = text("a.txt");
+    var sibling = Files.write(dir.resolve("a.txt.gz"), new byte[10]);
+    Files.setLastModifiedTime(sibling, FileTime.fromMillis(Files.getLastModifiedTime(file).toMillis() - 5000));
+    assertThat(PrecompressedIndex.build(dir, false, new CompressionConfig(), name -> "text/plain").size())
+        .isZero();
+  }
+}
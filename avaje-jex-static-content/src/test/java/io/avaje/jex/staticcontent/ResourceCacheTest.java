@@ -0,0 +1,66 @@
+package io.avaje.jex.staticcontent;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+class ResourceCacheTest {
+
+  private static CachedResource resource(int size) {
+    return new CachedResource(Map.of(), new byte[size], true, "gzip", "\"etag\"", 0);
+  }
+
+  @Test
+  void cached() {
+    var cache = new ResourceCache(10, 1000);
+    var resource = resource(100);
+    cache.put("/a", resource);
+    assertThat(cache.get("/a")).isSameAs(resource);
+    assertThat(cache.contains("/a")).isTrue();
+    assertThat(cache.get("/b")).isNull();
+    assertThat(cache.bytes()).isEqualTo(100);
+  }
+
+  @Test
+  void maxEntries_evictsLeastRecentlyUsed() {
+    var cache = new ResourceCache(2, 1000);
+    cache.put("/a", resource(10));
+    cache.put("/b", resource(10));
+    cache.get("/a");
+    cache.put("/c", resource(10));
+    assertThat(cache.size()).isEqualTo(2);
+    assertThat(cache.contains("/a")).isTrue();
+    assertThat(cache.contains("/b")).isFalse();
+    assertThat(cache.bytes()).isEqualTo(20);
+  }
+
+  @Test
+  void maxBytes_evicts() {
+    var cache = new ResourceCache(10, 250);
+    cache.put("/a", resource(100));
+    cache.put("/b", resource(100));
+    cache.put("/c", resource(100));
+    assertThat(cache.contains("/a")).isFalse();
+    assertThat(cache.size()).isEqualTo(2);
+    assertThat(cache.bytes()).isEqualTo(200);
+  }
+
+  @Test
+  void replaced_bytesUpdated() {
+    var cache = new ResourceCache(10, 1000);
+    cache.put("/a", resource(100));
+    cache.put("/a", resource(50));
+    assertThat(cache.size()).isEqualTo(1);
+    assertThat(cache.bytes()).isEqualTo(50);
+  }
+
+  @Test
+  void largerThanMaxBytes_notCached() {
+    var cache = new ResourceCache(10, 100);
+    cache.put("/a", resource(101));
+    assertThat(cache.contains("/a")).isFalse();
+    assertThat(cache.bytes()).isZero();
+  }
+}
@@ -0,0 +1,60 @@
+export function fn0(a, b) { return a + b * 0; }
+export function fn1(a, b) { return a + b * 1; }
+export function fn2(a, b) { return a + b * 2; }
+export function fn3(a, b) { return a + b * 3; }
+export function fn4(a, b) { return a + b * 4; }
+export function fn5(a, b) { return a + b * 5; }
+export function fn6(a, b) { return a + b * 6; }
+export function fn7(a, b) { return a + b * 7; }
+export function fn8(a, b) { return a + b * 8; }
+export function fn9(a, b) { return a + b * 9; }
+export function fn10(a, b) { return a + b * 10; }
+export function fn11(a, b) { return a + b * 11; }
+export function fn12(a, b) { return a + b * 12; }
+export function fn13(a, b) { return a + b * 13; }
+export function fn14(a, b) { return a + b * 14; }
+export function fn15(a, b) { return a + b * 15; }
+export function fn16(a, b) { return a + b * 16; }
+export function fn17(a, b) { return a + b * 17; }
+export function fn18(a, b) { return a + b * 18; }
+export function fn19(a, b) { return a + b * 19; }
+export function fn20(a, b) { return a + b * 20; }
+export function fn21(a, b) { return a + b * 21; }
+export function fn22(a, b) { return a + b * 22; }
+export function fn23(a, b) { return a + b * 23; }
+export function fn24(a, b) { return a + b * 24; }
+export function fn25(a, b) { return a + b * 25; }
+export function fn26(a, b) { return a + b * 26; }
+export function fn27(a, b) { return a + b * 27; }
+export function fn28(a, b) { return a + b * 28; }
+export function fn29(a, b) { return a + b * 29; }
+export function fn30(a, b) { return a + b * 30; }
+export function fn31(a, b) { return a + b * 31; }
+export function fn32(a, b) { return a + b * 32; }
+export function fn33(a, b) { return a + b * 33; }
+export function fn34(a, b) { return a + b * 34; }
+export function fn35(a, b) { return a + b * 35; }
+export function fn36(a, b) { return a + b * 36; }
+export function fn37(a, b) { return a + b * 37; }
+export function fn38(a, b) { return a + b * 38; }
+export function fn39(a, b) { return a + b * 39; }
+export function fn40(a, b) { return a + b * 40; }
+export function fn41(a, b) { return a + b * 41; }
+export function fn42(a, b) { return a + b * 42; }
+export function fn43(a, b) { return a + b * 43; }
+export function fn44(a, b) { return a + b * 44; }
+export function fn45(a, b) { return a + b * 45; }
+export function fn46(a, b) { return a + b * 46; }
+export function fn47(a, b) { return a + b * 47; }
+export function fn48(a, b) { return a + b * 48; }
+export function fn49(a, b) { return a + b * 49; }
+export function fn50(a, b) { return a + b * 50; }
+export function fn51(a, b) { return a + b * 51; }
+export function fn52(a, b) { return a + b * 52; }
+export function fn53(a, b) { return a + b * 53; }
+export function fn54(a, b) { return a + b * 54; }
+export function fn55(a, b) { return a + b * 55; }
+export function fn56(a, b) { return a + b * 56; }
+export function fn57(a, b) { return a + b * 57; }
+export function fn58(a, b) { return a + b * 58; }
+export function fn59(a, b) { return a + b * 59; }
@@ -1,5 +1,6 @@
 package io.avaje.jex;
 
+import java.time.Duration;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.concurrent.Executor;
@@ -10,6 +11,8 @@ import com.sun.net.httpserver.HttpsConfigurator;
 import com.sun.net.httpserver.spi.HttpServerProvider;
 
 import io.avaje.jex.compression.CompressionConfig;
+import io.avaje.jex.metrics.RouteMetrics;
+import io.avaje.jex.spi.BufferPool;
 import io.avaje.jex.spi.JsonService;
 import io.avaje.jex.spi.TemplateRender;
 
@@ -28,9 +31,12 @@ final class DJexConfig implements JexConfig {
   private final CompressionConfig compression = new CompressionConfig();
   private int bufferInitial = 256;
   private long bufferMax = 4096L;
+  private BufferPool bufferPool;
   private int rangeChunkSize = 990_000;
   private long maxRequestSize = 1_000_000L;
   private HttpServerProvider serverProvider;
+  private Duration routeReorderInterval;
+  private RouteMetrics routeMetrics;
 
   @Override
   public JexConfig host(String host) {
@@ -185,6 +191,20 @@ final class DJexConfig implements JexConfig {
     return this;
   }
 
+  @Override
+  public BufferPool bufferPool() {
+    if (bufferPool == null) {
+      bufferPool = BufferPool.create();
+    }
+    return bufferPool;
+  }
+
+  @Override
+  public JexConfig bufferPool(BufferPool bufferPool) {
+    this.bufferPool = bufferPool;
+    return this;
+  }
+
   @Override
   public JexConfig maxStreamBufferSize(long maxSize) {
     bufferMax = maxSize;
@@ -223,4 +243,26 @@ final class DJexConfig implements JexConfig {
   public long maxRequestSize() {
     return maxRequestSize;
   }
+
+  @Override
+  public Duration routeReorderInterval() {
+    return routeReorderInterval;
+  }
+
+  @Override
+  public JexConfig routeReorderInterval(Duration interval) {
+    this.routeReorderInterval = interval;
+    return this;
+  }
+
+  @Override
+  public RouteMetrics routeMetrics() {
+    return routeMetrics;
+  }
+
+  @Override
+  public JexConfig routeMetrics(RouteMetrics routeMetrics) {
+    this.routeMetrics = routeMetrics;
+    return this;
+  }
 }
@@ -152,6 +152,12 @@ final class DefaultRouting implements Routing {
     return this;
   }
 
+  @Override
+  public Routing filter(String path, HttpFilter handler, Type... methods) {
+    filters.add(new PathFilter(path(path), Set.of(methods), handler));
+    return this;
+  }
+
   private static final class Entry implements Routing.Entry {
 
     private final Type type;
@@ -186,6 +186,15 @@ public interface Jex {
     return this;
   }
 
+  /**
+   * Add a filter for requests matching routes with the given path and http methods (all methods
+   * when none are given). A path ending in {@code *} matches all routes with that path prefix.
+   */
+  default Jex filter(String path, HttpFilter handler, Routing.Type... methods) {
+    routing().filter(path, handler, methods);
+    return this;
+  }
+
   /**
    * Registers an exception handler that handles the given type of exceptions. This will replace an
    * existing error handler for the same exception class.
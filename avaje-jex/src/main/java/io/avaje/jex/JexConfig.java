@@ -1,5 +1,6 @@
 package io.avaje.jex;
 
+import java.time.Duration;
 import java.util.Map;
 import java.util.concurrent.Executor;
 import java.util.concurrent.Executors;
@@ -12,6 +13,8 @@ import com.sun.net.httpserver.HttpsConfigurator;
 import com.sun.net.httpserver.spi.HttpServerProvider;
 
 import io.avaje.jex.compression.CompressionConfig;
+import io.avaje.jex.metrics.RouteMetrics;
+import io.avaje.jex.spi.BufferPool;
 import io.avaje.jex.spi.JsonService;
 import io.avaje.jex.spi.TemplateRender;
 
@@ -120,6 +123,19 @@ public interface JexConfig {
    */
   JexConfig initialStreamBufferSize(int initialSize);
 
+  /** Return the pool that response stream buffers are borrowed from. */
+  BufferPool bufferPool();
+
+  /**
+   * Set the pool that response stream buffers are borrowed from and returned to when the response
+   * is complete.
+   *
+   * <p>Defaults to {@link BufferPool#create()}
+   *
+   * @param bufferPool The buffer pool, {@link BufferPool#unpooled()} to disable pooling.
+   */
+  JexConfig bufferPool(BufferPool bufferPool);
+
   /** Returns the configured JSON service. */
   JsonService jsonService();
 
@@ -157,6 +173,33 @@ public interface JexConfig {
    */
   JexConfig port(int port);
 
+  /** Return the interval at which parameter routes are re-ordered by hit count (null when disabled). */
+  Duration routeReorderInterval();
+
+  /**
+   * Enable periodic re-ordering of parameter routes by hit count so that the most frequently
+   * matched routes are tried first. Routes are only re-ordered where doing so can not change which
+   * route a request matches.
+   *
+   * <p>Defaults to null (disabled)
+   *
+   * @param interval The interval between re-ordering, or null to disable.
+   */
+  JexConfig routeReorderInterval(Duration interval);
+
+  /** Return the per route metrics to record to (null when not recording). */
+  RouteMetrics routeMetrics();
+
+  /**
+   * Record per route request metrics, typically set by {@link
+   * io.avaje.jex.metrics.RouteMetricsPlugin}.
+   *
+   * <p>Defaults to null (not recording)
+   *
+   * @param routeMetrics The metrics to record to, or null to disable.
+   */
+  JexConfig routeMetrics(RouteMetrics routeMetrics);
+
   /** The configured rangeChunk size */
   int rangeChunkSize();
 
@@ -0,0 +1,42 @@
+package io.avaje.jex;
+
+import java.util.Set;
+
+import io.avaje.jex.Routing.Type;
+import io.avaje.jex.http.Context;
+import io.avaje.jex.http.HttpFilter;
+
+/** Filter applying to routes with a matching path and method. */
+final class PathFilter implements Routing.ScopedFilter {
+
+  private final String path;
+  private final Set<Type> methods;
+  private final HttpFilter filter;
+
+  PathFilter(String path, Set<Type> methods, HttpFilter filter) {
+    this.path = path;
+    this.methods = methods;
+    this.filter = filter;
+  }
+
+  @Override
+  public boolean appliesTo(Type type, String routePath) {
+    if (!methods.isEmpty() && !methods.contains(type)) {
+      return false;
+    }
+    if (path.endsWith("*")) {
+      return routePath.startsWith(path.substring(0, path.length() - 1));
+    }
+    return routePath.equals(path);
+  }
+
+  @Override
+  public void filter(Context ctx, FilterChain chain) {
+    filter.filter(ctx, chain);
+  }
+
+  @Override
+  public String toString() {
+    return "PathFilter{" + path + ", methods=" + methods + '}';
+  }
+}
@@ -169,6 +169,43 @@ public interface Routing {
         });
   }
 
+  /**
+   * Add a filter for requests matching routes with the given path and http methods (all methods
+   * when none are given). A path ending in {@code *} matches all routes with that path prefix.
+   *
+   * <p>The path is matched against the full route path including the context path, the same
+   * path as {@link Context#path()} returns for requests to the route.
+   *
+   * <p>The routes a scoped filter applies to are determined once when the server starts.
+   *
+   * @param path The route path or path prefix ending in {@code *}.
+   * @param handler The filter to apply to the matching routes.
+   * @param methods The http methods the filter applies to, all methods when empty.
+   */
+  default Routing filter(String path, HttpFilter handler, Type... methods) {
+    return filter(new PathFilter(path, Set.of(methods), handler));
+  }
+
+  /** Add a pre-processing filter for requests matching routes with the given path. */
+  default Routing before(String path, Consumer<Context> handler) {
+    return filter(
+        path,
+        (ctx, chain) -> {
+          handler.accept(ctx);
+          chain.proceed();
+        });
+  }
+
+  /** Add a post-processing filter for requests matching routes with the given path. */
+  default Routing after(String path, Consumer<Context> handler) {
+    return filter(
+        path,
+        (ctx, chain) -> {
+          chain.proceed();
+          handler.accept(ctx);
+        });
+  }
+
   /**
    * Adds an SSE handler to the route configuration.
    *
@@ -217,6 +254,23 @@ public interface Routing {
     Set<Role> getRoles();
   }
 
+  /**
+   * A filter that only applies to some routes.
+   *
+   * <p>Each route is checked once when the server starts and the filter is only included in the
+   * filter chain of the routes it applies to.
+   */
+  interface ScopedFilter extends HttpFilter {
+
+    /**
+     * Return true if the filter applies to the route.
+     *
+     * @param type The http method of the route.
+     * @param path The path of the route including the context path.
+     */
+    boolean appliesTo(Type type, String path);
+  }
+
   /** The type of route entry. */
   enum Type {
     CONNECT,
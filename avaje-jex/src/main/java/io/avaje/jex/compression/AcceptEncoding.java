@@ -0,0 +1,128 @@
+package io.avaje.jex.compression;
+
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Allocation free negotiation of the Accept-Encoding request header.
+ *
+ * <p>Each candidate takes the q-value of its own token, or of a {@code *} token when not listed,
+ * with the highest q-value winning and ties going to the first candidate. A q-value of 0 rejects
+ * the encoding.
+ */
+final class AcceptEncoding {
+
+  private AcceptEncoding() {}
+
+  /**
+   * Return the best candidate for the Accept-Encoding header values, or null when none are
+   * acceptable.
+   *
+   * @param values The Accept-Encoding header values.
+   * @param candidates The candidates in order of preference.
+   * @param encodingOf Function returning the encoding of a candidate.
+   */
+  static <T> T select(List<String> values, List<T> candidates, Function<T, String> encodingOf) {
+    T best = null;
+    double bestQuality = 0;
+    for (int i = 0; i < candidates.size(); i++) {
+      final T candidate = candidates.get(i);
+      final double quality = quality(values, encodingOf.apply(candidate));
+      if (quality > bestQuality) {
+        best = candidate;
+        bestQuality = quality;
+      }
+    }
+    return best;
+  }
+
+  /** Return the q-value of the encoding in the header values, 0 when it is not acceptable. */
+  static double quality(List<String> values, String encoding) {
+    double wildcard = 0;
+    for (int v = 0; v < values.size(); v++) {
+      final String header = values.get(v);
+      final int length = header.length();
+      int start = 0;
+      while (start < length) {
+        int end = header.indexOf(',', start);
+        if (end < 0) {
+          end = length;
+        }
+        int nameEnd = header.indexOf(';', start);
+        if (nameEnd < 0 || nameEnd > end) {
+          nameEnd = end;
+        }
+        final int nameStart = skipSpace(header, start, nameEnd);
+        final int nameLength = trimEnd(header, nameStart, nameEnd) - nameStart;
+        if (nameLength == encoding.length()
+            && header.regionMatches(true, nameStart, encoding, 0, nameLength)) {
+          return qValue(header, nameEnd, end);
+        }
+        if (nameLength == 1 && header.charAt(nameStart) == '*') {
+          wildcard = qValue(header, nameEnd, end);
+        }
+        start = end + 1;
+      }
+    }
+    return wildcard;
+  }
+
+  /** Return the q parameter of the token parameters between from and end, defaulting to 1. */
+  private static double qValue(String header, int from, int end) {
+    int i = from;
+    while (i < end) {
+      final int paramStart = skipSpace(header, i + 1, end);
+      int paramEnd = header.indexOf(';', paramStart);
+      if (paramEnd < 0 || paramEnd > end) {
+        paramEnd = end;
+      }
+      if (paramEnd - paramStart >= 2
+          && (header.charAt(paramStart) | 0x20) == 'q'
+          && header.charAt(paramStart + 1) == '=') {
+        return parseQ(header, paramStart + 2, trimEnd(header, paramStart + 2, paramEnd));
+      }
+      i = paramEnd;
+    }
+    return 1;
+  }
+
+  /** Parse a q-value, an invalid value is ignored and treated as 1. */
+  private static double parseQ(String header, int from, int to) {
+    double value = 0;
+    int i = from;
+    while (i < to && isDigit(header.charAt(i))) {
+      value = value * 10 + (header.charAt(i++) - '0');
+    }
+    if (i < to && header.charAt(i) == '.') {
+      i++;
+      double scale = 0.1;
+      while (i < to && isDigit(header.charAt(i))) {
+        value += (header.charAt(i++) - '0') * scale;
+        scale /= 10;
+      }
+    }
+    return i == to && i > from ? value : 1;
+  }
+
+  private static boolean isDigit(char ch) {
+    return ch >= '0' && ch <= '9';
+  }
+
+  private static int skipSpace(String header, int from, int end) {
+    while (from < end && isSpace(header.charAt(from))) {
+      from++;
+    }
+    return from;
+  }
+
+  private static int trimEnd(String header, int from, int end) {
+    while (end > from && isSpace(header.charAt(end - 1))) {
+      end--;
+    }
+    return end;
+  }
+
+  private static boolean isSpace(char ch) {
+    return ch == ' ' || ch == '\t';
+  }
+}
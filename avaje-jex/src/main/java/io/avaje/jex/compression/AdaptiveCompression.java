@@ -0,0 +1,161 @@
+package io.avaje.jex.compression;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.zip.Deflater;
+
+import io.avaje.jex.http.Context;
+
+/**
+ * Decides per response whether compression is worthwhile from a trial deflate of the first block
+ * and the statistics of the route.
+ *
+ * <p>Each route samples its first responses, then relies on its recent sample ratio and only
+ * re-samples periodically so that it adapts when the content of a route changes.
+ */
+final class AdaptiveCompression {
+
+  /** Bytes of the first block deflated to estimate the compression ratio. */
+  private static final int SAMPLE_SIZE = 4096;
+
+  /** Responses of a route that are all sampled before relying on the sample ratio. */
+  private static final int WARMUP = 8;
+
+  /** After warmup one in this many responses of a route is sampled. */
+  private static final int RESAMPLE_INTERVAL = 32;
+
+  /** Weight of a new sample in the moving average of the sample ratio. */
+  private static final double ALPHA = 0.2;
+
+  /**
+   * Routes with their own statistics. Requests that match no route report their request path, so
+   * beyond this responses share the statistics of {@link #OTHER} rather than growing without bound.
+   */
+  static final int MAX_ROUTES = 1024;
+
+  private static final RouteKey OTHER = new RouteKey("*", "*");
+
+  /**
+   * Output of the trial deflate, only the number of bytes deflated is used so the content is
+   * discarded and concurrent trials can share it.
+   */
+  private static final byte[] DISCARD = new byte[1024];
+
+  private final double maxRatio;
+  private final ConcurrentHashMap<RouteKey, RouteStats> routes = new ConcurrentHashMap<>();
+
+  private record RouteKey(String method, String path) {}
+
+  /** Statistics of the responses of a route. */
+  static final class RouteStats {
+
+    private final RouteKey key;
+    private final AtomicLong responses = new AtomicLong();
+    private final LongAdder compressed = new LongAdder();
+    private final LongAdder skipped = new LongAdder();
+    private final LongAdder bytesIn = new LongAdder();
+    private final LongAdder bytesOut = new LongAdder();
+    // racy updates lose the odd sample which is fine for a moving average
+    private volatile double sampleRatio;
+
+    private RouteStats(RouteKey key) {
+      this.key = key;
+    }
+
+    /** Record a response that was compressed. */
+    void compressed(long in, long out) {
+      compressed.increment();
+      bytesIn.add(in);
+      bytesOut.add(out);
+    }
+
+    private void sample(double ratio) {
+      final double current = sampleRatio;
+      sampleRatio = current == 0 ? ratio : current + ALPHA * (ratio - current);
+    }
+
+    private CompressionMetric snapshot() {
+      return new CompressionMetric(
+          key.method, key.path, compressed.sum(), skipped.sum(), bytesIn.sum(), bytesOut.sum());
+    }
+  }
+
+  AdaptiveCompression(double maxRatio) {
+    this.maxRatio = maxRatio;
+  }
+
+  double maxRatio() {
+    return maxRatio;
+  }
+
+  /** Return the statistics of the route of the request. */
+  RouteStats stats(Context ctx) {
+    return stats(ctx.method(), ctx.matchedPath());
+  }
+
+  RouteStats stats(String method, String path) {
+    final var key = new RouteKey(method, path);
+    final RouteStats stats = routes.get(key);
+    if (stats != null) {
+      return stats;
+    }
+    return routes.computeIfAbsent(routes.size() < MAX_ROUTES ? key : OTHER, RouteStats::new);
+  }
+
+  /** Return true if the next response of the route is expected to be compressed. */
+  boolean predictsWorthwhile(Context ctx) {
+    final RouteStats stats = routes.get(new RouteKey(ctx.method(), ctx.matchedPath()));
+    return stats == null || stats.sampleRatio <= maxRatio;
+  }
+
+  /**
+   * Return true if the response starting with the given block is worth compressing, recording a
+   * skipped response otherwise.
+   */
+  boolean worthwhile(RouteStats stats, byte[] block, int offset, int length) {
+    final long response = stats.responses.incrementAndGet();
+    final boolean worthwhile;
+    if (response <= WARMUP || response % RESAMPLE_INTERVAL == 0) {
+      final double ratio = trialRatio(block, offset, length);
+      stats.sample(ratio);
+      worthwhile = ratio <= maxRatio;
+    } else {
+      worthwhile = stats.sampleRatio <= maxRatio;
+    }
+    if (!worthwhile) {
+      stats.skipped.increment();
+    }
+    return worthwhile;
+  }
+
+  /** Return the ratio of the sample of the block deflated at the fastest level. */
+  private double trialRatio(byte[] block, int offset, int length) {
+    final int sampleLength = Math.min(length, SAMPLE_SIZE);
+    // stop once the sample is known to compress poorly
+    final int limit = (int) (sampleLength * maxRatio) + 1;
+    final Deflater deflater = DeflaterPool.acquire(Deflater.BEST_SPEED);
+    try {
+      deflater.setInput(block, offset, sampleLength);
+      deflater.finish();
+      int deflated = 0;
+      while (!deflater.finished() && deflated <= limit) {
+        deflated += deflater.deflate(DISCARD);
+      }
+      return (double) deflated / sampleLength;
+    } finally {
+      DeflaterPool.release(Deflater.BEST_SPEED, deflater);
+    }
+  }
+
+  /** Return a snapshot of the statistics of each route. */
+  List<CompressionMetric> snapshot() {
+    final var metrics = new ArrayList<CompressionMetric>(routes.size());
+    for (var stats : routes.values()) {
+      metrics.add(stats.snapshot());
+    }
+    return metrics;
+  }
+}
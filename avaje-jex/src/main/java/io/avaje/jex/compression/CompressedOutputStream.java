@@ -1,7 +1,9 @@
 package io.avaje.jex.compression;
 
+import java.io.FilterOutputStream;
 import java.io.IOException;
 import java.io.OutputStream;
+import java.util.List;
 import java.util.Optional;
 
 import io.avaje.jex.core.Constants;
@@ -20,6 +22,9 @@ public final class CompressedOutputStream extends OutputStream {
 
   private OutputStream compressedStream;
   private boolean compressionDecided;
+  private AdaptiveCompression.RouteStats stats;
+  private CountingOutputStream counter;
+  private long bytesIn;
 
   public CompressedOutputStream(
       CompressionConfig compression, Context ctx, OutputStream originStream) {
@@ -29,35 +34,75 @@ public final class CompressedOutputStream extends OutputStream {
     this.originStream = originStream;
   }
 
-  private void decideCompression(int length) throws IOException {
+  private void decideCompression(byte[] bytes, int offset, int length) throws IOException {
     if (!compressionDecided) {
       boolean compressionAllowed =
           compressedStream == null
+              && ctx.status() != 206
               && ctx.responseHeader(Constants.CONTENT_RANGE) == null
-              && compression.allowsForCompression(ctx.responseHeader(Constants.CONTENT_TYPE));
+              && compression.allowsForCompression(ctx.responseHeader(Constants.CONTENT_TYPE))
+              && !compression.isLatencyCritical(ctx);
 
       if (compressionAllowed && length >= minSizeForCompression) {
         Optional<Compressor> compressor;
-        compressor = compression.findMatchingCompressor(ctx.headerValues(Constants.ACCEPT_ENCODING));
-        if (compressor.isPresent()) {
-          this.compressedStream = compressor.get().compress(originStream);
+        compressor = compression.findCompressor(ctx);
+        if (compressor.isPresent() && worthwhile(bytes, offset, length)) {
+          this.compressedStream = compressor.get().compress(countedOrigin());
           ctx.header(Constants.CONTENT_ENCODING, compressor.get().encoding());
+          encodedETag(compressor.get().encoding());
         }
       }
       compressionDecided = true;
     }
   }
 
+  /** Return true unless adaptive compression finds the first block compresses poorly. */
+  private boolean worthwhile(byte[] bytes, int offset, int length) {
+    final AdaptiveCompression adaptive = compression.adaptive();
+    if (adaptive == null) {
+      return true;
+    }
+    stats = adaptive.stats(ctx);
+    return adaptive.worthwhile(stats, bytes, offset, length);
+  }
+
+  /** Return the origin stream, counting the compressed bytes when recording statistics. */
+  private OutputStream countedOrigin() {
+    if (stats == null) {
+      return originStream;
+    }
+    counter = new CountingOutputStream(originStream);
+    return counter;
+  }
+
+  /** A strong ETag identifies the identity content so append the encoding. */
+  private void encodedETag(String encoding) {
+    final String etag = ctx.responseHeader(Constants.ETAG);
+    if (etag != null && !etag.startsWith("W/") && etag.endsWith("\"")) {
+      ctx.header(Constants.ETAG, List.of(etag.substring(0, etag.length() - 1) + "-" + encoding + "\""));
+    }
+  }
+
   @Override
   public void write(byte[] bytes, int offset, int length) throws IOException {
-    decideCompression(length);
-    (compressedStream != null ? compressedStream : originStream).write(bytes, offset, length);
+    decideCompression(bytes, offset, length);
+    if (compressedStream != null) {
+      compressedStream.write(bytes, offset, length);
+      bytesIn += length;
+    } else {
+      originStream.write(bytes, offset, length);
+    }
   }
 
   @Override
   public void write(int byteVal) throws IOException {
-    decideCompression(1);
-    (compressedStream != null ? compressedStream : originStream).write(byteVal);
+    decideCompression(null, 0, 1);
+    if (compressedStream != null) {
+      compressedStream.write(byteVal);
+      bytesIn++;
+    } else {
+      originStream.write(byteVal);
+    }
   }
 
   @Override
@@ -73,8 +118,34 @@ public final class CompressedOutputStream extends OutputStream {
   public void close() throws IOException {
     if (compressedStream != null) {
       compressedStream.close();
+      if (counter != null) {
+        stats.compressed(bytesIn, counter.count);
+        counter = null;
+      }
     } else {
       originStream.close();
     }
   }
+
+  /** Counts the bytes written by the compressor. */
+  private static final class CountingOutputStream extends FilterOutputStream {
+
+    private long count;
+
+    CountingOutputStream(OutputStream out) {
+      super(out);
+    }
+
+    @Override
+    public void write(int b) throws IOException {
+      out.write(b);
+      count++;
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) throws IOException {
+      out.write(b, off, len);
+      count += len;
+    }
+  }
 }
@@ -1,23 +1,25 @@
 package io.avaje.jex.compression;
 
-import org.jspecify.annotations.NonNull;
+import io.avaje.jex.core.Constants;
+import io.avaje.jex.http.Context;
 
-import java.util.Arrays;
-import java.util.Comparator;
-import java.util.HashMap;
 import java.util.HashSet;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
-import java.util.stream.Stream;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
 
 /** Configuration for compression settings. */
 public final class CompressionConfig {
 
   private static final int HTTP_PACKET_SIZE = 1500;
 
+  /** Distinct Accept-Encoding header values with a cached negotiation result. */
+  private static final int MAX_NEGOTIATED = 64;
+
   private static final Set<String> excludedMimeTypes =
       Set.of(
           "application/compress",
@@ -32,11 +34,22 @@ public final class CompressionConfig {
 
   private int minSizeForCompression = HTTP_PACKET_SIZE;
 
+  private GzipCompressor gzip = new GzipCompressor();
+
   private final LinkedHashMap<String, Compressor> compressors =
-      new LinkedHashMap<>(Map.of(GzipCompressor.ENCODING, new GzipCompressor()));
+      new LinkedHashMap<>(Map.of(GzipCompressor.ENCODING, gzip));
+
+  private List<Compressor> ordered = List.of(gzip);
+
+  /** Negotiated compressor keyed by the raw Accept-Encoding header value. */
+  private final ConcurrentHashMap<String, Negotiated> negotiated = new ConcurrentHashMap<>();
 
   private final Set<String> allowedExcludedTypes = Set.of("image/svg+xml");
 
+  private final Set<String> latencyCriticalPaths = new HashSet<>();
+
+  private AdaptiveCompression adaptive;
+
   /**
    * Adds a compressor for a given encoding type.
    *
@@ -44,6 +57,7 @@ public final class CompressionConfig {
    */
   public CompressionConfig compressor(Compressor compressor) {
     compressors.putFirst(compressor.encoding(), compressor);
+    compressorsChanged();
     return this;
   }
 
@@ -53,13 +67,119 @@ public final class CompressionConfig {
    * @param level The new compression level (0-9).
    */
   public void gzipCompressionLevel(int level) {
-    compressors.put(GzipCompressor.ENCODING, new GzipCompressor(level));
+    gzip(new GzipCompressor(level, gzip.bufferSize(), gzip.syncFlush()));
+  }
+
+  /**
+   * Sets the size of the buffer the default GZIP compressor deflates into, defaults to 8192.
+   *
+   * @param bufferSize The buffer size in bytes.
+   * @return The updated configuration.
+   */
+  public CompressionConfig gzipBufferSize(int bufferSize) {
+    gzip(new GzipCompressor(gzip.level(), bufferSize, gzip.syncFlush()));
+    return this;
+  }
+
+  /**
+   * Sets whether flushing the default GZIP compressor output stream flushes the data compressed so
+   * far to the client, defaults to false. Enable for streamed responses that flush partial content.
+   *
+   * @param syncFlush True to sync flush the compressor on flush.
+   * @return The updated configuration.
+   */
+  public CompressionConfig gzipSyncFlush(boolean syncFlush) {
+    gzip(new GzipCompressor(gzip.level(), gzip.bufferSize(), syncFlush));
+    return this;
+  }
+
+  private void gzip(GzipCompressor gzip) {
+    this.gzip = gzip;
+    compressors.put(GzipCompressor.ENCODING, gzip);
+    compressorsChanged();
+  }
+
+  private void compressorsChanged() {
+    ordered = List.copyOf(compressors.values());
+    negotiated.clear();
+  }
+
+  /**
+   * Enables adaptive compression. The first block of a response is trial compressed and responses
+   * that do not compress to at most the given ratio of their size are written uncompressed. After
+   * sampling its first responses a route is only re-sampled periodically, relying on its recent
+   * samples otherwise.
+   *
+   * <p>The achieved compression ratios of each route are available via {@link #metrics()}.
+   *
+   * @param maxRatio The maximum ratio of compressed to uncompressed size (e.g. 0.9).
+   * @return The updated configuration.
+   */
+  public CompressionConfig adaptive(double maxRatio) {
+    if (maxRatio <= 0 || maxRatio > 1) {
+      throw new IllegalArgumentException("Valid range for parameter maxRatio is greater than 0 to 1");
+    }
+    this.adaptive = new AdaptiveCompression(maxRatio);
+    return this;
+  }
+
+  /**
+   * Marks routes as latency critical such that their responses are never compressed.
+   *
+   * @param paths The route paths as registered (e.g. {@code /quotes/{id}}).
+   * @return The updated configuration.
+   */
+  public CompressionConfig latencyCritical(String... paths) {
+    latencyCriticalPaths.addAll(List.of(paths));
+    return this;
+  }
+
+  /**
+   * Checks if the route is marked as latency critical.
+   *
+   * @param path The route path as registered, without the context path.
+   * @return True if responses of the route should not be compressed.
+   */
+  public boolean isLatencyCritical(String path) {
+    return !latencyCriticalPaths.isEmpty() && latencyCriticalPaths.contains(path);
+  }
+
+  /**
+   * Checks if the route matched by the request is marked as latency critical.
+   *
+   * @param ctx The request context.
+   * @return True if the response should not be compressed.
+   */
+  public boolean isLatencyCritical(Context ctx) {
+    if (latencyCriticalPaths.isEmpty()) {
+      return false;
+    }
+    final String path = ctx.matchedPath();
+    final String contextPath = ctx.contextPath();
+    if (contextPath.length() > 1 && path.startsWith(contextPath)) {
+      // the matched path includes the context path, the registered route path does not
+      return latencyCriticalPaths.contains(path.substring(contextPath.length()));
+    }
+    return latencyCriticalPaths.contains(path);
+  }
+
+  /**
+   * Return the adaptive compression statistics of each route, empty unless {@link
+   * #adaptive(double)} is enabled.
+   */
+  public List<CompressionMetric> metrics() {
+    return adaptive == null ? List.of() : adaptive.snapshot();
+  }
+
+  AdaptiveCompression adaptive() {
+    return adaptive;
   }
 
   /** Disables compression. */
   public void disableCompression() {
     enabled = false;
     compressors.clear();
+    compressorsChanged();
   }
 
   /**
@@ -114,54 +234,126 @@ public final class CompressionConfig {
   /**
    * Gets the appropriate compressor for a given encoding type.
    *
+   * <p>The result is cached by the raw header value for a bounded number of distinct values, as
+   * clients send few distinct Accept-Encoding headers. When full, values not used since the last
+   * eviction are evicted.
+   *
    * @param encoding The Content-Encoding value.
    * @return The compressor for the given Content-Encoding value, or null if not found.
    */
   public Optional<Compressor> findMatchingCompressor(List<String> acceptedEncoding) {
-    if (acceptedEncoding != null) {
+    if (acceptedEncoding == null || acceptedEncoding.isEmpty()) {
+      return Optional.empty();
+    }
+    if (acceptedEncoding.size() > 1) {
       // it seems jetty may handle multi-value headers differently
-      var stream =
-          acceptedEncoding.size() > 1
-              ? acceptedEncoding.stream()
-              : Arrays.stream(acceptedEncoding.getFirst().split(","));
-
-      Map<Double, Set<String>> byQValue = encodingByQValue(stream);
-
-      var sortedQ = byQValue.keySet().stream().sorted(Comparator.reverseOrder()).toList();
-      for (var q : sortedQ) {
-        var tier = byQValue.get(q);
-        var wildcard = tier.contains("*");
-        var match =
-            compressors.values().stream()
-                .filter(c -> wildcard || tier.contains(c.encoding()))
-                .findFirst();
-        if (match.isPresent()) return match;
-      }
+      return Optional.ofNullable(AcceptEncoding.select(acceptedEncoding, ordered, Compressor::encoding));
     }
-    return Optional.empty();
-  }
-
-  /** parse each token into (encoding, q-value); q=0 means explicitly rejected */
-  private static @NonNull Map<Double, Set<String>> encodingByQValue(Stream<String> stream) {
-    Map<Double, Set<String>> byQValue = new HashMap<>();
-    stream.forEach(token -> {
-      var parts = token.trim().split(";");
-      var encoding = parts[0].trim().toLowerCase();
-      double q = 1.0;
-      for (int i = 1; i < parts.length; i++) {
-        var param = parts[i].trim();
-        if (param.regionMatches(true, 0, "q=", 0, 2)) {
-          try {
-            q = Double.parseDouble(param.substring(2));
-          } catch (NumberFormatException ignored) {
-          }
-          break;
-        }
+    final String header = acceptedEncoding.getFirst();
+    final Negotiated cached = negotiated.get(header);
+    if (cached != null) {
+      if (!cached.used) {
+        cached.used = true;
       }
-      if (q > 0) {
-        byQValue.computeIfAbsent(q, k -> new HashSet<>()).add(encoding);
+      return cached.match;
+    }
+    final var match =
+        Optional.ofNullable(AcceptEncoding.select(acceptedEncoding, ordered, Compressor::encoding));
+    if (negotiated.size() >= MAX_NEGOTIATED) {
+      evictUnused();
+    }
+    if (negotiated.size() < MAX_NEGOTIATED) {
+      negotiated.put(header, new Negotiated(match));
+    }
+    return match;
+  }
+
+  /**
+   * Remove the negotiated entries not used since the last eviction and clear the used flag of the
+   * others (clock / second chance), such that rarely sent header values do not fill the cache.
+   */
+  private void evictUnused() {
+    final var it = negotiated.values().iterator();
+    while (it.hasNext()) {
+      final Negotiated entry = it.next();
+      if (entry.used) {
+        entry.used = false;
+      } else {
+        it.remove();
       }
-    });
-    return byQValue;
+    }
+  }
+
+  /** Return true if the negotiation result of the Accept-Encoding header value is cached. */
+  boolean isNegotiated(String acceptEncoding) {
+    return negotiated.containsKey(acceptEncoding);
+  }
+
+  /**
+   * Return the best compressor for the Accept-Encoding of the request that also {@link
+   * Compressor#accepts(Context) accepts} the request.
+   *
+   * @param ctx The request context.
+   * @return The matching compressor, or empty if none are acceptable.
+   */
+  public Optional<Compressor> findCompressor(Context ctx) {
+    final List<String> acceptedEncoding = ctx.headerValues(Constants.ACCEPT_ENCODING);
+    final var match = findMatchingCompressor(acceptedEncoding);
+    if (match.isEmpty() || match.get().accepts(ctx)) {
+      // the best of all compressors is also the best of those accepting the request
+      return match;
+    }
+    final var candidates = ordered.stream().filter(c -> c.accepts(ctx)).toList();
+    return Optional.ofNullable(AcceptEncoding.select(acceptedEncoding, candidates, Compressor::encoding));
+  }
+
+  /**
+   * Return the encoding that content of the given length written via the context output stream
+   * would be compressed with, such that a 304 response can carry the ETag of that representation.
+   *
+   * @param ctx The request context with the response content type set.
+   * @param length The length of the identity content.
+   * @return The encoding, or empty if the content would not be compressed.
+   */
+  public Optional<String> responseEncoding(Context ctx, long length) {
+    if (!enabled
+        || length < minSizeForCompression
+        || !allowsForCompression(ctx.responseHeader(Constants.CONTENT_TYPE))
+        || isLatencyCritical(ctx)
+        || adaptive != null && !adaptive.predictsWorthwhile(ctx)) {
+      return Optional.empty();
+    }
+    return findCompressor(ctx).map(Compressor::encoding);
+  }
+
+  /**
+   * Return the best of the available encodings for the Accept-Encoding request header values.
+   *
+   * @param acceptedEncoding The Accept-Encoding header values.
+   * @param encodings The available encodings in order of preference.
+   * @return The matching encoding, or empty if none are acceptable.
+   */
+  public static Optional<String> findMatchingEncoding(
+      List<String> acceptedEncoding, List<String> encodings) {
+    if (acceptedEncoding == null) {
+      return Optional.empty();
+    }
+    return Optional.ofNullable(AcceptEncoding.select(acceptedEncoding, encodings, Function.identity()));
+  }
+
+  /** Return the configured compressors in order of preference. */
+  public List<Compressor> compressors() {
+    return ordered;
+  }
+
+  /** Cached negotiation result, with a flag set when used for the clock eviction. */
+  private static final class Negotiated {
+
+    private final Optional<Compressor> match;
+    private volatile boolean used;
+
+    Negotiated(Optional<Compressor> match) {
+      this.match = match;
+    }
   }
 }
@@ -0,0 +1,20 @@
+package io.avaje.jex.compression;
+
+/**
+ * Snapshot of the adaptive compression statistics for a route.
+ *
+ * @param method The http method of the request.
+ * @param path The matched path of the route (e.g. {@code /users/{id}}).
+ * @param compressed The number of compressed responses.
+ * @param skipped The number of responses not compressed as compression was not worthwhile.
+ * @param bytesIn The total size of the compressed responses before compression.
+ * @param bytesOut The total size of the compressed responses after compression.
+ */
+public record CompressionMetric(
+    String method, String path, long compressed, long skipped, long bytesIn, long bytesOut) {
+
+  /** Return the achieved ratio of compressed to uncompressed size, 1 when nothing is compressed. */
+  public double ratio() {
+    return bytesIn == 0 ? 1 : (double) bytesOut / bytesIn;
+  }
+}
@@ -3,6 +3,8 @@ package io.avaje.jex.compression;
 import java.io.IOException;
 import java.io.OutputStream;
 
+import io.avaje.jex.http.Context;
+
 /** Compressor interface defines methods for compressing an output stream. */
 public interface Compressor {
 
@@ -23,4 +25,16 @@ public interface Compressor {
    * @throws IOException if an error occurs during compression
    */
   OutputStream compress(OutputStream out) throws IOException;
+
+  /**
+   * Return true if this compressor can be used for the request given that the client accepts the
+   * encoding. Compressors that depend on state held by the client, such as a shared dictionary,
+   * check for it here.
+   *
+   * @param ctx the request context
+   * @return true by default
+   */
+  default boolean accepts(Context ctx) {
+    return true;
+  }
 }
@@ -0,0 +1,49 @@
+package io.avaje.jex.compression;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.zip.Deflater;
+
+/**
+ * Pool of raw (nowrap) deflaters keyed by compression level.
+ *
+ * <p>Each deflater holds native memory that is otherwise only freed by the cleaner, so deflaters
+ * are reset and reused rather than created per response. Deflaters released to a full pool are
+ * ended immediately.
+ */
+final class DeflaterPool {
+
+  private static final int MAX_IDLE = Math.max(4, Runtime.getRuntime().availableProcessors() * 2);
+
+  private static final List<ArrayBlockingQueue<Deflater>> IDLE = idleByLevel();
+
+  private DeflaterPool() {}
+
+  private static List<ArrayBlockingQueue<Deflater>> idleByLevel() {
+    final var idle = new ArrayList<ArrayBlockingQueue<Deflater>>(10);
+    for (int level = 0; level <= 9; level++) {
+      idle.add(new ArrayBlockingQueue<>(MAX_IDLE));
+    }
+    return List.copyOf(idle);
+  }
+
+  /** Return a pooled deflater for the level, or a new one when none are idle. */
+  static Deflater acquire(int level) {
+    final Deflater deflater = IDLE.get(level).poll();
+    return deflater != null ? deflater : new Deflater(level, true);
+  }
+
+  /** Reset and return the deflater to the pool, ending it if the pool is full. */
+  static void release(int level, Deflater deflater) {
+    deflater.reset();
+    if (!IDLE.get(level).offer(deflater)) {
+      deflater.end();
+    }
+  }
+
+  /** Return the number of idle deflaters for the level. */
+  static int idle(int level) {
+    return IDLE.get(level).size();
+  }
+}
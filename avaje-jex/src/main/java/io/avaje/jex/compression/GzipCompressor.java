@@ -2,21 +2,48 @@ package io.avaje.jex.compression;
 
 import java.io.IOException;
 import java.io.OutputStream;
-import java.util.zip.GZIPOutputStream;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
 
 final class GzipCompressor implements Compressor {
   static final String ENCODING = "gzip";
+  static final int DEFAULT_LEVEL = 6;
+  static final int DEFAULT_BUFFER_SIZE = 8192;
+
+  /** Gzip header with no flags, modification time or extra fields and an unknown OS. */
+  private static final byte[] HEADER = {0x1f, (byte) 0x8b, Deflater.DEFLATED, 0, 0, 0, 0, 0, 0, (byte) 0xff};
+
   private final int level;
+  private final int bufferSize;
+  private final boolean syncFlush;
 
   GzipCompressor() {
-    level = 6;
+    this(DEFAULT_LEVEL, DEFAULT_BUFFER_SIZE, false);
   }
 
-  GzipCompressor(int level) {
+  GzipCompressor(int level, int bufferSize, boolean syncFlush) {
     if (level < 0 || level > 9) {
       throw new IllegalArgumentException("Valid range for parameter level is 0 to 9");
     }
+    if (bufferSize <= 0) {
+      throw new IllegalArgumentException("Buffer size must be greater than 0");
+    }
     this.level = level;
+    this.bufferSize = bufferSize;
+    this.syncFlush = syncFlush;
+  }
+
+  int level() {
+    return level;
+  }
+
+  int bufferSize() {
+    return bufferSize;
+  }
+
+  boolean syncFlush() {
+    return syncFlush;
   }
 
   @Override
@@ -26,14 +53,83 @@ final class GzipCompressor implements Compressor {
 
   @Override
   public OutputStream compress(OutputStream out) throws IOException {
-    return new LeveledGzipStream(out, level);
+    return new PooledGzipStream(out, level, bufferSize, syncFlush);
   }
 
-  private static final class LeveledGzipStream extends GZIPOutputStream {
+  /**
+   * Gzip stream using a pooled deflater that is returned to the pool on close.
+   *
+   * <p>GZIPOutputStream always creates its own deflater, so the gzip header and trailer are
+   * written here.
+   */
+  private static final class PooledGzipStream extends DeflaterOutputStream {
+
+    private final CRC32 crc = new CRC32();
+    private final int level;
+    private boolean closed;
+
+    private PooledGzipStream(OutputStream out, int level, int bufferSize, boolean syncFlush)
+        throws IOException {
+      super(out, DeflaterPool.acquire(level), bufferSize, syncFlush);
+      this.level = level;
+      out.write(HEADER);
+    }
+
+    @Override
+    public void write(byte[] buf, int off, int len) throws IOException {
+      ensureOpen();
+      super.write(buf, off, len);
+      crc.update(buf, off, len);
+    }
+
+    @Override
+    public void flush() throws IOException {
+      ensureOpen();
+      super.flush();
+    }
+
+    @Override
+    public void finish() throws IOException {
+      ensureOpen();
+      if (!def.finished()) {
+        super.finish();
+        writeTrailer();
+      }
+    }
+
+    private void writeTrailer() throws IOException {
+      final byte[] trailer = new byte[8];
+      writeInt((int) crc.getValue(), trailer, 0);
+      writeInt((int) def.getBytesRead(), trailer, 4);
+      out.write(trailer);
+    }
+
+    private static void writeInt(int value, byte[] buf, int offset) {
+      buf[offset] = (byte) value;
+      buf[offset + 1] = (byte) (value >> 8);
+      buf[offset + 2] = (byte) (value >> 16);
+      buf[offset + 3] = (byte) (value >> 24);
+    }
+
+    @Override
+    public void close() throws IOException {
+      if (closed) {
+        return;
+      }
+      try {
+        finish();
+        out.close();
+      } finally {
+        // the deflater may be reused by another stream as soon as it is released
+        closed = true;
+        DeflaterPool.release(level, def);
+      }
+    }
 
-    private LeveledGzipStream(OutputStream out, int level) throws IOException {
-      super(out);
-      this.def.setLevel(level);
+    private void ensureOpen() throws IOException {
+      if (closed) {
+        throw new IOException("Stream closed");
+      }
     }
   }
 }
@@ -1,29 +1,46 @@
 package io.avaje.jex.core;
 
-import java.util.Iterator;
+import java.io.IOException;
+
+import com.sun.net.httpserver.HttpExchange;
 
 import io.avaje.jex.http.ExchangeHandler;
 import io.avaje.jex.http.HttpFilter;
 import io.avaje.jex.http.HttpFilter.FilterChain;
 
-final class BaseFilterChain implements FilterChain {
+/**
+ * Filter chain walking the filters by index, also the task run with the context bound.
+ */
+final class BaseFilterChain implements FilterChain, Runnable {
 
-  private final Iterator<HttpFilter> filters;
+  private final HttpFilter[] filters;
   private final ExchangeHandler handler;
   private final JdkContext ctx;
   private final ServiceManager mgr;
+  private int index;
 
-  BaseFilterChain(Iterator<HttpFilter> filters, ExchangeHandler handler, JdkContext ctx, ServiceManager mgr) {
+  BaseFilterChain(HttpFilter[] filters, ExchangeHandler handler, JdkContext ctx, ServiceManager mgr) {
     this.filters = filters;
     this.handler = handler;
     this.ctx = ctx;
     this.mgr = mgr;
   }
 
+  @Override
+  public void run() {
+    try {
+      ctx.setMode(Mode.BEFORE);
+      proceed();
+      handleNoResponse(ctx.exchange());
+    } catch (Exception e) {
+      mgr.handleException(ctx, e);
+    }
+  }
+
   @Override
   public void proceed() {
-    if (filters.hasNext()) {
-      filters.next().filter(ctx, this);
+    if (index < filters.length) {
+      filters[index++].filter(ctx, this);
     } else {
       try {
         if (!ctx.responseSent()) {
@@ -36,4 +53,10 @@ final class BaseFilterChain implements FilterChain {
     }
     ctx.setMode(Mode.AFTER);
   }
+
+  private static void handleNoResponse(HttpExchange exchange) throws IOException {
+    if (exchange.getResponseCode() < 1) {
+      exchange.sendResponseHeaders(204, -1);
+    }
+  }
 }
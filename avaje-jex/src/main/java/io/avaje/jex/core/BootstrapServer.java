@@ -77,6 +77,7 @@ public final class BootstrapServer {
       log.log(DEBUG, routes);
       return new JdkJexServer(server, jex.lifecycle(), handler);
     } catch (IOException e) {
+      routes.stop();
       throw new UncheckedIOException(e);
     }
   }
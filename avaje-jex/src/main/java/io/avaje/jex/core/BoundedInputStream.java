@@ -0,0 +1,78 @@
+package io.avaje.jex.core;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+import io.avaje.jex.http.HttpResponseException;
+import io.avaje.jex.http.HttpStatus;
+
+/**
+ * Request body stream that fails with a 413 once more than the max request size has been read,
+ * limiting bodies of unknown length such as chunked requests while they are streamed.
+ */
+final class BoundedInputStream extends FilterInputStream {
+
+  private final long max;
+  private long count;
+  private long mark;
+
+  BoundedInputStream(InputStream in, long max) {
+    super(in);
+    this.max = max;
+  }
+
+  /** Return true if more than the max request size was read. */
+  boolean exceeded() {
+    return count > max;
+  }
+
+  /** Return the exception for a body greater than the max request size. */
+  HttpResponseException tooLarge() {
+    return new HttpResponseException(
+        HttpStatus.REQUEST_ENTITY_TOO_LARGE_413.status(),
+        "Body greater than max configured size (%s bytes)".formatted(max));
+  }
+
+  private void count(long read) {
+    if (read > 0) {
+      count += read;
+      if (count > max) {
+        throw tooLarge();
+      }
+    }
+  }
+
+  @Override
+  public int read() throws IOException {
+    final int b = in.read();
+    count(b == -1 ? 0 : 1);
+    return b;
+  }
+
+  @Override
+  public int read(byte[] b, int off, int len) throws IOException {
+    final int read = in.read(b, off, len);
+    count(read);
+    return read;
+  }
+
+  @Override
+  public long skip(long n) throws IOException {
+    final long skipped = in.skip(n);
+    count(skipped);
+    return skipped;
+  }
+
+  @Override
+  public synchronized void mark(int readlimit) {
+    in.mark(readlimit);
+    mark = count;
+  }
+
+  @Override
+  public synchronized void reset() throws IOException {
+    in.reset();
+    count = mark;
+  }
+}
@@ -1,28 +1,32 @@
 package io.avaje.jex.core;
 
-import java.io.ByteArrayOutputStream;
 import java.io.FilterOutputStream;
 import java.io.IOException;
 
+import io.avaje.jex.spi.BufferPool;
+
 final class BufferedOutStream extends FilterOutputStream {
 
   private final long max;
   private final JdkContext context;
-  private ByteArrayOutputStream buffer;
+  private final BufferPool pool;
+  private byte[] buffer;
+  private int size;
   private boolean jdkOutput;
   private long count;
   private boolean closed;
 
-  BufferedOutStream(JdkContext context, int initial, long max) {
+  BufferedOutStream(JdkContext context, BufferPool pool, int initial, long max) {
     super(context.exchange().getResponseBody());
     this.context = context;
+    this.pool = pool;
     this.max = max;
 
     // if content length is set, skip buffer
     if (context.responseHeader(Constants.CONTENT_LENGTH) != null) {
       count = max + 1;
     } else {
-      buffer = new ByteArrayOutputStream(initial);
+      buffer = pool.acquire(initial);
     }
   }
 
@@ -36,7 +40,8 @@ final class BufferedOutStream extends FilterOutputStream {
         out.write(b);
         return;
       }
-      buffer.write(b);
+      ensureCapacity(size + 1);
+      buffer[size++] = (byte) b;
     }
   }
 
@@ -51,7 +56,22 @@ final class BufferedOutStream extends FilterOutputStream {
         out.write(b, off, len);
         return;
       }
-      buffer.write(b, off, len);
+      ensureCapacity(size + len);
+      System.arraycopy(b, off, buffer, size, len);
+      size += len;
+    }
+  }
+
+  /** Grow the buffer using a larger pooled buffer. */
+  private void ensureCapacity(int capacity) throws IOException {
+    if (closed) {
+      throw new IOException("Stream closed");
+    }
+    if (capacity > buffer.length) {
+      final var grown = pool.acquire((int) Math.min(Math.max(capacity, buffer.length * 2L), Integer.MAX_VALUE - 8));
+      System.arraycopy(buffer, 0, grown, 0, size);
+      pool.release(buffer);
+      buffer = grown;
     }
   }
 
@@ -63,7 +83,15 @@ final class BufferedOutStream extends FilterOutputStream {
     jdkOutput = true;
     // empty the existing buffer
     if (buffer != null) {
-      buffer.writeTo(out);
+      out.write(buffer, 0, size);
+      releaseBuffer();
+    }
+  }
+
+  private void releaseBuffer() {
+    if (buffer != null) {
+      pool.release(buffer);
+      buffer = null;
     }
   }
 
@@ -79,11 +107,17 @@ final class BufferedOutStream extends FilterOutputStream {
   public void close() throws IOException {
     if (this.closed) {
       // do nothing if already closed
-    } else if (jdkOutput) {
+      return;
+    }
+    closed = true;
+    if (jdkOutput) {
       out.close();
     } else {
-      context.write(buffer);
+      try {
+        context.writeBuffered(buffer, size);
+      } finally {
+        releaseBuffer();
+      }
     }
-    closed = true;
   }
 }
@@ -12,6 +12,8 @@ public final class Constants {
   public static final String HOST = "Host";
   public static final String USER_AGENT = "User-agent";
   public static final String ACCEPT_ENCODING = "Accept-encoding";
+  public static final String ALLOW = "Allow";
+  public static final String VARY = "Vary";
 
   public static final String TEXT_HTML = "text/html";
   public static final String TEXT_PLAIN = "text/plain";
@@ -24,4 +26,11 @@ public final class Constants {
   public static final String ACCEPT_RANGES = "Accept-ranges";
   public static final String RANGE = "Range";
   public static final String CONTENT_RANGE = "Content-range";
+  public static final String IF_RANGE = "If-range";
+
+  // conditional requests
+  public static final String ETAG = "Etag";
+  public static final String LAST_MODIFIED = "Last-modified";
+  public static final String IF_NONE_MATCH = "If-none-match";
+  public static final String IF_MODIFIED_SINCE = "If-modified-since";
 }
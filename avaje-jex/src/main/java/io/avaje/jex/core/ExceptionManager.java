@@ -10,6 +10,7 @@ import io.avaje.jex.http.Context;
 import io.avaje.jex.http.ExceptionHandler;
 import io.avaje.jex.http.HttpResponseException;
 import io.avaje.jex.http.InternalServerErrorException;
+import io.avaje.jex.http.NotFoundException;
 
 final class ExceptionManager {
 
@@ -18,9 +19,11 @@ final class ExceptionManager {
   private static final System.Logger log = AppLog.getLogger("io.avaje.jex");
 
   private final Map<Class<?>, ExceptionHandler<?>> handlers;
+  private final boolean notFoundHandled;
 
   ExceptionManager(Map<Class<?>, ExceptionHandler<?>> handlers) {
     this.handlers = handlers;
+    this.notFoundHandled = find(NotFoundException.class) != null;
   }
 
   @SuppressWarnings("unchecked")
@@ -55,40 +58,56 @@ final class ExceptionManager {
     }
   }
 
+  /**
+   * Respond to a request that matches no route. The 404 is written directly unless an exception
+   * handler applies to NotFoundException, such that no exception is created for each miss.
+   */
+  void routeNotFound(JdkContext ctx, String method, String path) {
+    final String message = "No route matching http method " + method + ", with path " + path;
+    if (notFoundHandled) {
+      handle(ctx, new RouteNotFoundException(message));
+    } else {
+      defaultHandling(ctx, HttpStatus.NOT_FOUND_404.status(), message, null);
+    }
+  }
+
   private void unhandledException(JdkContext ctx, Exception e) {
     log.log(ERROR, "Uncaught exception", e);
     defaultHandling(ctx, new InternalServerErrorException("Internal Server Error"));
   }
 
   private void defaultHandling(JdkContext ctx, HttpResponseException exception) {
+    defaultHandling(ctx, exception.status(), exception.getMessage(), exception.jsonResponse());
+  }
+
+  private void defaultHandling(JdkContext ctx, int status, String message, Object jsonResponse) {
     if (ctx.responseSent()) {
       // if already sent headers, can't send again
       return;
     } else if ("HEAD".equals(ctx.method())) {
       // for HEAD requests we don't send a body
-      ctx.writeEmpty(exception.status());
+      ctx.writeEmpty(status);
       return;
     }
 
-    ctx.status(exception.status());
-    var jsonResponse = exception.jsonResponse();
-    if (exception.status() == HttpStatus.FOUND_302.status()) {
+    ctx.status(status);
+    if (status == HttpStatus.FOUND_302.status()) {
       ctx.performRedirect();
     } else if (jsonResponse != null) {
       ctx.json(jsonResponse);
     } else if (useJson(ctx)) {
-      ctx.contentType(APPLICATION_JSON).write(asJsonContent(exception));
+      ctx.contentType(APPLICATION_JSON).write(asJsonContent(status, message));
     } else {
-      ctx.text(exception.getMessage());
+      ctx.text(message);
     }
   }
 
-  private String asJsonContent(HttpResponseException e) {
+  private String asJsonContent(int status, String message) {
     return "{\"title\": "
-        + jsonEscape(e.getMessage())
+        + jsonEscape(message)
         + ", "
         + "\"status\": "
-        + e.status()
+        + status
         + "}";
   }
 
@@ -101,4 +120,20 @@ final class ExceptionManager {
     return (acceptHeader != null && acceptHeader.contains(APPLICATION_JSON)
         || APPLICATION_JSON.equals(ctx.responseHeader(Constants.CONTENT_TYPE)));
   }
+
+  /**
+   * No route matches the request, without the cost of filling in a stack trace that is not useful
+   * when the request names a route that does not exist.
+   */
+  private static final class RouteNotFoundException extends NotFoundException {
+
+    RouteNotFoundException(String message) {
+      super(message);
+    }
+
+    @Override
+    public synchronized Throwable fillInStackTrace() {
+      return this;
+    }
+  }
 }
@@ -7,7 +7,6 @@ import static io.avaje.jex.core.Constants.TEXT_PLAIN_UTF8;
 import static java.util.Collections.emptyList;
 import static java.util.Collections.emptyMap;
 
-import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
@@ -16,8 +15,12 @@ import java.lang.reflect.Type;
 import java.net.InetAddress;
 import java.net.InetSocketAddress;
 import java.net.URI;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.SeekableByteChannel;
 import java.nio.charset.Charset;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
 import java.time.Duration;
 import java.util.Base64;
 import java.util.HashMap;
@@ -38,9 +41,11 @@ import io.avaje.jex.http.Context;
 import io.avaje.jex.http.HttpResponseException;
 import io.avaje.jex.http.HttpStatus;
 import io.avaje.jex.http.RedirectException;
-import io.avaje.jex.routes.SpiRoutes.Entry;
+import io.avaje.jex.routes.SpiRoutes.Match;
 import io.avaje.jex.security.BasicAuthCredentials;
 import io.avaje.jex.security.Role;
+import io.avaje.jex.spi.ByteBufferWriter;
+import io.avaje.jex.spi.FileChannelWriter;
 import io.avaje.jex.spi.JsonService;
 
 final class JdkContext implements Context {
@@ -50,7 +55,7 @@ final class JdkContext implements Context {
   private final ServiceManager mgr;
   private final String matchedPath;
   private final String requestPath;
-  private final Entry routeEntry;
+  private final Match routeMatch;
   private Map<String, String> pathParams;
   private Map<String, Object> attributes;
   private final Set<Role> roles;
@@ -66,12 +71,13 @@ final class JdkContext implements Context {
   private Charset characterEncoding;
   private OutputStream os;
 
-  JdkContext(ServiceManager mgr, HttpExchange exchange, Entry route, String requestPath) {
+  JdkContext(ServiceManager mgr, HttpExchange exchange, Match match, String requestPath) {
+    final var route = match.entry();
     this.mgr = mgr;
     this.roles = route.roles();
     this.exchange = exchange;
     this.matchedPath = route.matchPath();
-    this.routeEntry = route;
+    this.routeMatch = match;
     this.requestPath = requestPath;
   }
 
@@ -81,7 +87,7 @@ final class JdkContext implements Context {
     this.roles = roles;
     this.exchange = exchange;
     this.matchedPath = path;
-    this.routeEntry = null;
+    this.routeMatch = null;
     this.requestPath = path;
   }
 
@@ -159,7 +165,38 @@ final class JdkContext implements Context {
 
   @Override
   public <T> T bodyStreamAsType(Type beanType) {
-    return bodyBytes == null ? mgr.fromJson(beanType, bodyAsInputStream()) : bodyAsType(beanType);
+    return bodyBytes == null
+        ? streamAs(is -> mgr.fromJson(beanType, is))
+        : mgr.fromJson(beanType, bodyBytes);
+  }
+
+  @Override
+  public <T> T bodyAs(JsonService.Reader<T> reader) {
+    return bodyBytes == null ? streamAs(reader) : reader.fromJson(bodyBytes);
+  }
+
+  /** Parse the body as it is read, limited to the max request size without buffering it. */
+  private <T> T streamAs(JsonService.Reader<T> reader) {
+    final long maxRequestSize = mgr.maxRequestSize();
+    if (maxRequestSize <= 0) {
+      return reader.fromJson(exchange.getRequestBody());
+    }
+    if (contentLength() > maxRequestSize) {
+      throw new HttpResponseException(
+          HttpStatus.REQUEST_ENTITY_TOO_LARGE_413.status(),
+          "Body content length greater than max configured size (%s bytes)"
+              .formatted(maxRequestSize));
+    }
+    final var body = new BoundedInputStream(exchange.getRequestBody(), maxRequestSize);
+    try {
+      return reader.fromJson(body);
+    } catch (RuntimeException e) {
+      // json libraries may wrap the exception thrown by the stream
+      if (body.exceeded()) {
+        throw body.tooLarge();
+      }
+      throw e;
+    }
   }
 
   private Charset characterEncoding() {
@@ -325,7 +362,17 @@ final class JdkContext implements Context {
   @Override
   public void json(Object bean) {
     contentType(APPLICATION_JSON);
-    mgr.toJson(bean, outputStream());
+    mgr.toJson(bean, jsonOutputStream());
+  }
+
+  @Override
+  public <T> void json(JsonService.Writer<T> writer, T bean) {
+    contentType(APPLICATION_JSON);
+    writer.toJson(bean, jsonOutputStream());
+  }
+
+  private OutputStream jsonOutputStream() {
+    return os != null ? os : mgr.createJsonOutputStream(this);
   }
 
   @Override
@@ -373,13 +420,16 @@ final class JdkContext implements Context {
 
   @Override
   public String pathParam(String name) {
-    return pathParamMap().get(name);
+    if (pathParams != null) {
+      return pathParams.get(name);
+    }
+    return routeMatch != null ? routeMatch.pathParam(name) : null;
   }
 
   @Override
   public Map<String, String> pathParamMap() {
     if (pathParams == null) {
-      pathParams = routeEntry != null ? routeEntry.pathParams(path()) : emptyMap();
+      pathParams = routeMatch != null ? routeMatch.pathParams() : emptyMap();
     }
     return pathParams;
   }
@@ -542,6 +592,54 @@ final class JdkContext implements Context {
     }
   }
 
+  @Override
+  public void write(ByteBuffer[] buffers) {
+    throwIf204();
+    long length = 0;
+    for (var buffer : buffers) {
+      length += buffer.remaining();
+    }
+    try (var os = exchange.getResponseBody()) {
+      exchange.sendResponseHeaders(statusCode(), length == 0 ? -1 : length);
+      if (os instanceof ByteBufferWriter writer) {
+        writer.write(buffers);
+      } else {
+        for (var buffer : buffers) {
+          mgr.transfer(buffer, os);
+        }
+      }
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  @Override
+  public void sendFile(Path file, long offset, long length) {
+    try (var channel = FileChannel.open(file)) {
+      send(channel, offset, length);
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  /** Send length bytes of the channel from offset as the whole response body. */
+  void send(SeekableByteChannel channel, long offset, long length) throws IOException {
+    throwIf204();
+    try (var os = exchange.getResponseBody()) {
+      exchange.sendResponseHeaders(statusCode(), length == 0 ? -1 : length);
+      if (channel instanceof FileChannel file && os instanceof FileChannelWriter writer) {
+        writer.transferFrom(file, offset, length);
+      } else {
+        mgr.transfer(channel, offset, length, os);
+      }
+    }
+  }
+
+  /** Write count bytes of the channel from position to the given stream. */
+  void transfer(SeekableByteChannel channel, long position, long count, OutputStream os) throws IOException {
+    mgr.transfer(channel, position, count, os);
+  }
+
   @Override
   public void write(InputStream is) {
     throwIf204();
@@ -576,12 +674,36 @@ final class JdkContext implements Context {
     mgr.writeRange(this, inputStream, totalBytes);
   }
 
-  void write(ByteArrayOutputStream baos) throws IOException {
+  @Override
+  public void rangedWrite(Path file, long totalBytes) {
+    try {
+      mgr.writeRange(this, FileChannel.open(file), totalBytes);
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  @Override
+  public void rangedWrite(SeekableByteChannel channel) {
+    try {
+      mgr.writeRange(this, channel, channel.size());
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  @Override
+  public void rangedWrite(ByteBuffer content) {
+    mgr.writeRange(this, content);
+  }
+
+  void writeBuffered(byte[] buffer, int size) throws IOException {
     throwIf204();
-    int size = baos.size();
     try (var os = exchange.getResponseBody()) {
       exchange.sendResponseHeaders(statusCode(), size == 0 ? -1 : size);
-      baos.writeTo(os);
+      if (size > 0) {
+        os.write(buffer, 0, size);
+      }
     }
   }
 
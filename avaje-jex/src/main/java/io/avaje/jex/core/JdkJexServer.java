@@ -37,8 +37,12 @@ final class JdkJexServer implements Jex.Server {
   public void shutdown() {
     log.log(Level.TRACE, "starting shutdown");
     lifecycle.status(AppLifecycle.Status.STOPPING);
-    handler.waitForIdle(30);
-    server.stop(0);
+    try {
+      handler.waitForIdle(30);
+      server.stop(0);
+    } finally {
+      handler.stop();
+    }
     log.log(Level.TRACE, "server http listeners stopped");
     lifecycle.status(AppLifecycle.Status.STOPPED);
   }
@@ -0,0 +1,103 @@
+package io.avaje.jex.core;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+import io.avaje.jex.http.Context;
+
+/**
+ * OutputStream for a json response that writes content held whole in the json library buffer as
+ * fixed length content straight from that buffer, avoiding the jex side buffer.
+ *
+ * <p>Content that exceeds the json library buffer, or is large enough to be compressed, is written
+ * via the context outputStream as normal.
+ *
+ * <p>Created by the ServiceManager for each json response. The static methods are used by the
+ * JsonService implementations and have no effect on other OutputStreams.
+ */
+public final class JsonResponseStream extends OutputStream {
+
+  private final Context context;
+  private final int maxDirect;
+  private OutputStream os;
+  private boolean last;
+  private boolean written;
+
+  /**
+   * Create for the context.
+   *
+   * @param context The context the response is written to.
+   * @param maxDirect Content of this size or larger is written via the context outputStream.
+   */
+  JsonResponseStream(Context context, int maxDirect) {
+    this.context = context;
+    this.maxDirect = maxDirect;
+  }
+
+  /**
+   * Mark that the next write to the stream is the last, made by the json generator flushing its
+   * buffer on close.
+   */
+  public static void lastWrite(OutputStream os) {
+    if (os instanceof JsonResponseStream response) {
+      response.last = true;
+    }
+  }
+
+  /** Write the last of the content to the stream, straight from the json library buffer when possible. */
+  public static void writeLast(OutputStream os, byte[] content, int offset, int length)
+      throws IOException {
+    if (os instanceof JsonResponseStream response) {
+      response.writeLast(content, offset, length);
+    } else {
+      os.write(content, offset, length);
+    }
+  }
+
+  /** Write the last of the content, straight from the json library buffer when it is the whole content. */
+  private void writeLast(byte[] content, int offset, int length) throws IOException {
+    if (os == null && !written && offset == 0 && length < maxDirect) {
+      written = true;
+      context.write(content, length);
+    } else {
+      stream().write(content, offset, length);
+    }
+  }
+
+  @Override
+  public void write(int b) throws IOException {
+    stream().write(b);
+  }
+
+  @Override
+  public void write(byte[] content, int offset, int length) throws IOException {
+    if (last) {
+      last = false;
+      writeLast(content, offset, length);
+    } else {
+      stream().write(content, offset, length);
+    }
+  }
+
+  private OutputStream stream() {
+    if (os == null) {
+      // exceeds the json library buffer size
+      os = context.outputStream();
+    }
+    return os;
+  }
+
+  @Override
+  public void flush() throws IOException {
+    if (os != null) {
+      os.flush();
+    }
+  }
+
+  @Override
+  public void close() throws IOException {
+    if (!written) {
+      stream().close();
+    }
+  }
+}
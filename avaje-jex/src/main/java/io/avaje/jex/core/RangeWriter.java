@@ -1,78 +1,380 @@
 package io.avaje.jex.core;
 
+import java.io.Closeable;
+import java.io.EOFException;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
 import java.io.UncheckedIOException;
-import java.util.Arrays;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.SeekableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
 
+import io.avaje.jex.compression.CompressionConfig;
 import io.avaje.jex.http.Context;
 import io.avaje.jex.http.HttpStatus;
 
+/**
+ * Writes the byte ranges requested by the Range header as per RFC 7233.
+ *
+ * <p>A single range is written as a 206 with a Content-Range header and multiple ranges as a 206
+ * multipart/byteranges body. Ranges that can not be satisfied result in a 416, and an invalid Range
+ * header or one with an If-Range that does not match results in the whole body being written.
+ */
 final class RangeWriter {
 
   private static final int DEFAULT_BUFFER_SIZE = 16384;
 
+  /** More ranges than this after coalescing are ignored and the whole body is written. */
+  private static final int MAX_RANGES = 16;
+
+  private static final String CRLF = "\r\n";
+
+  /** A satisfiable byte range, inclusive of from and to. */
+  private record Range(long from, long to) {
+
+    long length() {
+      return to - from + 1;
+    }
+  }
+
+  /** The body the ranges are written from. */
+  private interface Body extends Closeable {
+
+    /** Write the whole body as the response. */
+    void writeAll() throws IOException;
+
+    /** Write a single range as the response. */
+    void writeRange(Range range) throws IOException;
+
+    /** Write a range as a part of a multipart response, parts are written in ascending order. */
+    void writePart(OutputStream os, Range range) throws IOException;
+
+    @Override
+    default void close() throws IOException {
+      // nothing to close by default
+    }
+  }
+
   static void write(Context ctx, InputStream inputStream, long totalBytes, long chunkSize) {
+    write(ctx, totalBytes, chunkSize, new StreamBody(ctx, inputStream));
+  }
 
-    ctx.header(Constants.ACCEPT_RANGES, "bytes");
-    final String rangeHeader = ctx.header(Constants.RANGE);
-    if (rangeHeader == null) {
-      ctx.write(inputStream);
-      return;
+  static void write(
+      JdkContext ctx,
+      SeekableByteChannel channel,
+      long totalBytes,
+      long chunkSize,
+      CompressionConfig compression) {
+    write(ctx, totalBytes, chunkSize, new ChannelBody(ctx, channel, totalBytes, compression));
+  }
+
+  static void write(Context ctx, ByteBuffer content, long chunkSize, CompressionConfig compression) {
+    write(ctx, content.remaining(), chunkSize, new BufferBody(ctx, content, compression));
+  }
+
+  private static void write(Context ctx, long totalBytes, long chunkSize, Body body) {
+    try (body) {
+      ctx.header(Constants.ACCEPT_RANGES, "bytes");
+      final List<Range> ranges = ranges(ctx, totalBytes, chunkSize);
+      if (ranges == null) {
+        body.writeAll();
+      } else if (ranges.isEmpty()) {
+        ctx.header(Constants.CONTENT_RANGE, "bytes */" + totalBytes);
+        ctx.writeEmpty(HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE_416.status());
+      } else if (ranges.size() == 1) {
+        final Range range = ranges.get(0);
+        ctx.header(Constants.CONTENT_RANGE, contentRange(range, totalBytes));
+        ctx.status(HttpStatus.PARTIAL_CONTENT_206).contentLength(range.length());
+        body.writeRange(range);
+      } else {
+        writeMultipart(ctx, totalBytes, ranges, body);
+      }
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
     }
-    final List<String> requestedRange =
-        Arrays.stream(rangeHeader.split("=")[1].split("-")).filter(s -> !s.isEmpty()).toList();
-    final long from = Long.parseLong(requestedRange.get(0));
-    final long to;
+  }
+
+  private static void writeMultipart(Context ctx, long totalBytes, List<Range> ranges, Body body)
+      throws IOException {
+    final String contentType = ctx.responseHeader(Constants.CONTENT_TYPE);
+    final String boundary = "jex" + Long.toHexString(ThreadLocalRandom.current().nextLong());
+    final var partHeaders = new ArrayList<byte[]>(ranges.size());
+    long length = 0;
+    for (Range range : ranges) {
+      final String partHeader =
+          CRLF + "--" + boundary + CRLF
+              + (contentType == null ? "" : "Content-Type: " + contentType + CRLF)
+              + "Content-Range: " + contentRange(range, totalBytes) + CRLF
+              + CRLF;
+      final byte[] bytes = partHeader.getBytes(StandardCharsets.ISO_8859_1);
+      partHeaders.add(bytes);
+      length += bytes.length + range.length();
+    }
+    final byte[] end = (CRLF + "--" + boundary + "--" + CRLF).getBytes(StandardCharsets.ISO_8859_1);
 
+    ctx.contentType("multipart/byteranges; boundary=" + boundary);
+    ctx.status(HttpStatus.PARTIAL_CONTENT_206).contentLength(length + end.length);
+    try (var os = ctx.outputStream()) {
+      for (int i = 0; i < ranges.size(); i++) {
+        os.write(partHeaders.get(i));
+        body.writePart(os, ranges.get(i));
+      }
+      os.write(end);
+    }
+  }
+
+  private static String contentRange(Range range, long totalBytes) {
+    return "bytes " + range.from + "-" + range.to + "/" + totalBytes;
+  }
+
+  /**
+   * Return the satisfiable ranges in ascending order, an empty list when none are satisfiable, or
+   * null when the whole body should be written.
+   */
+  private static List<Range> ranges(Context ctx, long totalBytes, long chunkSize) {
+    final String rangeHeader = ctx.header(Constants.RANGE);
+    if (rangeHeader == null
+        || !rangeHeader.regionMatches(true, 0, "bytes=", 0, 6)
+        || !ifRangeMatches(ctx)) {
+      return null;
+    }
+    final String[] specs = rangeHeader.substring(6).split(",");
     final boolean audioOrVideo = isAudioOrVideo(ctx.responseHeader(Constants.CONTENT_TYPE));
+    final var ranges = new ArrayList<Range>(specs.length);
+    try {
+      for (String spec : specs) {
+        spec = spec.trim();
+        final int dash = spec.indexOf('-');
+        if (dash < 0) {
+          return null;
+        }
+        final long from;
+        final long to;
+        if (dash == 0) {
+          // suffix range of the last N bytes
+          final long suffix = Long.parseLong(spec.substring(1));
+          if (suffix < 0) {
+            return null;
+          }
+          if (suffix == 0 || totalBytes == 0) {
+            continue;
+          }
+          from = Math.max(0, totalBytes - suffix);
+          to = totalBytes - 1;
+        } else {
+          from = Long.parseLong(spec.substring(0, dash));
+          if (dash == spec.length() - 1) {
+            // open ended, a single audio or video range is limited to the chunk size
+            to = audioOrVideo && specs.length == 1
+                ? Math.min(from + chunkSize - 1, totalBytes - 1)
+                : totalBytes - 1;
+          } else {
+            final long last = Long.parseLong(spec.substring(dash + 1));
+            if (last < from) {
+              return null;
+            }
+            to = Math.min(last, totalBytes - 1);
+          }
+          if (from >= totalBytes) {
+            continue;
+          }
+        }
+        ranges.add(new Range(from, to));
+      }
+    } catch (NumberFormatException e) {
+      return null;
+    }
+    return coalesce(ranges);
+  }
 
-    if (!audioOrVideo || from + chunkSize > totalBytes) {
-      to = totalBytes - 1; // chunk bigger than file, write all
-    } else if (requestedRange.size() == 2) {
-      to = Long.parseLong(requestedRange.get(1)); // chunk smaller than file, to/from specified
-    } else {
-      to = from + chunkSize - 1;
+  /** Return false when there is an If-Range that does not match the response ETag or Last-Modified. */
+  private static boolean ifRangeMatches(Context ctx) {
+    final String ifRange = ctx.header(Constants.IF_RANGE);
+    if (ifRange == null) {
+      return true;
+    }
+    if (ifRange.startsWith("W/")) {
+      // weak entity tags are never used for ranges
+      return false;
     }
+    final String validator =
+        ctx.responseHeader(ifRange.startsWith("\"") ? Constants.ETAG : Constants.LAST_MODIFIED);
+    return ifRange.equals(validator);
+  }
 
-    long contentLength;
-    if (audioOrVideo) {
-      contentLength = Math.min(to - from + 1, totalBytes);
+  /**
+   * Sort and merge overlapping or adjacent ranges so they can be written in a single pass, returning
+   * null when there are too many ranges.
+   */
+  private static List<Range> coalesce(List<Range> ranges) {
+    if (ranges.size() <= 1) {
+      return ranges;
+    }
+    ranges.sort(Comparator.comparingLong(Range::from));
+    final var merged = new ArrayList<Range>(ranges.size());
+    Range current = ranges.get(0);
+    for (int i = 1; i < ranges.size(); i++) {
+      final Range next = ranges.get(i);
+      if (next.from <= current.to + 1) {
+        current = new Range(current.from, Math.max(current.to, next.to));
+      } else {
+        merged.add(current);
+        current = next;
+      }
+    }
+    merged.add(current);
+    return merged.size() > MAX_RANGES ? null : merged;
+  }
+
+  /** Return true if the whole content would be compressed when written via the outputStream. */
+  private static boolean compressible(Context ctx, CompressionConfig compression, long totalBytes) {
+    return compression.compressionEnabled()
+        && totalBytes >= compression.minSizeForCompression()
+        && compression.allowsForCompression(ctx.responseHeader(Constants.CONTENT_TYPE))
+        && !compression.isLatencyCritical(ctx)
+        && compression.findCompressor(ctx).isPresent();
+  }
+
+  private static boolean isAudioOrVideo(String contentType) {
+    return contentType != null && (contentType.startsWith("audio/") || contentType.startsWith("video/"));
+  }
+
+  private static void write(OutputStream os, ByteBuffer content) throws IOException {
+    if (content.hasArray()) {
+      os.write(content.array(), content.arrayOffset() + content.position(), content.remaining());
     } else {
-      contentLength = totalBytes - from;
+      Channels.newChannel(os).write(content);
     }
+  }
 
-    final HttpStatus status = audioOrVideo ? HttpStatus.PARTIAL_CONTENT_206 : HttpStatus.OK_200;
+  /** Body read sequentially from an InputStream, skipping to each range. */
+  private static final class StreamBody implements Body {
 
-    ctx.header(Constants.CONTENT_RANGE, "bytes " + from + "-" + to + "/" + totalBytes);
-    ctx.status(status).contentLength(contentLength);
-    try (var os = ctx.outputStream()) {
-      write(os, inputStream, from, to);
-    } catch (IOException e) {
-      throw new UncheckedIOException(e);
+    private final Context ctx;
+    private final InputStream inputStream;
+    private long position;
+
+    StreamBody(Context ctx, InputStream inputStream) {
+      this.ctx = ctx;
+      this.inputStream = inputStream;
+    }
+
+    @Override
+    public void writeAll() {
+      ctx.write(inputStream);
+    }
+
+    @Override
+    public void writeRange(Range range) throws IOException {
+      try (var os = ctx.outputStream()) {
+        writePart(os, range);
+      }
+    }
+
+    @Override
+    public void writePart(OutputStream os, Range range) throws IOException {
+      inputStream.skipNBytes(range.from - position);
+      final byte[] buffer = new byte[(int) Math.min(DEFAULT_BUFFER_SIZE, range.length())];
+      long bytesLeft = range.length();
+      while (bytesLeft > 0) {
+        final int read = inputStream.read(buffer, 0, (int) Math.min(buffer.length, bytesLeft));
+        if (read == -1) {
+          throw new EOFException("Stream ended before the end of range " + range);
+        }
+        os.write(buffer, 0, read);
+        bytesLeft -= read;
+      }
+      position = range.to + 1;
+    }
+
+    @Override
+    public void close() throws IOException {
+      inputStream.close();
     }
   }
 
-  private static void write(OutputStream outputStream, InputStream inputStream, long from, long to) throws IOException {
-    byte[] buffer = new byte[DEFAULT_BUFFER_SIZE];
-    long toSkip = from;
-    while (toSkip > 0) {
-      toSkip -= inputStream.skip(toSkip);
+  /** Body read from a seekable channel by position. */
+  private static final class ChannelBody implements Body {
+
+    private final JdkContext ctx;
+    private final SeekableByteChannel channel;
+    private final long totalBytes;
+    private final CompressionConfig compression;
+
+    ChannelBody(JdkContext ctx, SeekableByteChannel channel, long totalBytes, CompressionConfig compression) {
+      this.ctx = ctx;
+      this.channel = channel;
+      this.totalBytes = totalBytes;
+      this.compression = compression;
     }
-    long bytesLeft = to - from + 1;
-    while (bytesLeft > 0) {
-      int read = inputStream.read(buffer, 0, (int) Math.min(DEFAULT_BUFFER_SIZE, bytesLeft));
-      if (read == -1) {
-        break; // End of stream reached unexpectedly
+
+    @Override
+    public void writeAll() throws IOException {
+      if (compressible(ctx, compression, totalBytes)) {
+        ctx.write(Channels.newInputStream(channel.position(0)));
+      } else {
+        ctx.send(channel, 0, totalBytes);
       }
-      outputStream.write(buffer, 0, read);
-      bytesLeft -= read;
+    }
+
+    @Override
+    public void writeRange(Range range) throws IOException {
+      ctx.send(channel, range.from, range.length());
+    }
+
+    @Override
+    public void writePart(OutputStream os, Range range) throws IOException {
+      ctx.transfer(channel, range.from, range.length(), os);
+    }
+
+    @Override
+    public void close() throws IOException {
+      channel.close();
     }
   }
 
-  private static boolean isAudioOrVideo(String contentType) {
-    return contentType.startsWith("audio/") || contentType.startsWith("video/");
+  /** Body held in a buffer, ranges are written as slices. */
+  private static final class BufferBody implements Body {
+
+    private final Context ctx;
+    private final ByteBuffer content;
+    private final CompressionConfig compression;
+
+    BufferBody(Context ctx, ByteBuffer content, CompressionConfig compression) {
+      this.ctx = ctx;
+      this.content = content;
+      this.compression = compression;
+    }
+
+    @Override
+    public void writeAll() throws IOException {
+      if (compressible(ctx, compression, content.remaining())) {
+        try (var os = ctx.outputStream()) {
+          write(os, content.duplicate());
+        }
+      } else {
+        ctx.write(content.duplicate());
+      }
+    }
+
+    @Override
+    public void writeRange(Range range) {
+      ctx.write(slice(range));
+    }
+
+    @Override
+    public void writePart(OutputStream os, Range range) throws IOException {
+      write(os, slice(range));
+    }
+
+    private ByteBuffer slice(Range range) {
+      return content.slice(content.position() + (int) range.from, (int) range.length());
+    }
   }
 }
@@ -1,68 +1,83 @@
 package io.avaje.jex.core;
 
-import java.io.IOException;
-import java.util.List;
 import java.util.Set;
+import java.util.StringJoiner;
 
 import com.sun.net.httpserver.HttpExchange;
 import com.sun.net.httpserver.HttpHandler;
 
-import io.avaje.jex.http.HttpFilter;
-import io.avaje.jex.http.NotFoundException;
+import io.avaje.jex.Routing;
+import io.avaje.jex.http.HttpResponseException;
+import io.avaje.jex.http.HttpStatus;
 import io.avaje.jex.routes.SpiRoutes;
 
 final class RoutingHandler implements HttpHandler {
 
   private final SpiRoutes routes;
   private final ServiceManager mgr;
-  private final List<HttpFilter> filters;
 
   RoutingHandler(SpiRoutes routes, ServiceManager mgr) {
     this.mgr = mgr;
     this.routes = routes;
-    this.filters = routes.filters();
   }
 
   void waitForIdle(long maxSeconds) {
     routes.waitForIdle(maxSeconds);
   }
 
+  void stop() {
+    routes.stop();
+  }
+
   @Override
   public void handle(HttpExchange exchange) {
     final var uri = exchange.getRequestURI().getPath();
     final var routeType = mgr.lookupRoutingType(exchange.getRequestMethod());
-    final var route = routes.match(routeType, uri);
+    final var match = routes.match(routeType, uri);
 
-    if (route == null) {
+    if (match == null) {
       var ctx = new JdkContext(mgr, exchange, uri, Set.of());
       ctx.setMode(Mode.EXCHANGE);
-      mgr.handleException(
-        ctx,
-        new NotFoundException("No route matching http method %s, with path %s".formatted(routeType.name(), uri)));
+      mgr.routeNotFound(ctx, exchange.getRequestMethod(), uri);
+    } else if (match.entry() == null) {
+      methodNotAllowed(exchange, uri, routeType, match.allowedMethods());
     } else {
+      final var route = match.entry();
+      final var recorder = route.recorder();
+      final long start = recorder == null ? 0 : System.nanoTime();
       route.inc();
       try {
-        JdkContext ctx = new JdkContext(mgr, exchange, route, uri);
-        CtxHolder.runWith(ctx,
-            () -> {
-              try {
-                ctx.setMode(Mode.BEFORE);
-                new BaseFilterChain(filters.iterator(), route.handler(), ctx, mgr).proceed();
-                handleNoResponse(exchange);
-              } catch (Exception e) {
-                mgr.handleException(ctx, e);
-              }
-            });
+        JdkContext ctx = new JdkContext(mgr, exchange, match, uri);
+        CtxHolder.runWith(ctx, new BaseFilterChain(route.filters(), route.handler(), ctx, mgr));
       } finally {
         route.dec();
         exchange.close();
+        if (recorder != null) {
+          recorder.record(System.nanoTime() - start, exchange.getResponseCode());
+        }
       }
     }
   }
 
-  private void handleNoResponse(HttpExchange exchange) throws IOException {
-    if (exchange.getResponseCode() < 1) {
-      exchange.sendResponseHeaders(204, -1);
+  /**
+   * The path matches routes of other methods, respond to OPTIONS with the Allow header or
+   * otherwise with 405.
+   */
+  private void methodNotAllowed(HttpExchange exchange, String uri, Routing.Type routeType, Set<Routing.Type> allowed) {
+    var ctx = new JdkContext(mgr, exchange, uri, Set.of());
+    ctx.setMode(Mode.EXCHANGE);
+    final var allow = new StringJoiner(", ");
+    allowed.forEach(type -> allow.add(type.name()));
+    if (routeType == Routing.Type.OPTIONS) {
+      ctx.header(Constants.ALLOW, allow.add(Routing.Type.OPTIONS.name()).toString());
+      ctx.writeEmpty(204);
+    } else {
+      ctx.header(Constants.ALLOW, allow.toString());
+      mgr.handleException(
+        ctx,
+        new HttpResponseException(
+          HttpStatus.METHOD_NOT_ALLOWED_405,
+          "Http method %s not allowed for path %s".formatted(exchange.getRequestMethod(), uri)));
     }
   }
 }
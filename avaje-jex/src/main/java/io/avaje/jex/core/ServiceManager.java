@@ -1,10 +1,15 @@
 package io.avaje.jex.core;
 
+import java.io.EOFException;
+import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
 import java.lang.System.Logger.Level;
 import java.lang.reflect.Type;
 import java.net.URLDecoder;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.SeekableByteChannel;
 import java.nio.charset.Charset;
 import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
@@ -28,6 +33,7 @@ import io.avaje.jex.http.Context;
 import io.avaje.jex.http.HttpResponseException;
 import io.avaje.jex.http.HttpStatus;
 import io.avaje.jex.routes.UrlDecode;
+import io.avaje.jex.spi.BufferPool;
 import io.avaje.jex.spi.JsonService;
 import io.avaje.jex.spi.TemplateRender;
 
@@ -35,6 +41,7 @@ import io.avaje.jex.spi.TemplateRender;
 final class ServiceManager {
 
   private static final System.Logger log = AppLog.getLogger("io.avaje.jex");
+  private static final int TRANSFER_CHUNK = 16 * 1024;
 
   private final CompressionConfig compressionConfig;
   private final JsonService jsonService;
@@ -43,6 +50,7 @@ final class ServiceManager {
   private final String scheme;
   private final int bufferInitial;
   private final long bufferMax;
+  private final BufferPool bufferPool;
   private final int rangeChunks;
   private final long maxRequestSize;
 
@@ -58,6 +66,7 @@ final class ServiceManager {
       String scheme,
       long bufferMax,
       int bufferInitial,
+      BufferPool bufferPool,
       int rangeChunks,
       long maxRequestSize) {
     this.compressionConfig = compressionConfig;
@@ -67,18 +76,78 @@ final class ServiceManager {
     this.scheme = scheme;
     this.bufferInitial = bufferInitial;
     this.bufferMax = bufferMax;
+    this.bufferPool = bufferPool;
     this.rangeChunks = rangeChunks;
     this.maxRequestSize = maxRequestSize;
   }
 
   OutputStream createOutputStream(JdkContext jdkContext) {
-    var out = new BufferedOutStream(jdkContext, bufferInitial, bufferMax);
+    var out = new BufferedOutStream(jdkContext, bufferPool, bufferInitial, bufferMax);
     if (compressionConfig.compressionEnabled()) {
       return new CompressedOutputStream(compressionConfig, jdkContext, out);
     }
     return out;
   }
 
+  /**
+   * Create the OutputStream for json content, writing content that fits in the json library buffer
+   * straight from that buffer unless it is large enough to be compressed.
+   */
+  OutputStream createJsonOutputStream(JdkContext jdkContext) {
+    final int maxDirect =
+        compressionConfig.compressionEnabled()
+            ? compressionConfig.minSizeForCompression()
+            : Integer.MAX_VALUE;
+    return new JsonResponseStream(jdkContext, maxDirect);
+  }
+
+  /** Write the remaining bytes of the buffer, copying direct buffers via a pooled array. */
+  void transfer(ByteBuffer buffer, OutputStream os) throws IOException {
+    if (buffer.hasArray()) {
+      os.write(buffer.array(), buffer.arrayOffset() + buffer.position(), buffer.remaining());
+      buffer.position(buffer.limit());
+      return;
+    }
+    final byte[] chunk = bufferPool.acquire(Math.min(buffer.remaining(), TRANSFER_CHUNK));
+    try {
+      while (buffer.hasRemaining()) {
+        final int len = Math.min(buffer.remaining(), chunk.length);
+        buffer.get(chunk, 0, len);
+        os.write(chunk, 0, len);
+      }
+    } finally {
+      bufferPool.release(chunk);
+    }
+  }
+
+  /**
+   * Write count bytes of the channel from the given position via a pooled array. A FileChannel is
+   * read by position without changing the channel position.
+   */
+  void transfer(SeekableByteChannel channel, long position, long count, OutputStream os) throws IOException {
+    final FileChannel file = channel instanceof FileChannel fileChannel ? fileChannel : null;
+    if (file == null) {
+      channel.position(position);
+    }
+    final byte[] chunk = bufferPool.acquire((int) Math.min(count, TRANSFER_CHUNK));
+    try {
+      final var buffer = ByteBuffer.wrap(chunk);
+      long remaining = count;
+      while (remaining > 0) {
+        buffer.clear().limit((int) Math.min(remaining, chunk.length));
+        final int read = file != null ? file.read(buffer, position) : channel.read(buffer);
+        if (read == -1) {
+          throw new EOFException("Channel shorter than the " + count + " bytes to write");
+        }
+        os.write(chunk, 0, read);
+        position += read;
+        remaining -= read;
+      }
+    } finally {
+      bufferPool.release(chunk);
+    }
+  }
+
   JsonService jsonService() {
     return jsonService;
   }
@@ -113,6 +182,14 @@ final class ServiceManager {
     RangeWriter.write(ctx, is, totalBytes, rangeChunks);
   }
 
+  void writeRange(JdkContext ctx, SeekableByteChannel channel, long totalBytes) {
+    RangeWriter.write(ctx, channel, totalBytes, rangeChunks, compressionConfig);
+  }
+
+  void writeRange(Context ctx, ByteBuffer content) {
+    RangeWriter.write(ctx, content, rangeChunks, compressionConfig);
+  }
+
   void maybeClose(Object iterator) {
     if (iterator instanceof AutoCloseable closeable) {
       try {
@@ -131,6 +208,10 @@ final class ServiceManager {
     exceptionHandler.handle(ctx, t);
   }
 
+  void routeNotFound(JdkContext ctx, String method, String path) {
+    exceptionHandler.routeNotFound(ctx, method, path);
+  }
+
   void render(Context ctx, String name, Map<String, Object> model) {
     templateManager.render(ctx, name, model);
   }
@@ -228,6 +309,7 @@ final class ServiceManager {
           jex.config().scheme(),
           jex.config().maxStreamBufferSize(),
           jex.config().initialStreamBufferSize(),
+          jex.config().bufferPool(),
           jex.config().rangeChunkSize(),
           jex.config().maxRequestSize());
     }
@@ -9,26 +9,42 @@ import java.util.Iterator;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 
+import io.avaje.jex.core.JsonResponseStream;
 import io.avaje.jex.spi.JsonService;
 import tools.jackson.core.JsonGenerator;
 import tools.jackson.core.StreamWriteFeature;
 import tools.jackson.databind.JavaType;
 import tools.jackson.databind.ObjectMapper;
+import tools.jackson.databind.ObjectReader;
+import tools.jackson.databind.ObjectWriter;
+import tools.jackson.databind.SerializationFeature;
 
 /** Jackson 3.x JsonService */
 public final class Jackson3JsonService implements JsonService {
 
   private final ObjectMapper mapper;
+  private final ObjectWriter objectWriter;
   private final Map<String, JavaType> javaTypes = new ConcurrentHashMap<>();
 
+  /** Types resolved by class, the common case of a bean class. */
+  private final ClassValue<JavaType> classTypes =
+      new ClassValue<>() {
+        @Override
+        protected JavaType computeValue(Class<?> type) {
+          return mapper.getTypeFactory().constructType(type);
+        }
+      };
+
   /** Create with defaults for Jackson */
   public Jackson3JsonService() {
     this.mapper = new ObjectMapper();
+    this.objectWriter = noFlush(mapper.writer());
   }
 
   /** Create with a Jackson instance that might have custom configuration. */
   public Jackson3JsonService(ObjectMapper mapper) {
     this.mapper = mapper;
+    this.objectWriter = noFlush(mapper.writer());
   }
 
   @Override
@@ -44,19 +60,33 @@ public final class Jackson3JsonService implements JsonService {
   }
 
   private JavaType javaType(Type type) {
+    if (type instanceof Class<?> cls) {
+      return classTypes.get(cls);
+    }
     return javaTypes.computeIfAbsent(
         type.getTypeName(), k -> mapper.getTypeFactory().constructType(type));
   }
 
   @Override
   public void toJson(Object bean, OutputStream os) {
+    toJson(objectWriter, bean, os);
+  }
+
+  /** Writers do not flush after the value so the generator buffer is written once on close. */
+  private static ObjectWriter noFlush(ObjectWriter writer) {
+    return writer.without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+  }
+
+  private void toJson(ObjectWriter writer, Object bean, OutputStream os) {
     try {
       try (var generator = mapper.createGenerator(os)) {
         // only flush to underlying OutputStream on success
         generator.configure(StreamWriteFeature.AUTO_CLOSE_TARGET, false);
         generator.configure(StreamWriteFeature.FLUSH_PASSED_TO_STREAM, false);
         generator.configure(StreamWriteFeature.AUTO_CLOSE_CONTENT, false);
-        mapper.writeValue(generator, bean);
+        writer.writeValue(generator, bean);
+        // content that fits in the generator buffer is written whole on close
+        JsonResponseStream.lastWrite(os);
       }
       os.close();
     } catch (IOException e) {
@@ -87,4 +117,26 @@ public final class Jackson3JsonService implements JsonService {
   public <T> T fromJson(Type type, String data) {
     return mapper.readValue(data, javaType(type));
   }
+
+  @Override
+  public <T> Writer<T> writer(Type type) {
+    final ObjectWriter writer = noFlush(mapper.writerFor(javaType(type)));
+    return (bean, os) -> toJson(writer, bean, os);
+  }
+
+  @Override
+  public <T> Reader<T> reader(Type type) {
+    final ObjectReader reader = mapper.readerFor(javaType(type));
+    return new Reader<>() {
+      @Override
+      public T fromJson(InputStream is) {
+        return reader.readValue(is);
+      }
+
+      @Override
+      public T fromJson(byte[] data) {
+        return reader.readValue(data);
+      }
+    };
+  }
 }
@@ -13,24 +13,40 @@ import com.fasterxml.jackson.core.JsonGenerator;
 import com.fasterxml.jackson.databind.DeserializationFeature;
 import com.fasterxml.jackson.databind.JavaType;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
 
+import io.avaje.jex.core.JsonResponseStream;
 import io.avaje.jex.spi.JsonService;
 
 /** Jackson JsonService */
 public final class JacksonJsonService implements JsonService {
 
   private final ObjectMapper mapper;
+  private final ObjectWriter objectWriter;
   private final Map<String, JavaType> javaTypes = new ConcurrentHashMap<>();
 
+  /** Types resolved by class, the common case of a bean class. */
+  private final ClassValue<JavaType> classTypes =
+      new ClassValue<>() {
+        @Override
+        protected JavaType computeValue(Class<?> type) {
+          return mapper.getTypeFactory().constructType(type);
+        }
+      };
+
   /** Create with defaults for Jackson */
   public JacksonJsonService() {
     this.mapper =
         new ObjectMapper().configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+    this.objectWriter = noFlush(mapper.writer());
   }
 
   /** Create with a Jackson instance that might have custom configuration. */
   public JacksonJsonService(ObjectMapper mapper) {
     this.mapper = mapper;
+    this.objectWriter = noFlush(mapper.writer());
   }
 
   @Override
@@ -54,19 +70,33 @@ public final class JacksonJsonService implements JsonService {
   }
 
   private JavaType javaType(Type type) {
+    if (type instanceof Class<?> cls) {
+      return classTypes.get(cls);
+    }
     return javaTypes.computeIfAbsent(
         type.getTypeName(), k -> mapper.getTypeFactory().constructType(type));
   }
 
   @Override
   public void toJson(Object bean, OutputStream os) {
+    toJson(objectWriter, bean, os);
+  }
+
+  /** Writers do not flush after the value so the generator buffer is written once on close. */
+  private static ObjectWriter noFlush(ObjectWriter writer) {
+    return writer.without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+  }
+
+  private void toJson(ObjectWriter writer, Object bean, OutputStream os) {
     try {
       try (var generator = mapper.createGenerator(os)) {
         // only flush to underlying OutputStream on success
         generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
         generator.disable(JsonGenerator.Feature.FLUSH_PASSED_TO_STREAM);
         generator.disable(JsonGenerator.Feature.AUTO_CLOSE_JSON_CONTENT);
-        mapper.writeValue(generator, bean);
+        writer.writeValue(generator, bean);
+        // content that fits in the generator buffer is written whole on close
+        JsonResponseStream.lastWrite(os);
       }
       os.close();
     } catch (IOException e) {
@@ -113,4 +143,34 @@ public final class JacksonJsonService implements JsonService {
       throw new UncheckedIOException(e);
     }
   }
+
+  @Override
+  public <T> Writer<T> writer(Type type) {
+    final ObjectWriter writer = noFlush(mapper.writerFor(javaType(type)));
+    return (bean, os) -> toJson(writer, bean, os);
+  }
+
+  @Override
+  public <T> Reader<T> reader(Type type) {
+    final ObjectReader reader = mapper.readerFor(javaType(type));
+    return new Reader<>() {
+      @Override
+      public T fromJson(InputStream is) {
+        try {
+          return reader.readValue(is);
+        } catch (IOException e) {
+          throw new UncheckedIOException(e);
+        }
+      }
+
+      @Override
+      public T fromJson(byte[] data) {
+        try {
+          return reader.readValue(data);
+        } catch (IOException e) {
+          throw new UncheckedIOException(e);
+        }
+      }
+    };
+  }
 }
@@ -15,6 +15,15 @@ public final class JsonbJsonService implements JsonService {
 
   private final Jsonb jsonb;
 
+  /** Types resolved by class, the common case of a bean class. */
+  private final ClassValue<JsonType<?>> types =
+      new ClassValue<>() {
+        @Override
+        protected JsonType<?> computeValue(Class<?> type) {
+          return jsonb.type(type);
+        }
+      };
+
   /** Create with defaults for Jsonb. */
   public JsonbJsonService() {
     this.jsonb = Jsonb.builder().build();
@@ -27,12 +36,12 @@ public final class JsonbJsonService implements JsonService {
 
   @Override
   public <T> T fromJson(Type clazz, InputStream is) {
-    return jsonb.<T>type(clazz).fromJson(is);
+    return this.<T>type(clazz).fromJson(is);
   }
 
   @Override
   public <T> T fromJson(Type clazz, byte[] data) {
-    return jsonb.<T>type(clazz).fromJson(data);
+    return this.<T>type(clazz).fromJson(data);
   }
 
   @Override
@@ -64,6 +73,33 @@ public final class JsonbJsonService implements JsonService {
 
   @Override
   public <T> T fromJson(Type type, String data) {
-    return jsonb.<T>type(type).fromJson(data);
+    return this.<T>type(type).fromJson(data);
+  }
+
+  @Override
+  public <T> Writer<T> writer(Type type) {
+    final JsonType<T> jsonType = type(type);
+    return (bean, os) -> jsonType.toJson(bean, new NoFlushJsonOutput(os));
+  }
+
+  @Override
+  public <T> Reader<T> reader(Type type) {
+    final JsonType<T> jsonType = type(type);
+    return new Reader<>() {
+      @Override
+      public T fromJson(InputStream is) {
+        return jsonType.fromJson(is);
+      }
+
+      @Override
+      public T fromJson(byte[] data) {
+        return jsonType.fromJson(data);
+      }
+    };
+  }
+
+  @SuppressWarnings("unchecked")
+  private <T> JsonType<T> type(Type type) {
+    return (JsonType<T>) (type instanceof Class<?> cls ? types.get(cls) : jsonb.type(type));
   }
 }
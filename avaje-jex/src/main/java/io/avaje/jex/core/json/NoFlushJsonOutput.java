@@ -3,6 +3,7 @@ package io.avaje.jex.core.json;
 import java.io.IOException;
 import java.io.OutputStream;
 
+import io.avaje.jex.core.JsonResponseStream;
 import io.avaje.json.stream.JsonOutput;
 
 final class NoFlushJsonOutput implements JsonOutput {
@@ -18,6 +19,11 @@ final class NoFlushJsonOutput implements JsonOutput {
     outputStream.write(content, offset, length);
   }
 
+  @Override
+  public void writeLast(byte[] content, int offset, int length) throws IOException {
+    JsonResponseStream.writeLast(outputStream, content, offset, length);
+  }
+
   @Override
   public void flush() throws IOException {
     // no flush
@@ -9,6 +9,10 @@ import java.io.OutputStream;
 import java.io.UncheckedIOException;
 import java.lang.reflect.Type;
 import java.net.URI;
+import java.nio.ByteBuffer;
+import java.nio.channels.SeekableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.time.Duration;
 import java.time.ZonedDateTime;
 import java.util.Iterator;
@@ -109,6 +113,9 @@ public interface Context {
   /**
    * Return the request body as bean.
    *
+   * <p>The body is read into memory first via {@link #bodyAsBytes()} so it remains available to
+   * {@link #body()} afterwards, for example in after filters and exception handlers.
+   *
    * @param beanType The bean type
    */
   <T> T bodyAsType(Type beanType);
@@ -119,16 +126,31 @@ public interface Context {
    * @param beanType The bean type
    */
   default <T> T bodyStreamAsClass(Class<T> beanType) {
-    return bodyAsType(beanType);
+    return bodyStreamAsType(beanType);
   }
 
   /**
    * Return the request body as bean of the given type using {@link #bodyAsInputStream()}.
    *
+   * <p>Unless the body has already been read, it is parsed as it is streamed without buffering it
+   * in memory and is limited to the configured max request size, including requests of unknown
+   * length. The body is then no longer available to {@link #body()} or {@link #bodyAsBytes()}.
+   *
    * @param beanType The bean type
    */
   <T> T bodyStreamAsType(Type beanType);
 
+  /**
+   * Return the request body as bean using a reader that resolved the bean type once, see {@link
+   * JsonService#reader(Type)}.
+   *
+   * <p>As with {@link #bodyStreamAsType(Type)}, unless the body has already been read it is parsed
+   * as it is streamed and is then no longer available to {@link #body()}.
+   *
+   * @param reader The reader for the bean type
+   */
+  <T> T bodyAs(JsonService.Reader<T> reader);
+
   /** Return the request content length. */
   long contentLength();
 
@@ -227,11 +249,55 @@ public interface Context {
   /**
    * Reads HTTP Range headers and determines which part of the provided InputStream to write back.
    *
+   * <p>Ranges are handled as per RFC 7233. A single range is written as a 206 with a Content-Range
+   * header, multiple ranges as a 206 multipart/byteranges body, and a 416 is sent when no range can
+   * be satisfied. The Range header is ignored when an If-Range header does not match the ETag or
+   * Last-Modified response header. Open ended audio and video ranges are limited to the configured
+   * range chunk size.
+   *
+   * <p>The stream is skipped to reach each range which may read and discard the skipped bytes,
+   * prefer {@link #rangedWrite(SeekableByteChannel)} for large content.
+   *
    * @param inputStream data to write
    * @param totalBytes total size of the data
    */
   void rangedWrite(InputStream inputStream, long totalBytes);
 
+  /**
+   * Reads HTTP Range headers and determines which part of the file to write back using {@link
+   * #sendFile(Path, long, long)}. When the whole file is requested and the response would be
+   * compressed the file is written via the {@link #outputStream()} instead.
+   *
+   * @param file The file to write
+   * @param totalBytes The size of the file
+   */
+  void rangedWrite(Path file, long totalBytes);
+
+  /**
+   * Reads HTTP Range headers and writes the requested ranges by positioning the channel, so the
+   * cost of a range request is proportional to the bytes requested rather than where they are in
+   * the content. When the whole content is requested and the response would be compressed the
+   * channel is written via the {@link #outputStream()} instead.
+   *
+   * <p>A {@link java.nio.channels.FileChannel} is read by position and is transferred as per {@link
+   * #sendFile(Path, long, long)}. The channel is closed once written.
+   *
+   * @param channel The channel to write, its size is the total size of the content
+   */
+  void rangedWrite(SeekableByteChannel channel);
+
+  /**
+   * Reads HTTP Range headers and determines which part of the content to write back using {@link
+   * #write(ByteBuffer)}. When the whole content is requested and the response would be compressed
+   * the content is written via the {@link #outputStream()} instead.
+   *
+   * <p>The remaining bytes of the buffer are the content. The buffer position is not changed so a
+   * shared buffer can be written concurrently but it must not be modified.
+   *
+   * @param content The content to write
+   */
+  void rangedWrite(ByteBuffer content);
+
   /**
    * Writes input stream to {@link #rangedWrite(InputStream, long)} with currently available data
    * via {@link InputStream#available}
@@ -334,6 +400,20 @@ public interface Context {
    */
   void json(Object bean);
 
+  /**
+   * Set the content type as application/json and write the response using a writer that resolved
+   * the bean type once, see {@link JsonService#writer(Type)}.
+   *
+   * <pre>{@code
+   *   var writer = jsonService.<Customer>writer(Customer.class);
+   *   app.get("/customer", ctx -> ctx.json(writer, customer));
+   * }</pre>
+   *
+   * @param writer the writer for the bean type
+   * @param bean the object to serialize and write
+   */
+  <T> void json(JsonService.Writer<T> writer, T bean);
+
   /**
    * Optimized json write using avaje jsonb
    *
@@ -593,6 +673,59 @@ public interface Context {
    */
   void write(byte[] bufferBytes, int length);
 
+  /**
+   * Writes the remaining bytes of the buffer directly to the response, sending headers and
+   * terminating the exchange.
+   *
+   * @param buffer The buffer to write.
+   * @see #write(ByteBuffer[])
+   */
+  default void write(ByteBuffer buffer) {
+    write(new ByteBuffer[] {buffer});
+  }
+
+  /**
+   * Writes the remaining bytes of the buffers directly to the response with a Content-Length of
+   * their total, sending headers and terminating the exchange.
+   *
+   * <p>Server providers that support NIO write the buffers without copying them (see {@link
+   * io.avaje.jex.spi.ByteBufferWriter}) so the buffers must not be modified after this call.
+   * Otherwise heap buffers are written from their backing array and direct buffers are copied
+   * to the response stream.
+   *
+   * @param buffers The buffers to write in order.
+   */
+  void write(ByteBuffer[] buffers);
+
+  /**
+   * Writes length bytes of the file starting at offset directly to the response with a
+   * Content-Length of length, sending headers and terminating the exchange. The content is not
+   * compressed.
+   *
+   * <p>Server providers that support it transfer the file to the connection without copying it
+   * through the heap (see {@link io.avaje.jex.spi.FileChannelWriter}), otherwise the file is read
+   * into a pooled buffer and written to the response.
+   *
+   * @param file The file to write from.
+   * @param offset The position in the file to start from.
+   * @param length The number of bytes to write.
+   */
+  void sendFile(Path file, long offset, long length);
+
+  /**
+   * Writes the whole file directly to the response, sending headers and terminating the exchange.
+   *
+   * @param file The file to write.
+   * @see #sendFile(Path, long, long)
+   */
+  default void sendFile(Path file) {
+    try {
+      sendFile(file, 0, Files.size(file));
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
   /**
    * Writes the InputStream directly to the response body, sending headers and terminating the
    * exchange.
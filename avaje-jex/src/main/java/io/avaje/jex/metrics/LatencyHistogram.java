@@ -0,0 +1,82 @@
+package io.avaje.jex.metrics;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Lock-free log-linear histogram of latencies in microseconds.
+ *
+ * <p>Each power of 2 range is split into 8 buckets so values are reported within 12.5% of the
+ * recorded value. Values over 2^36 micros (around 19 hours) are recorded in the last bucket.
+ */
+final class LatencyHistogram {
+
+  private static final int SUB_BITS = 3;
+  private static final int SUB_COUNT = 1 << SUB_BITS;
+  private static final int MAX_EXPONENT = 35;
+  private static final long MAX_VALUE = (1L << (MAX_EXPONENT + 1)) - 1;
+
+  private final AtomicLongArray counts = new AtomicLongArray(index(MAX_VALUE) + 1);
+
+  /**
+   * Return the bucket index for the value.
+   */
+  static int index(long value) {
+    if (value < SUB_COUNT) {
+      return (int) Math.max(value, 0);
+    }
+    final long capped = Math.min(value, MAX_VALUE);
+    final int exponent = 63 - Long.numberOfLeadingZeros(capped);
+    final int sub = (int) (capped >>> (exponent - SUB_BITS)) & (SUB_COUNT - 1);
+    return (exponent - SUB_BITS + 1) * SUB_COUNT + sub;
+  }
+
+  /**
+   * Return the highest value recorded in the bucket.
+   */
+  static long highestValue(int index) {
+    if (index < SUB_COUNT) {
+      return index;
+    }
+    final int exponent = index / SUB_COUNT + SUB_BITS - 1;
+    final long sub = index % SUB_COUNT;
+    final long lowest = (SUB_COUNT + sub) << (exponent - SUB_BITS);
+    return lowest + (1L << (exponent - SUB_BITS)) - 1;
+  }
+
+  void record(long micros) {
+    counts.incrementAndGet(index(micros));
+  }
+
+  /**
+   * Return a copy of the bucket counts.
+   */
+  long[] counts() {
+    final long[] copy = new long[counts.length()];
+    for (int i = 0; i < copy.length; i++) {
+      copy[i] = counts.get(i);
+    }
+    return copy;
+  }
+
+  /**
+   * Return the value at the given percentile (0 to 100) from the bucket counts.
+   */
+  static long percentile(long[] counts, double percentile) {
+    long total = 0;
+    for (long count : counts) {
+      total += count;
+    }
+    if (total == 0) {
+      return 0;
+    }
+    final long target = Math.max(1, (long) Math.ceil(total * percentile / 100));
+    long seen = 0;
+    for (int i = 0; i < counts.length; i++) {
+      seen += counts[i];
+      if (seen >= target) {
+        return highestValue(i);
+      }
+    }
+    return highestValue(counts.length - 1);
+  }
+}
@@ -0,0 +1,36 @@
+package io.avaje.jex.metrics;
+
+import io.avaje.jex.Routing;
+
+/**
+ * Snapshot of the metrics for a route. Latencies are in microseconds with percentiles within
+ * 12.5% of the recorded values.
+ *
+ * @param method The http method of the route.
+ * @param path The path of the route (e.g. {@code /users/{id}}).
+ * @param count The number of completed requests.
+ * @param errors The number of requests with a 5xx response status.
+ * @param totalMicros The total time of all requests.
+ * @param maxMicros The maximum request time.
+ * @param p50Micros The median request time.
+ * @param p90Micros The 90th percentile request time.
+ * @param p99Micros The 99th percentile request time.
+ * @param p999Micros The 99.9th percentile request time.
+ */
+public record RouteMetric(
+    Routing.Type method,
+    String path,
+    long count,
+    long errors,
+    long totalMicros,
+    long maxMicros,
+    long p50Micros,
+    long p90Micros,
+    long p99Micros,
+    long p999Micros) {
+
+  /** Return the mean request time in microseconds. */
+  public long meanMicros() {
+    return count == 0 ? 0 : totalMicros / count;
+  }
+}
@@ -0,0 +1,156 @@
+package io.avaje.jex.metrics;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import io.avaje.jex.Routing;
+import io.avaje.jex.compression.CompressionMetric;
+
+/**
+ * Per route request count, error count and latency keyed by the route method and path.
+ *
+ * <pre>{@code
+ *   var metrics = RouteMetrics.create();
+ *   Jex.create()
+ *     .plugin(RouteMetricsPlugin.create(metrics))
+ *     ...
+ *
+ *   List<RouteMetric> snapshot = metrics.snapshot();
+ * }</pre>
+ */
+public final class RouteMetrics {
+
+  private final List<RouteRecorder> recorders = new CopyOnWriteArrayList<>();
+
+  private RouteMetrics() {}
+
+  /** Create a new RouteMetrics. */
+  public static RouteMetrics create() {
+    return new RouteMetrics();
+  }
+
+  /**
+   * Register a route returning the recorder for its requests. This is called when the routes are
+   * built and not typically used by application code.
+   */
+  public RouteRecorder register(Routing.Type method, String path) {
+    final var recorder = new RouteRecorder(method, path);
+    recorders.add(recorder);
+    return recorder;
+  }
+
+  /** Return a snapshot of the metrics for each route. */
+  public List<RouteMetric> snapshot() {
+    final var metrics = new ArrayList<RouteMetric>(recorders.size());
+    for (var recorder : recorders) {
+      metrics.add(recorder.snapshot());
+    }
+    return metrics;
+  }
+
+  /** Return the metrics in the Prometheus text exposition format. */
+  public String prometheus() {
+    return prometheus(List.of());
+  }
+
+  /**
+   * Return the metrics along with the given adaptive compression metrics in the Prometheus text
+   * exposition format.
+   */
+  public String prometheus(List<CompressionMetric> compression) {
+    final var snapshot = snapshot();
+    final var sb = new StringBuilder(256 + snapshot.size() * 512);
+    sb.append("# HELP jex_route_requests_total Completed requests per route.\n");
+    sb.append("# TYPE jex_route_requests_total counter\n");
+    for (var metric : snapshot) {
+      labels(sb.append("jex_route_requests_total"), metric, null).append(metric.count()).append('\n');
+    }
+    sb.append("# HELP jex_route_errors_total Requests with a 5xx response per route.\n");
+    sb.append("# TYPE jex_route_errors_total counter\n");
+    for (var metric : snapshot) {
+      labels(sb.append("jex_route_errors_total"), metric, null).append(metric.errors()).append('\n');
+    }
+    sb.append("# HELP jex_route_duration_seconds Request duration per route.\n");
+    sb.append("# TYPE jex_route_duration_seconds summary\n");
+    for (var metric : snapshot) {
+      quantile(sb, metric, "0.5", metric.p50Micros());
+      quantile(sb, metric, "0.9", metric.p90Micros());
+      quantile(sb, metric, "0.99", metric.p99Micros());
+      quantile(sb, metric, "0.999", metric.p999Micros());
+      labels(sb.append("jex_route_duration_seconds_sum"), metric, null)
+          .append(seconds(metric.totalMicros()))
+          .append('\n');
+      labels(sb.append("jex_route_duration_seconds_count"), metric, null)
+          .append(metric.count())
+          .append('\n');
+    }
+    if (!compression.isEmpty()) {
+      compression(sb, compression);
+    }
+    return sb.toString();
+  }
+
+  private static void compression(StringBuilder sb, List<CompressionMetric> compression) {
+    sb.append("# HELP jex_compression_responses_total Compressed and skipped responses per route.\n");
+    sb.append("# TYPE jex_compression_responses_total counter\n");
+    for (var metric : compression) {
+      labels(sb.append("jex_compression_responses_total"), metric, "compressed")
+          .append(metric.compressed())
+          .append('\n');
+      labels(sb.append("jex_compression_responses_total"), metric, "skipped")
+          .append(metric.skipped())
+          .append('\n');
+    }
+    sb.append("# HELP jex_compression_ratio Compressed to uncompressed size of compressed responses per route.\n");
+    sb.append("# TYPE jex_compression_ratio gauge\n");
+    for (var metric : compression) {
+      labels(sb.append("jex_compression_ratio"), metric, null)
+          .append(String.format(Locale.ROOT, "%.4f", metric.ratio()))
+          .append('\n');
+    }
+  }
+
+  private static StringBuilder labels(StringBuilder sb, CompressionMetric metric, String result) {
+    sb.append("{method=\"").append(metric.method()).append("\",path=\"");
+    escape(sb, String.valueOf(metric.path()));
+    sb.append('"');
+    if (result != null) {
+      sb.append(",result=\"").append(result).append('"');
+    }
+    return sb.append("} ");
+  }
+
+  private static void quantile(StringBuilder sb, RouteMetric metric, String quantile, long micros) {
+    labels(sb.append("jex_route_duration_seconds"), metric, quantile)
+        .append(seconds(micros))
+        .append('\n');
+  }
+
+  private static StringBuilder labels(StringBuilder sb, RouteMetric metric, String quantile) {
+    sb.append("{method=\"").append(metric.method().name()).append("\",path=\"");
+    escape(sb, metric.path());
+    sb.append('"');
+    if (quantile != null) {
+      sb.append(",quantile=\"").append(quantile).append('"');
+    }
+    return sb.append("} ");
+  }
+
+  private static void escape(StringBuilder sb, String value) {
+    for (int i = 0; i < value.length(); i++) {
+      final char ch = value.charAt(i);
+      switch (ch) {
+        case '\\' -> sb.append("\\\\");
+        case '"' -> sb.append("\\\"");
+        case '\n' -> sb.append("\\n");
+        default -> sb.append(ch);
+      }
+    }
+  }
+
+  private static String seconds(long micros) {
+    return String.format(Locale.ROOT, "%.6f", micros / 1_000_000.0);
+  }
+}
@@ -0,0 +1,62 @@
+package io.avaje.jex.metrics;
+
+import io.avaje.jex.Jex;
+import io.avaje.jex.spi.JexPlugin;
+
+/**
+ * Plugin that enables recording of per route metrics, optionally publishing them along with any
+ * adaptive compression metrics in the Prometheus text format.
+ *
+ * <pre>{@code
+ *   var metrics = RouteMetrics.create();
+ *   Jex.create()
+ *     .plugin(RouteMetricsPlugin.create(metrics).prometheusPath("/metrics"))
+ *     ...
+ * }</pre>
+ */
+public final class RouteMetricsPlugin implements JexPlugin {
+
+  private final RouteMetrics metrics;
+  private String prometheusPath;
+
+  private RouteMetricsPlugin(RouteMetrics metrics) {
+    this.metrics = metrics;
+  }
+
+  /** Create the plugin recording to a new RouteMetrics. */
+  public static RouteMetricsPlugin create() {
+    return new RouteMetricsPlugin(RouteMetrics.create());
+  }
+
+  /** Create the plugin recording to the given RouteMetrics. */
+  public static RouteMetricsPlugin create(RouteMetrics metrics) {
+    return new RouteMetricsPlugin(metrics);
+  }
+
+  /**
+   * Publish the metrics in the Prometheus text format at the given path.
+   *
+   * @param path The path of the endpoint (e.g. {@code /metrics}).
+   */
+  public RouteMetricsPlugin prometheusPath(String path) {
+    this.prometheusPath = path;
+    return this;
+  }
+
+  /** Return the metrics recorded by the plugin. */
+  public RouteMetrics metrics() {
+    return metrics;
+  }
+
+  @Override
+  public void apply(Jex jex) {
+    jex.config().routeMetrics(metrics);
+    if (prometheusPath != null) {
+      jex.get(
+          prometheusPath,
+          ctx ->
+              ctx.contentType("text/plain; version=0.0.4; charset=utf-8")
+                  .write(metrics.prometheus(jex.config().compression().metrics())));
+    }
+  }
+}
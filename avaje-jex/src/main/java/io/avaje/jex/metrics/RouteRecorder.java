@@ -0,0 +1,63 @@
+package io.avaje.jex.metrics;
+
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+import io.avaje.jex.Routing;
+
+/**
+ * Records the requests of a single route using striped counters and a lock-free histogram.
+ */
+public final class RouteRecorder {
+
+  private final Routing.Type method;
+  private final String path;
+  private final LongAdder count = new LongAdder();
+  private final LongAdder errors = new LongAdder();
+  private final LongAdder totalMicros = new LongAdder();
+  private final LongAccumulator maxMicros = new LongAccumulator(Math::max, 0);
+  private final LatencyHistogram latency = new LatencyHistogram();
+
+  RouteRecorder(Routing.Type method, String path) {
+    this.method = method;
+    this.path = path;
+  }
+
+  /**
+   * Record a completed request.
+   *
+   * @param nanos The time taken to process the request.
+   * @param status The response status code, 5xx responses are counted as errors.
+   */
+  public void record(long nanos, int status) {
+    final long micros = nanos / 1000;
+    count.increment();
+    totalMicros.add(micros);
+    maxMicros.accumulate(micros);
+    latency.record(micros);
+    if (status >= 500) {
+      errors.increment();
+    }
+  }
+
+  RouteMetric snapshot() {
+    final long[] counts = latency.counts();
+    final long max = maxMicros.get();
+    return new RouteMetric(
+        method,
+        path,
+        count.sum(),
+        errors.sum(),
+        totalMicros.sum(),
+        max,
+        percentile(counts, 50, max),
+        percentile(counts, 90, max),
+        percentile(counts, 99, max),
+        percentile(counts, 99.9, max));
+  }
+
+  /** Percentile limited to the max as buckets report their highest value. */
+  private static long percentile(long[] counts, double percentile, long max) {
+    return Math.min(LatencyHistogram.percentile(counts, percentile), max);
+  }
+}
@@ -0,0 +1,2 @@
+/** Per route request metrics */
+package io.avaje.jex.metrics;
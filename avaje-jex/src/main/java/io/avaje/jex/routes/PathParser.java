@@ -8,11 +8,22 @@ final class PathParser {
 
   private final String rawPath;
   private final List<String> paramNames = new ArrayList<>();
+  private final List<PathSegment> segments = new ArrayList<>();
+  /**
+   * Pattern per captured (non-literal) segment, null when the whole segment is the value.
+   */
+  private final List<Pattern> capturePatterns = new ArrayList<>();
+  /**
+   * Per parameter name, the index of the captured segment and the group within it.
+   */
+  private final List<int[]> nameCaptures = new ArrayList<>();
   private final Pattern matchRegex;
   private final Pattern pathParamRegex;
   private final boolean multiSlash;
   private final boolean literal;
   private final boolean ignoreTrailingSlashes;
+  private final boolean trailingSlash;
+  private final int paramCount;
   private int segmentCount;
 
   PathParser(String path, boolean ignoreTrailingSlashes) {
@@ -22,10 +33,14 @@ final class PathParser {
     for (String rawSeg : path.split("/")) {
       if (!rawSeg.isEmpty()) {
         segmentCount++;
-        regBuilder.add(parseSegment(rawSeg), paramNames);
+        final PathSegment segment = parseSegment(rawSeg);
+        segments.add(segment);
+        regBuilder.add(segment, paramNames);
+        addCapture(segment);
       }
     }
-    if (!ignoreTrailingSlashes && path.endsWith("/")) {
+    this.trailingSlash = !ignoreTrailingSlashes && path.endsWith("/");
+    if (trailingSlash) {
       segmentCount++;
       regBuilder.trailingSlash();
     }
@@ -33,6 +48,24 @@ final class PathParser {
     this.pathParamRegex = regBuilder.extractRegex();
     this.multiSlash = regBuilder.multiSlash();
     this.literal = segmentCount > 1 && regBuilder.literal();
+    this.paramCount = (int) paramNames.stream().filter(Objects::nonNull).count();
+  }
+
+  private void addCapture(PathSegment segment) {
+    if (segment.literal()) {
+      return;
+    }
+    final int capture = capturePatterns.size();
+    final int groups = paramNames.size() - nameCaptures.size();
+    if (segment instanceof PathSegment.Multi) {
+      capturePatterns.add(Pattern.compile(segment.asRegexString(true)));
+      for (int group = 1; group <= groups; group++) {
+        nameCaptures.add(new int[] {capture, group});
+      }
+    } else {
+      capturePatterns.add(null);
+      nameCaptures.add(new int[] {capture, 0});
+    }
   }
 
   boolean matches(String url) {
@@ -67,6 +100,54 @@ final class PathParser {
     return pathMap;
   }
 
+  /**
+   * Return the decoded path parameter given the captured segment offsets.
+   */
+  String pathParam(String uri, int[] offsets, String name) {
+    for (int i = 0; i < paramNames.size(); i++) {
+      if (name.equals(paramNames.get(i))) {
+        final String value = capture(uri, offsets, i);
+        return value == null ? null : UrlDecode.decodeRFC3986(value);
+      }
+    }
+    return null;
+  }
+
+  /**
+   * Return the decoded path parameters given the captured segment offsets.
+   */
+  Map<String, String> pathParams(String uri, int[] offsets) {
+    final int count = paramNames.size();
+    if (count == 0) {
+      return Map.of();
+    }
+    final Map<String, String> pathMap = LinkedHashMap.newLinkedHashMap(count);
+    for (int i = 0; i < count; i++) {
+      final String name = paramNames.get(i);
+      if (name != null) {
+        // null names for wildcard placeholders
+        final String value = capture(uri, offsets, i);
+        if (value != null) {
+          pathMap.put(name, UrlDecode.decodeRFC3986(value));
+        }
+      }
+    }
+    return pathMap;
+  }
+
+  private String capture(String uri, int[] offsets, int nameIndex) {
+    final int[] nameCapture = nameCaptures.get(nameIndex);
+    final int capture = nameCapture[0];
+    final int from = offsets[capture * 2];
+    final int to = offsets[capture * 2 + 1];
+    final Pattern pattern = capturePatterns.get(capture);
+    if (pattern == null) {
+      return uri.substring(from, to);
+    }
+    final Matcher matcher = pattern.matcher(uri).region(from, to);
+    return matcher.matches() ? matcher.group(nameCapture[1]) : null;
+  }
+
   private PathSegment parseSegment(String segment) {
     return PathSegmentParser.parse(segment, rawPath);
   }
@@ -78,6 +159,34 @@ final class PathParser {
     return rawPath;
   }
 
+  /**
+   * Return the parsed path segments (excluding any trailing slash).
+   */
+  List<PathSegment> segments() {
+    return segments;
+  }
+
+  /**
+   * Return true if the path must be matched with a trailing slash.
+   */
+  boolean trailingSlash() {
+    return trailingSlash;
+  }
+
+  /**
+   * Return the number of named path parameters.
+   */
+  int paramCount() {
+    return paramCount;
+  }
+
+  /**
+   * Return the number of non-literal segments that are captured when matching.
+   */
+  int captureCount() {
+    return capturePatterns.size();
+  }
+
   /**
    * Return the number of path segments.
    */
@@ -18,6 +18,27 @@ abstract sealed class PathSegment {
     return false;
   }
 
+  /**
+   * Return true if this is a parameter without a custom regex.
+   */
+  boolean plainParameter() {
+    return false;
+  }
+
+  /**
+   * Return the literal text that a matching value must start with (empty if none).
+   */
+  String literalPrefix() {
+    return "";
+  }
+
+  /**
+   * Return the literal text that a matching value must end with (empty if none).
+   */
+  String literalSuffix() {
+    return "";
+  }
+
   static final class SlashIgnoringParameter extends Parameter {
     SlashIgnoringParameter(String param) {
       super(param, "[^/]+?"); // Accepting everything except slash;);
@@ -38,17 +59,24 @@ abstract sealed class PathSegment {
   private abstract static sealed class Parameter extends PathSegment {
     private final String name;
     private final String regex;
+    private final boolean plain;
 
     Parameter(String param, String acceptPattern) {
       final String[] split = param.split(":", 2);
       this.name = split[0];
-      if (split.length == 1) {
+      this.plain = split.length == 1;
+      if (plain) {
         this.regex = acceptPattern;
       } else {
         this.regex = split[1];
       }
     }
 
+    @Override
+    boolean plainParameter() {
+      return plain;
+    }
+
     @Override
     public String asRegexString(boolean extract) {
       return extract ? "(" + regex + ")" : regex;
@@ -78,6 +106,16 @@ abstract sealed class PathSegment {
       return false;
     }
 
+    @Override
+    String literalPrefix() {
+      return segments.getFirst() instanceof Literal literal ? literal.content : "";
+    }
+
+    @Override
+    String literalSuffix() {
+      return segments.getLast() instanceof Literal literal ? literal.content : "";
+    }
+
     @Override
     String asRegexString(boolean extract) {
       return segments.stream()
@@ -100,6 +138,10 @@ abstract sealed class PathSegment {
       this.content = content;
     }
 
+    String content() {
+      return content;
+    }
+
     @Override
     boolean literal() {
       return true;
@@ -1,34 +1,61 @@
 package io.avaje.jex.routes;
 
-import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.atomic.LongAdder;
 
+import io.avaje.jex.Routing;
 import io.avaje.jex.http.ExchangeHandler;
+import io.avaje.jex.http.HttpFilter;
+import io.avaje.jex.metrics.RouteRecorder;
 import io.avaje.jex.security.Role;
 
 final class RouteEntry implements SpiRoutes.Entry {
 
   private final LongAdder active = new LongAdder();
+  /** Requests matched to the route, null unless counted for re-ordering routes. */
+  private final LongAdder hits;
+  private final Routing.Type type;
   private final PathParser path;
   private final ExchangeHandler handler;
+  private final HttpFilter[] filters;
   private final Set<Role> roles;
+  private final RouteRecorder recorder;
+  private final RouteMatch noParams;
 
-  RouteEntry(PathParser path, ExchangeHandler handler, Set<Role> roles) {
+  RouteEntry(Routing.Type type, PathParser path, ExchangeHandler handler, Set<Role> roles) {
+    this(type, path, handler, new HttpFilter[0], roles, null, true);
+  }
+
+  RouteEntry(
+      Routing.Type type,
+      PathParser path,
+      ExchangeHandler handler,
+      HttpFilter[] filters,
+      Set<Role> roles,
+      RouteRecorder recorder,
+      boolean countHits) {
+    this.type = type;
     this.path = path;
     this.handler = handler;
+    this.filters = filters;
     this.roles = roles;
+    this.recorder = recorder;
+    this.hits = countHits ? new LongAdder() : null;
+    this.noParams = new RouteMatch(this, null, new int[0]);
   }
 
   @Override
-  public SpiRoutes.Entry multiHandler(ExchangeHandler[] handlers) {
+  public RouteEntry multiHandler(ExchangeHandler[] handlers) {
     final var multi = new MultiHandler(handlers);
-    return new RouteEntry(path, multi, roles);
+    return new RouteEntry(type, path, multi, filters, roles, recorder, hits != null);
   }
 
   @Override
   public void inc() {
     active.increment();
+    if (hits != null) {
+      hits.increment();
+    }
   }
 
   @Override
@@ -41,6 +68,11 @@ final class RouteEntry implements SpiRoutes.Entry {
     return active.sum();
   }
 
+  @Override
+  public long hits() {
+    return hits == null ? 0 : hits.sum();
+  }
+
   @Override
   public boolean matches(String requestUri) {
     return path.matches(requestUri);
@@ -52,8 +84,31 @@ final class RouteEntry implements SpiRoutes.Entry {
   }
 
   @Override
-  public Map<String, String> pathParams(String uri) {
-    return path.extractPathParams(uri);
+  public HttpFilter[] filters() {
+    return filters;
+  }
+
+  @Override
+  public RouteRecorder recorder() {
+    return recorder;
+  }
+
+  /**
+   * Return the match for the request path given the captured segment offsets.
+   *
+   * @param offsets the captured segment offsets or null to extract using the route regex
+   */
+  RouteMatch match(String requestPath, int[] offsets) {
+    return path.paramCount() == 0 ? noParams : new RouteMatch(this, requestPath, offsets);
+  }
+
+  PathParser path() {
+    return path;
+  }
+
+  @Override
+  public Routing.Type type() {
+    return type;
   }
 
   @Override
@@ -0,0 +1,59 @@
+package io.avaje.jex.routes;
+
+import java.util.Map;
+import java.util.Set;
+
+import io.avaje.jex.Routing;
+
+/**
+ * A matched route with the path parameter offsets captured while matching.
+ */
+final class RouteMatch implements SpiRoutes.Match {
+
+  private final RouteEntry entry;
+  private final String path;
+
+  /**
+   * Start and end offsets of the captured segments, null to extract using the route regex.
+   */
+  private final int[] offsets;
+
+  RouteMatch(RouteEntry entry, String path, int[] offsets) {
+    this.entry = entry;
+    this.path = path;
+    this.offsets = offsets;
+  }
+
+  @Override
+  public RouteEntry entry() {
+    return entry;
+  }
+
+  @Override
+  public Set<Routing.Type> allowedMethods() {
+    return Set.of();
+  }
+
+  @Override
+  public String pathParam(String name) {
+    final PathParser parser = entry.path();
+    if (offsets == null) {
+      return parser.extractPathParams(path).get(name);
+    }
+    return parser.pathParam(path, offsets, name);
+  }
+
+  @Override
+  public Map<String, String> pathParams() {
+    final PathParser parser = entry.path();
+    if (offsets == null) {
+      return parser.extractPathParams(path);
+    }
+    return parser.pathParams(path, offsets);
+  }
+
+  @Override
+  public String toString() {
+    return entry.toString();
+  }
+}
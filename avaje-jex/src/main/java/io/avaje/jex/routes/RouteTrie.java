@@ -0,0 +1,594 @@
+package io.avaje.jex.routes;
+
+import static java.util.stream.Collectors.joining;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+import io.avaje.jex.Routing;
+
+/**
+ * Route index for all http methods as a trie of path segments.
+ *
+ * <p>Literal segments are hashed edges tried first, then parameter segments with a custom regex
+ * in registration order, then plain parameter segments. Slash accepting segments ({@code *} and
+ * {@code <param>}) are catch-alls that consume the remainder of the path and are only used when
+ * no other route matches, the earliest registered catch-all taking precedence. Matching cost is
+ * proportional to the request path length rather than the number of routes.
+ *
+ * <p>Each node holds the routes for every http method, a node without a route for the request
+ * method being treated as no match for that branch. When no route matches the request method the
+ * traversal has visited every node matching the path, so the methods that do have a matching
+ * route are known without a further scan (for 405 responses and the OPTIONS Allow header).
+ *
+ * <p>Fully literal routes are additionally held in a hash map that is checked before walking the
+ * trie.
+ */
+final class RouteTrie {
+
+  private static final int METHODS = Routing.Type.values().length;
+  private static final int[] NO_OFFSETS = {};
+
+  private final Node root;
+
+  /**
+   * Fully literal routes keyed by path (including the trailing slash variant when ignored) with
+   * the entries indexed by method.
+   */
+  private final Map<String, RouteEntry[]> exactMap;
+
+  private final boolean ignoreTrailingSlashes;
+
+  /**
+   * True when any route has a catch-all.
+   */
+  private final boolean hasCatchAll;
+
+  /**
+   * The maximum number of parameter segments captured by a route.
+   */
+  private final int maxCaptures;
+
+  /**
+   * All the entries (for active request counting).
+   */
+  private final RouteEntry[] entries;
+
+  RouteTrie(Node root, Map<String, RouteEntry[]> exactMap, boolean ignoreTrailingSlashes, boolean hasCatchAll, List<RouteEntry> entries) {
+    this.root = root;
+    this.exactMap = exactMap;
+    this.ignoreTrailingSlashes = ignoreTrailingSlashes;
+    this.hasCatchAll = hasCatchAll;
+    this.entries = entries.toArray(new RouteEntry[0]);
+    this.maxCaptures = entries.stream().mapToInt(e -> e.path().captureCount()).max().orElse(0);
+  }
+
+  @Override
+  public String toString() {
+    return "RouteTrie{"
+      + Arrays.stream(entries).map(e -> e.type() + " " + e).sorted().collect(joining(", "))
+      + '}';
+  }
+
+  /**
+   * Return the match for the request method and path with the parameter segment offsets captured.
+   *
+   * <p>Returns a match without an entry when the path only matches routes of other methods and
+   * null when the path matches no routes.
+   *
+   * <p>Fully literal routes and routes without parameters return a shared match. Walking the trie
+   * allocates the search state and, for routes with parameters, the match holding the captured
+   * segment offsets.
+   */
+  SpiRoutes.Match match(Routing.Type type, String pathInfo) {
+    final int method = type == null ? -1 : type.ordinal();
+    if (method >= 0) {
+      final RouteEntry[] exact = exactMap.get(pathInfo);
+      if (exact != null && exact[method] != null) {
+        return exact[method].match(pathInfo, null);
+      }
+    }
+    if (pathInfo.isEmpty() || pathInfo.charAt(0) != '/') {
+      return null;
+    }
+    final var search = new Search(pathInfo, method, maxCaptures == 0 ? NO_OFFSETS : new int[maxCaptures * 2]);
+    final RouteEntry match = find(root, search, 1, 0);
+    if (match != null) {
+      return match.match(pathInfo, search.offsets);
+    }
+    if (hasCatchAll) {
+      final CatchAllMatch catchAll = findCatchAll(root, search, 1, 0, null);
+      if (catchAll != null) {
+        return catchAll.entry().match(pathInfo, catchAll.offsets);
+      }
+    }
+    return search.allowed == 0 ? null : new MethodMismatch(search.allowedMethods());
+  }
+
+  /**
+   * Find a route without catch-alls with literal edges taking precedence over parameter edges.
+   *
+   * @param pos      the index of the first character after a slash
+   * @param captured the number of parameter segments captured so far
+   */
+  private RouteEntry find(Node node, Search search, int pos, int captured) {
+    final String path = search.path;
+    final int len = path.length();
+    if (pos == len) {
+      // path ends with a slash
+      return search.terminal(node, node != root && !ignoreTrailingSlashes);
+    }
+    final int end = segmentEnd(path, pos);
+    if (end == pos) {
+      return null; // empty segment
+    }
+    final Node literal = node.literal(path, pos, end);
+    if (literal != null) {
+      final RouteEntry match = next(literal, search, end, captured);
+      if (match != null) {
+        return match;
+      }
+    }
+    final int[] offsets = search.offsets;
+    for (ParamEdge edge : node.params) {
+      if (edge.matches(path, pos, end)) {
+        offsets[captured * 2] = pos;
+        offsets[captured * 2 + 1] = end;
+        final RouteEntry match = next(edge.child, search, end, captured + 1);
+        if (match != null) {
+          return match;
+        }
+      }
+    }
+    return null;
+  }
+
+  private RouteEntry next(Node child, Search search, int end, int captured) {
+    if (end == search.path.length()) {
+      return search.terminal(child, false);
+    }
+    return find(child, search, end + 1, captured);
+  }
+
+  /**
+   * Find the earliest registered catch-all for the method that matches the path.
+   */
+  private CatchAllMatch findCatchAll(Node node, Search search, int pos, int captured, CatchAllMatch best) {
+    final String path = search.path;
+    boolean found = false;
+    for (CatchAll catchAll : node.catchAlls) {
+      if (catchAll.matches(path, pos)) {
+        search.allowed |= 1 << catchAll.method;
+        if (!found && catchAll.method == search.method && (best == null || catchAll.order < best.catchAll.order)) {
+          best = new CatchAllMatch(catchAll, catchAll.offsets(path, pos, search.offsets, captured, ignoreTrailingSlashes));
+          found = true;
+        }
+      }
+    }
+    final int len = path.length();
+    if (pos == len) {
+      return best;
+    }
+    final int end = segmentEnd(path, pos);
+    if (end == pos || end == len) {
+      return best;
+    }
+    final Node literal = node.literal(path, pos, end);
+    if (literal != null) {
+      best = findCatchAll(literal, search, end + 1, captured, best);
+    }
+    final int[] offsets = search.offsets;
+    for (ParamEdge edge : node.params) {
+      if (edge.matches(path, pos, end)) {
+        offsets[captured * 2] = pos;
+        offsets[captured * 2 + 1] = end;
+        best = findCatchAll(edge.child, search, end + 1, captured + 1, best);
+      }
+    }
+    return best;
+  }
+
+  private static int segmentEnd(String path, int pos) {
+    final int end = path.indexOf('/', pos);
+    return end == -1 ? path.length() : end;
+  }
+
+  /**
+   * Re-order parameter edges so that the most frequently matched are tried first.
+   */
+  void reorder() {
+    root.reorder();
+  }
+
+  long activeRequests() {
+    long total = 0;
+    for (RouteEntry entry : entries) {
+      total += entry.activeRequests();
+    }
+    return total;
+  }
+
+  /**
+   * A node in the trie.
+   */
+  static final class Node {
+
+    private static final ParamEdge[] NO_PARAMS = {};
+    private static final CatchAll[] NO_CATCH_ALLS = {};
+
+    private final Map<String, Node> literalMap = new LinkedHashMap<>();
+    private final List<ParamEdge> paramList = new ArrayList<>();
+    private final List<CatchAll> catchAllList = new ArrayList<>();
+
+    private Literals literals;
+    /**
+     * Volatile as the edges can be re-ordered by hit count while matching.
+     */
+    private volatile ParamEdge[] params = NO_PARAMS;
+    private CatchAll[] catchAlls = NO_CATCH_ALLS;
+
+    /**
+     * The routes matching at this node indexed by method.
+     */
+    private final RouteEntry[] entries = new RouteEntry[METHODS];
+
+    /**
+     * The routes matching at this node with a trailing slash (when not ignoring trailing slashes).
+     */
+    private final RouteEntry[] slashEntries = new RouteEntry[METHODS];
+
+    /**
+     * Bit mask of the methods with a route at this node (without and with trailing slash).
+     */
+    private int methods;
+    private int slashMethods;
+
+    Node child(PathSegment segment) {
+      if (segment instanceof PathSegment.Literal literal) {
+        return literalMap.computeIfAbsent(literal.content(), k -> new Node());
+      }
+      final String key = segment.plainParameter() ? ParamEdge.PLAIN : segment.asRegexString(false);
+      for (ParamEdge edge : paramList) {
+        if (edge.key.equals(key)) {
+          return edge.child;
+        }
+      }
+      final var edge = new ParamEdge(key, segment.literalPrefix(), segment.literalSuffix(), new Node());
+      final int last = paramList.size() - 1;
+      if (last >= 0 && paramList.get(last).pattern == null) {
+        // typed edges are tried before the plain parameter edge
+        paramList.add(last, edge);
+      } else {
+        paramList.add(edge);
+      }
+      return edge.child;
+    }
+
+    void entry(RouteEntry entry, boolean trailingSlash) {
+      // first registered wins when different paths end on the same node
+      final int method = entry.type().ordinal();
+      final RouteEntry[] target = trailingSlash ? slashEntries : entries;
+      if (target[method] == null) {
+        target[method] = entry;
+        if (trailingSlash) {
+          slashMethods |= 1 << method;
+        } else {
+          methods |= 1 << method;
+        }
+      }
+    }
+
+    void catchAll(CatchAll catchAll) {
+      catchAllList.add(catchAll);
+    }
+
+    /**
+     * Convert the build time collections into the arrays used for matching.
+     */
+    void compile() {
+      if (!literalMap.isEmpty()) {
+        literals = new Literals(literalMap);
+        literalMap.values().forEach(Node::compile);
+      }
+      if (!paramList.isEmpty()) {
+        params = paramList.toArray(NO_PARAMS);
+        for (ParamEdge edge : params) {
+          edge.child.compile();
+        }
+      }
+      if (!catchAllList.isEmpty()) {
+        catchAlls = catchAllList.toArray(NO_CATCH_ALLS);
+      }
+    }
+
+    Node literal(String path, int from, int to) {
+      return literals == null ? null : literals.get(path, from, to);
+    }
+
+    /**
+     * Re-order the parameter edges by hit count returning the total hits for this node.
+     */
+    long reorder() {
+      long total = 0;
+      for (int i = 0; i < METHODS; i++) {
+        total += hits(entries[i]) + hits(slashEntries[i]);
+      }
+      for (CatchAll catchAll : catchAlls) {
+        total += catchAll.entry.hits();
+      }
+      for (Node child : literalMap.values()) {
+        total += child.reorder();
+      }
+      final ParamEdge[] current = params;
+      for (ParamEdge edge : current) {
+        edge.hits = edge.child.reorder();
+        total += edge.hits;
+      }
+      if (current.length > 1) {
+        final ParamEdge[] sorted = ParamEdge.sortByHits(current);
+        if (sorted != null) {
+          params = sorted;
+        }
+      }
+      return total;
+    }
+
+    private static long hits(RouteEntry entry) {
+      return entry == null ? 0 : entry.hits();
+    }
+  }
+
+  /**
+   * Edge for a parameter segment (or a segment mixing literals and parameters).
+   */
+  private static final class ParamEdge {
+
+    /**
+     * Key shared by all parameters without a custom regex.
+     */
+    static final String PLAIN = "{}";
+
+    private final String key;
+    private final Pattern pattern;
+    private final String prefix;
+    private final String suffix;
+    private final Node child;
+
+    /**
+     * Hits from the last re-order.
+     */
+    private long hits;
+
+    ParamEdge(String key, String prefix, String suffix, Node child) {
+      this.key = key;
+      this.prefix = prefix;
+      this.suffix = suffix;
+      this.child = child;
+      this.pattern = PLAIN.equals(key) ? null : Pattern.compile(key);
+    }
+
+    /**
+     * Return true if no segment can match both edges, based on their literal prefix and suffix.
+     */
+    boolean disjoint(ParamEdge other) {
+      return !prefix.startsWith(other.prefix) && !other.prefix.startsWith(prefix)
+        || !suffix.endsWith(other.suffix) && !other.suffix.endsWith(suffix);
+    }
+
+    /**
+     * Return the edges sorted by hits descending or null if the order is unchanged.
+     *
+     * <p>Only adjacent disjoint typed edges are swapped so the relative order of edges that could
+     * match the same segment is preserved, and the plain parameter edge remains last.
+     */
+    static ParamEdge[] sortByHits(ParamEdge[] edges) {
+      final ParamEdge[] sorted = edges.clone();
+      boolean changed = false;
+      for (int i = 1; i < sorted.length; i++) {
+        for (int j = i; j > 0; j--) {
+          final ParamEdge edge = sorted[j];
+          final ParamEdge prev = sorted[j - 1];
+          if (edge.pattern == null || edge.hits <= prev.hits || !edge.disjoint(prev)) {
+            break;
+          }
+          sorted[j] = prev;
+          sorted[j - 1] = edge;
+          changed = true;
+        }
+      }
+      return changed ? sorted : null;
+    }
+
+    boolean matches(String path, int from, int to) {
+      if (pattern == null) {
+        return from < to;
+      }
+      return pattern.matcher(path).region(from, to).matches();
+    }
+  }
+
+  /**
+   * Route that consumes the remainder of the path.
+   */
+  static final class CatchAll {
+
+    enum Type {
+      /** Terminal {@code *} matching anything including empty. */
+      WILDCARD,
+      /** Terminal {@code <param>} matching anything non-empty. */
+      PARAM,
+      /** Other slash accepting segments, verified using the route regex. */
+      REGEX
+    }
+
+    private final int order;
+    private final Type type;
+    private final RouteEntry entry;
+    private final int method;
+
+    CatchAll(int order, Type type, RouteEntry entry) {
+      this.order = order;
+      this.type = type;
+      this.entry = entry;
+      this.method = entry.type().ordinal();
+    }
+
+    boolean matches(String path, int pos) {
+      return switch (type) {
+        case WILDCARD -> true;
+        case PARAM -> pos < path.length();
+        case REGEX -> entry.matches(path);
+      };
+    }
+
+    /**
+     * Return the segment offsets including the remainder of the path as the last segment, or null
+     * when the route regex is required to extract the parameters.
+     */
+    int[] offsets(String path, int pos, int[] offsets, int captured, boolean ignoreTrailingSlashes) {
+      if (type == Type.REGEX) {
+        return null;
+      }
+      int end = path.length();
+      // a trailing slash is not part of the value unless it is the only (required) character
+      final int min = type == Type.PARAM ? pos + 1 : pos;
+      if (ignoreTrailingSlashes && end > min && path.charAt(end - 1) == '/') {
+        end--;
+      }
+      final int[] copy = Arrays.copyOf(offsets, captured * 2 + 2);
+      copy[captured * 2] = pos;
+      copy[captured * 2 + 1] = end;
+      return copy;
+    }
+  }
+
+  /**
+   * State of matching a request path.
+   */
+  private static final class Search {
+
+    private final String path;
+    private final int method;
+    private final int[] offsets;
+
+    /**
+     * Bit mask of the methods with a route matching the path.
+     */
+    private int allowed;
+
+    Search(String path, int method, int[] offsets) {
+      this.path = path;
+      this.method = method;
+      this.offsets = offsets;
+    }
+
+    /**
+     * Return the route at the node for the method collecting the methods with routes.
+     */
+    RouteEntry terminal(Node node, boolean trailingSlash) {
+      final int mask = trailingSlash ? node.slashMethods : node.methods;
+      if (mask == 0) {
+        return null;
+      }
+      allowed |= mask;
+      if (method < 0) {
+        return null;
+      }
+      return (trailingSlash ? node.slashEntries : node.entries)[method];
+    }
+
+    Set<Routing.Type> allowedMethods() {
+      final Set<Routing.Type> set = EnumSet.noneOf(Routing.Type.class);
+      for (Routing.Type type : Routing.Type.values()) {
+        if ((allowed & (1 << type.ordinal())) != 0) {
+          set.add(type);
+        }
+      }
+      return set;
+    }
+  }
+
+  /**
+   * The path matches routes but not for the request method.
+   */
+  private record MethodMismatch(Set<Routing.Type> allowedMethods) implements SpiRoutes.Match {
+
+    @Override
+    public SpiRoutes.Entry entry() {
+      return null;
+    }
+
+    @Override
+    public String pathParam(String name) {
+      return null;
+    }
+
+    @Override
+    public Map<String, String> pathParams() {
+      return Map.of();
+    }
+  }
+
+  /**
+   * A matching catch-all with its captured segment offsets.
+   */
+  private record CatchAllMatch(CatchAll catchAll, int[] offsets) {
+
+    RouteEntry entry() {
+      return catchAll.entry;
+    }
+  }
+
+  /**
+   * Open addressing hash table of literal segments that is probed using a region of the request
+   * path, avoiding substring allocation.
+   */
+  private static final class Literals {
+
+    private final String[] keys;
+    private final Node[] nodes;
+    private final int mask;
+
+    Literals(Map<String, Node> map) {
+      final int capacity = Integer.highestOneBit(map.size() * 2) << 1;
+      this.keys = new String[capacity];
+      this.nodes = new Node[capacity];
+      this.mask = capacity - 1;
+      map.forEach((key, node) -> {
+        int i = hash(key, 0, key.length()) & mask;
+        while (keys[i] != null) {
+          i = (i + 1) & mask;
+        }
+        keys[i] = key;
+        nodes[i] = node;
+      });
+    }
+
+    Node get(String path, int from, int to) {
+      final int len = to - from;
+      int i = hash(path, from, to) & mask;
+      String key;
+      while ((key = keys[i]) != null) {
+        if (key.length() == len && path.regionMatches(from, key, 0, len)) {
+          return nodes[i];
+        }
+        i = (i + 1) & mask;
+      }
+      return null;
+    }
+
+    private static int hash(String s, int from, int to) {
+      int h = 0;
+      for (int i = from; i < to; i++) {
+        h = 31 * h + s.charAt(i);
+      }
+      return h ^ (h >>> 16);
+    }
+  }
+}
@@ -0,0 +1,125 @@
+package io.avaje.jex.routes;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import io.avaje.jex.Routing;
+import io.avaje.jex.http.ExchangeHandler;
+
+/**
+ * Build the RouteTrie for the routes of all http methods.
+ */
+final class RouteTrieBuild {
+
+  private final boolean ignoreTrailingSlashes;
+
+  /**
+   * Entries by method and match path in registration order.
+   */
+  private final Map<String, List<RouteEntry>> pathMap = new LinkedHashMap<>();
+
+  RouteTrieBuild(boolean ignoreTrailingSlashes) {
+    this.ignoreTrailingSlashes = ignoreTrailingSlashes;
+  }
+
+  void add(RouteEntry entry) {
+    pathMap.computeIfAbsent(entry.type() + " " + entry.matchPath(), k -> new ArrayList<>(2)).add(entry);
+  }
+
+  /**
+   * Build and return the RouteTrie.
+   */
+  RouteTrie build() {
+    final var root = new RouteTrie.Node();
+    final Map<String, RouteEntry[]> exactMap = HashMap.newHashMap(pathMap.size() * 2);
+    final List<RouteEntry> entries = new ArrayList<>(pathMap.size());
+    boolean hasCatchAll = false;
+    int order = 0;
+    for (List<RouteEntry> pathList : pathMap.values()) {
+      final RouteEntry entry = merge(pathList);
+      entries.add(entry);
+      hasCatchAll |= insert(root, entry, order++);
+      addExact(exactMap, entry);
+    }
+    root.compile();
+    return new RouteTrie(root, exactMap, ignoreTrailingSlashes, hasCatchAll, entries);
+  }
+
+  private static RouteEntry merge(List<RouteEntry> pathList) {
+    if (pathList.size() == 1) {
+      return pathList.getFirst();
+    }
+    ExchangeHandler[] handlers = pathList.stream()
+      .map(SpiRoutes.Entry::handler)
+      .toList()
+      .toArray(new ExchangeHandler[0]);
+    return pathList.getFirst().multiHandler(handlers);
+  }
+
+  /**
+   * Add a fully literal route to the exact match map, first registered wins.
+   */
+  private void addExact(Map<String, RouteEntry[]> exactMap, RouteEntry entry) {
+    final PathParser parser = entry.path();
+    final var path = new StringBuilder();
+    for (PathSegment segment : parser.segments()) {
+      if (!(segment instanceof PathSegment.Literal literal)) {
+        return;
+      }
+      path.append('/').append(literal.content());
+    }
+    if (path.isEmpty()) {
+      putExact(exactMap, "/", entry);
+      return;
+    }
+    if (!parser.trailingSlash()) {
+      putExact(exactMap, path.toString(), entry);
+    }
+    if (parser.trailingSlash() || ignoreTrailingSlashes) {
+      putExact(exactMap, path.append('/').toString(), entry);
+    }
+  }
+
+  private static void putExact(Map<String, RouteEntry[]> exactMap, String path, RouteEntry entry) {
+    final RouteEntry[] entries = exactMap.computeIfAbsent(path, k -> new RouteEntry[Routing.Type.values().length]);
+    final int method = entry.type().ordinal();
+    if (entries[method] == null) {
+      entries[method] = entry;
+    }
+  }
+
+  /**
+   * Insert the entry into the trie returning true if it was added as a catch-all.
+   */
+  private static boolean insert(RouteTrie.Node root, RouteEntry entry, int order) {
+    final PathParser parser = entry.path();
+    final List<PathSegment> segments = parser.segments();
+    RouteTrie.Node node = root;
+    for (int i = 0; i < segments.size(); i++) {
+      final PathSegment segment = segments.get(i);
+      if (segment.multiSlash()) {
+        final boolean terminal = i == segments.size() - 1 && !parser.trailingSlash();
+        node.catchAll(new RouteTrie.CatchAll(order, catchAllType(segment, terminal), entry));
+        return true;
+      }
+      node = node.child(segment);
+    }
+    node.entry(entry, parser.trailingSlash() && !segments.isEmpty());
+    return false;
+  }
+
+  private static RouteTrie.CatchAll.Type catchAllType(PathSegment segment, boolean terminal) {
+    if (terminal) {
+      if (segment instanceof PathSegment.Wildcard) {
+        return RouteTrie.CatchAll.Type.WILDCARD;
+      }
+      if (segment instanceof PathSegment.SlashAcceptingParameter && segment.plainParameter()) {
+        return RouteTrie.CatchAll.Type.PARAM;
+      }
+    }
+    return RouteTrie.CatchAll.Type.REGEX;
+  }
+}
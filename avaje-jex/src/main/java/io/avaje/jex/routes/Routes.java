@@ -1,39 +1,63 @@
 package io.avaje.jex.routes;
 
 import java.lang.System.Logger.Level;
-import java.util.EnumMap;
-import java.util.List;
+import java.time.Duration;
 import java.util.concurrent.atomic.LongAdder;
 import java.util.concurrent.locks.LockSupport;
 
 import io.avaje.applog.AppLog;
 import io.avaje.jex.Routing;
-import io.avaje.jex.http.HttpFilter;
 
 final class Routes implements SpiRoutes {
 
   private static final System.Logger log = AppLog.getLogger("io.avaje.jex");
 
   /**
-   * The "real" handlers by http method.
+   * The "real" handlers for all http methods.
    */
-  private final EnumMap<Routing.Type, RouteIndex> typeMap;
+  private final RouteTrie routeTrie;
+
+  private final LongAdder noRouteCounter = new LongAdder();
 
   /**
-   * The filters.
+   * Background thread re-ordering routes by hit count (null when not enabled).
    */
-  private final List<HttpFilter> filters;
+  private final Thread reorderThread;
 
-  private final LongAdder noRouteCounter = new LongAdder();
+  private volatile boolean stopping;
+
+  Routes(RouteTrie routeTrie, Duration reorderInterval) {
+    this.routeTrie = routeTrie;
+    this.reorderThread = reorderInterval == null ? null : startReorder(reorderInterval.toNanos());
+  }
 
-  Routes(EnumMap<Routing.Type, RouteIndex> typeMap, List<HttpFilter> filters) {
-    this.typeMap = typeMap;
-    this.filters = filters;
+  private Thread startReorder(long intervalNanos) {
+    return Thread.ofVirtual()
+      .name("jex-route-reorder")
+      .start(() -> {
+        while (!stopping) {
+          LockSupport.parkNanos(intervalNanos);
+          if (!stopping) {
+            reorder();
+          }
+        }
+      });
+  }
+
+  /**
+   * Re-order the parameter routes by hit count.
+   */
+  void reorder() {
+    try {
+      routeTrie.reorder();
+    } catch (RuntimeException e) {
+      log.log(Level.WARNING, "Error re-ordering routes", e);
+    }
   }
 
   @Override
   public String toString() {
-    return "Routes{" + typeMap + ", filters=" + filters + '}';
+    return "Routes{" + routeTrie + '}';
   }
 
   @Override
@@ -48,11 +72,7 @@ final class Routes implements SpiRoutes {
 
   @Override
   public long activeRequests() {
-    long total = noRouteCounter.sum();
-    for (RouteIndex value : typeMap.values()) {
-      total += value.activeRequests();
-    }
-    return total;
+    return noRouteCounter.sum() + routeTrie.activeRequests();
   }
 
   @Override
@@ -65,6 +85,14 @@ final class Routes implements SpiRoutes {
     }
   }
 
+  @Override
+  public void stop() {
+    if (reorderThread != null) {
+      stopping = true;
+      LockSupport.unpark(reorderThread);
+    }
+  }
+
   private boolean maxWaitAttempts(final long maxAttempts) {
     long attempts = 0;
     while ((activeRequests()) > 0 && ++attempts < maxAttempts) {
@@ -78,13 +106,7 @@ final class Routes implements SpiRoutes {
   }
 
   @Override
-  public Entry match(Routing.Type type, String pathInfo) {
-    var routeIndex = typeMap.get(type);
-    return routeIndex == null ? null : routeIndex.match(pathInfo);
-  }
-
-  @Override
-  public List<HttpFilter> filters() {
-    return filters;
+  public Match match(Routing.Type type, String pathInfo) {
+    return routeTrie.match(type, pathInfo);
   }
 }
@@ -1,38 +1,78 @@
 package io.avaje.jex.routes;
 
-import java.util.EnumMap;
-import java.util.LinkedHashMap;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 import io.avaje.jex.JexConfig;
 import io.avaje.jex.Routing;
 import io.avaje.jex.http.HttpFilter;
+import io.avaje.jex.metrics.RouteMetrics;
+import io.avaje.jex.metrics.RouteRecorder;
 
 public final class RoutesBuilder {
 
-  private final EnumMap<Routing.Type, RouteIndex> typeMap = new EnumMap<>(Routing.Type.class);
+  private final RouteTrie routeTrie;
   private final boolean ignoreTrailingSlashes;
   private final List<HttpFilter> filters;
   private final String contextPath;
+  private final Duration reorderInterval;
+  private final RouteMetrics metrics;
+  private final Map<String, RouteRecorder> recorders = new HashMap<>();
 
   public RoutesBuilder(Routing routing, JexConfig config) {
     this.ignoreTrailingSlashes = config.ignoreTrailingSlashes();
-    final var buildMap = new LinkedHashMap<Routing.Type, RouteIndexBuild>();
+    this.reorderInterval = config.routeReorderInterval();
+    this.metrics = config.routeMetrics();
     this.contextPath = config.contextPath().transform(s -> "/".equals(s) ? "" : s);
+    this.filters = List.copyOf(routing.filters());
+    final var trieBuild = new RouteTrieBuild(ignoreTrailingSlashes);
     for (var handler : routing.handlers()) {
-      buildMap.computeIfAbsent(handler.getType(), h -> new RouteIndexBuild()).add(convert(handler));
+      trieBuild.add(convert(handler));
     }
-    buildMap.forEach((key, value) -> typeMap.put(key, value.build()));
-    filters = List.copyOf(routing.filters());
+    this.routeTrie = trieBuild.build();
   }
 
-  private SpiRoutes.Entry convert(Routing.Entry handler) {
-    final PathParser pathParser =
-        new PathParser(contextPath + handler.getPath(), ignoreTrailingSlashes);
-    return new RouteEntry(pathParser, handler.getHandler(), handler.getRoles());
+  private RouteEntry convert(Routing.Entry handler) {
+    final String fullPath = contextPath + handler.getPath();
+    final PathParser pathParser = new PathParser(fullPath, ignoreTrailingSlashes);
+    final HttpFilter[] routeFilters = filtersFor(handler.getType(), fullPath);
+    return new RouteEntry(
+        handler.getType(),
+        pathParser,
+        handler.getHandler(),
+        routeFilters,
+        handler.getRoles(),
+        recorder(handler.getType(), pathParser.raw()),
+        reorderInterval != null);
+  }
+
+  /**
+   * Return the metrics recorder for the route, shared by entries with the same method and path.
+   */
+  private RouteRecorder recorder(Routing.Type type, String path) {
+    if (metrics == null) {
+      return null;
+    }
+    return recorders.computeIfAbsent(type + " " + path, k -> metrics.register(type, path));
+  }
+
+  /**
+   * Return the filters that apply to the route, scoped filters only when their scope matches.
+   */
+  private HttpFilter[] filtersFor(Routing.Type type, String path) {
+    final var routeFilters = new ArrayList<HttpFilter>(filters.size());
+    for (var filter : filters) {
+      if (!(filter instanceof Routing.ScopedFilter scoped) || scoped.appliesTo(type, path)) {
+        routeFilters.add(filter);
+      }
+    }
+    return routeFilters.toArray(new HttpFilter[0]);
   }
 
   public SpiRoutes build() {
-    return new Routes(typeMap, filters);
+    return new Routes(routeTrie, reorderInterval);
   }
 }
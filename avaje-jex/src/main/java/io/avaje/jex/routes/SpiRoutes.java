@@ -1,12 +1,12 @@
 package io.avaje.jex.routes;
 
-import java.util.List;
 import java.util.Map;
 import java.util.Set;
 
 import io.avaje.jex.Routing;
 import io.avaje.jex.http.ExchangeHandler;
 import io.avaje.jex.http.HttpFilter;
+import io.avaje.jex.metrics.RouteRecorder;
 import io.avaje.jex.security.Role;
 
 /**
@@ -15,9 +15,12 @@ import io.avaje.jex.security.Role;
 public sealed interface SpiRoutes permits Routes {
 
   /**
-   * Find the matching handler entry given the type and request URI.
+   * Find the matching route given the type and request URI.
+   *
+   * <p>When the path only matches routes of other methods the returned match has a null entry and
+   * the allowed methods. Returns null when the path matches no routes.
    */
-  Entry match(Routing.Type type, String pathInfo);
+  Match match(Routing.Type type, String pathInfo);
 
   /**
    * Increment active request count for no route match.
@@ -40,9 +43,9 @@ public sealed interface SpiRoutes permits Routes {
   void waitForIdle(long maxSeconds);
 
   /**
-   * Get filters
+   * Stop background work such as the re-ordering of routes.
    */
-  List<HttpFilter> filters();
+  void stop();
 
   /**
    * A route entry.
@@ -60,9 +63,19 @@ public sealed interface SpiRoutes permits Routes {
     ExchangeHandler handler();
 
     /**
-     * Return the path parameter map given the uri.
+     * Return the filters that apply to the route in registration order.
      */
-    Map<String, String> pathParams(String uri);
+    HttpFilter[] filters();
+
+    /**
+     * Return the recorder for the route metrics (null when not recording).
+     */
+    RouteRecorder recorder();
+
+    /**
+     * Return the http method of the route.
+     */
+    Routing.Type type();
 
     /**
      * Return the raw path expression.
@@ -99,6 +112,12 @@ public sealed interface SpiRoutes permits Routes {
      */
     long activeRequests();
 
+    /**
+     * Return the total number of requests matched to the route, counted only when routes are
+     * re-ordered by hits.
+     */
+    long hits();
+
     /** Return the authentication roles for the route. */
     Set<Role> roles();
 
@@ -106,4 +125,34 @@ public sealed interface SpiRoutes permits Routes {
     Entry multiHandler(ExchangeHandler[] handlers);
   }
 
+  /**
+   * The result of matching a request path to a route entry.
+   *
+   * <p>Path parameters are held as offsets into the request path and are only sliced and decoded
+   * when read.
+   */
+  interface Match {
+
+    /**
+     * Return the matched route entry, null when the path only matches routes of other methods.
+     */
+    Entry entry();
+
+    /**
+     * Return the methods with routes matching the path when there is no entry for the request
+     * method (otherwise empty).
+     */
+    Set<Routing.Type> allowedMethods();
+
+    /**
+     * Return the decoded path parameter with the given name (or null).
+     */
+    String pathParam(String name);
+
+    /**
+     * Return all the decoded path parameters.
+     */
+    Map<String, String> pathParams();
+  }
+
 }
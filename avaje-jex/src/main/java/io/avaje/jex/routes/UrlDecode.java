@@ -12,6 +12,10 @@ public final class UrlDecode {
   }
 
   public static String decodeRFC3986(String s, Charset charset) {
+    if (s.indexOf('%') == -1) {
+      // nothing to decode ('+' is not decoded to a space)
+      return s;
+    }
     if (s.indexOf('+') == -1) {
       return URLDecoder.decode(s, charset);
     }
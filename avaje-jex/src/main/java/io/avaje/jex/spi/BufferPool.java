@@ -0,0 +1,65 @@
+package io.avaje.jex.spi;
+
+/**
+ * Pool of byte arrays used to buffer response content.
+ *
+ * <p>Implementations must be thread safe and should not block or pin virtual threads.
+ *
+ * <pre>{@code
+ *   Jex.create()
+ *     .config(c -> c.bufferPool(BufferPool.create(16 * 1024)))
+ *     ...
+ * }</pre>
+ */
+public interface BufferPool {
+
+  /**
+   * Create a striped pool with power of 2 size classes from 256 bytes up to 64KB.
+   */
+  static BufferPool create() {
+    return new DBufferPool(64 * 1024);
+  }
+
+  /**
+   * Create a striped pool with power of 2 size classes from 256 bytes up to the given size.
+   *
+   * @param maxPooledSize The largest buffer size that is pooled.
+   */
+  static BufferPool create(int maxPooledSize) {
+    return new DBufferPool(maxPooledSize);
+  }
+
+  /**
+   * Return a pool that allocates a new buffer for each use (still recording stats).
+   */
+  static BufferPool unpooled() {
+    return new DBufferPool(0);
+  }
+
+  /**
+   * Return a buffer with a length of at least the given size.
+   *
+   * @param minSize The minimum length of the buffer.
+   */
+  byte[] acquire(int minSize);
+
+  /**
+   * Return a buffer to the pool. The buffer must not be used after it is released.
+   *
+   * @param buffer A buffer obtained from {@link #acquire(int)}.
+   */
+  void release(byte[] buffer);
+
+  /** Return the allocation metrics of the pool. */
+  Stats stats();
+
+  /**
+   * Buffer pool allocation metrics.
+   *
+   * @param acquired The number of buffers acquired.
+   * @param allocated The number of buffers allocated as no pooled buffer was available.
+   * @param released The number of buffers released.
+   * @param discarded The number of released buffers not pooled (pool full or not a size class).
+   */
+  record Stats(long acquired, long allocated, long released, long discarded) {}
+}
@@ -0,0 +1,25 @@
+package io.avaje.jex.spi;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+/**
+ * Implemented by the response body {@code OutputStream} of server providers that can write NIO
+ * buffers without first copying them into a heap byte array.
+ *
+ * <p>When the stream returned by {@code HttpExchange.getResponseBody()} implements this interface
+ * {@code Context.write(ByteBuffer[])} hands the buffers to it, otherwise the buffers are copied
+ * to the stream.
+ */
+public interface ByteBufferWriter {
+
+  /**
+   * Write the remaining bytes of the buffers, advancing the position of each buffer to its limit.
+   *
+   * <p>The buffers are not modified by the caller after this call so implementations may retain
+   * them until they are written.
+   *
+   * @param buffers The buffers to write in order.
+   */
+  void write(ByteBuffer[] buffers) throws IOException;
+}
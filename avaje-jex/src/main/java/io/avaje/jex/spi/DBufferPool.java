@@ -0,0 +1,95 @@
+package io.avaje.jex.spi;
+
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Striped pool of power of 2 sized buffers using lock-free slots.
+ *
+ * <p>Stripes are selected by thread id so platform threads reuse their own stripe and virtual
+ * threads spread across the stripes without pinning.
+ */
+final class DBufferPool implements BufferPool {
+
+  private static final int MIN_SHIFT = 8;
+  private static final int MIN_SIZE = 1 << MIN_SHIFT;
+  private static final int SLOTS = 4;
+
+  private final int classes;
+  private final int stripeMask;
+  private final AtomicReferenceArray<byte[]>[] stripes;
+  private final LongAdder acquired = new LongAdder();
+  private final LongAdder allocated = new LongAdder();
+  private final LongAdder released = new LongAdder();
+  private final LongAdder discarded = new LongAdder();
+
+  @SuppressWarnings("unchecked")
+  DBufferPool(int maxPooledSize) {
+    this.classes = maxPooledSize < MIN_SIZE ? 0 : log2(maxPooledSize) - MIN_SHIFT + 1;
+    final int stripeCount = Integer.highestOneBit(Runtime.getRuntime().availableProcessors() * 2 - 1);
+    this.stripeMask = stripeCount - 1;
+    this.stripes = new AtomicReferenceArray[stripeCount];
+    for (int i = 0; i < stripeCount; i++) {
+      stripes[i] = new AtomicReferenceArray<>(classes * SLOTS);
+    }
+  }
+
+  private static int log2(int value) {
+    return 31 - Integer.numberOfLeadingZeros(value);
+  }
+
+  /**
+   * Return the size class for a buffer of at least the given size.
+   */
+  static int sizeClass(int size) {
+    return size <= MIN_SIZE ? 0 : 32 - Integer.numberOfLeadingZeros(size - 1) - MIN_SHIFT;
+  }
+
+  private AtomicReferenceArray<byte[]> stripe() {
+    return stripes[(int) Thread.currentThread().threadId() & stripeMask];
+  }
+
+  @Override
+  public byte[] acquire(int minSize) {
+    acquired.increment();
+    final int sizeClass = sizeClass(minSize);
+    if (sizeClass >= classes) {
+      allocated.increment();
+      return new byte[minSize];
+    }
+    final var slots = stripe();
+    final int base = sizeClass * SLOTS;
+    for (int i = base; i < base + SLOTS; i++) {
+      final byte[] buffer = slots.get(i);
+      if (buffer != null && slots.compareAndSet(i, buffer, null)) {
+        return buffer;
+      }
+    }
+    allocated.increment();
+    return new byte[MIN_SIZE << sizeClass];
+  }
+
+  @Override
+  public void release(byte[] buffer) {
+    released.increment();
+    final int length = buffer.length;
+    if (length >= MIN_SIZE && Integer.bitCount(length) == 1) {
+      final int sizeClass = log2(length) - MIN_SHIFT;
+      if (sizeClass < classes) {
+        final var slots = stripe();
+        final int base = sizeClass * SLOTS;
+        for (int i = base; i < base + SLOTS; i++) {
+          if (slots.get(i) == null && slots.compareAndSet(i, null, buffer)) {
+            return;
+          }
+        }
+      }
+    }
+    discarded.increment();
+  }
+
+  @Override
+  public Stats stats() {
+    return new Stats(acquired.sum(), allocated.sum(), released.sum(), discarded.sum());
+  }
+}
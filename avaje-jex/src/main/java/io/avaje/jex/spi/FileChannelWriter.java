@@ -0,0 +1,25 @@
+package io.avaje.jex.spi;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+
+/**
+ * Implemented by the response body {@code OutputStream} of server providers that can transfer
+ * file content to the connection without copying it through the heap, typically using {@link
+ * FileChannel#transferTo(long, long, java.nio.channels.WritableByteChannel)}.
+ *
+ * <p>When the stream returned by {@code HttpExchange.getResponseBody()} implements this interface
+ * {@code Context.sendFile()} hands the file to it, otherwise the file is copied to the stream.
+ */
+public interface FileChannelWriter {
+
+  /**
+   * Write count bytes of the file starting at the given position, returning when they have been
+   * written.
+   *
+   * @param file The file to write from.
+   * @param position The position in the file to start from.
+   * @param count The number of bytes to write.
+   */
+  void transferFrom(FileChannel file, long position, long count) throws IOException;
+}
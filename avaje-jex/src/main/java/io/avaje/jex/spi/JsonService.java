@@ -1,5 +1,6 @@
 package io.avaje.jex.spi;
 
+import java.io.ByteArrayInputStream;
 import java.io.InputStream;
 import java.io.OutputStream;
 import java.lang.reflect.Type;
@@ -12,6 +13,50 @@ import java.util.Iterator;
  */
 public non-sealed interface JsonService extends JexExtension {
 
+  /**
+   * Writes beans of a type that was resolved once, see {@link #writer(Type)}.
+   *
+   * @param <T> the bean type
+   */
+  @FunctionalInterface
+  interface Writer<T> {
+
+    /**
+     * Serializes the bean writing the JSON to the output stream, closing it once written.
+     *
+     * @param bean the bean to be serialized
+     * @param os the output stream to write the JSON data to
+     */
+    void toJson(T bean, OutputStream os);
+  }
+
+  /**
+   * Reads beans of a type that was resolved once, see {@link #reader(Type)}.
+   *
+   * @param <T> the bean type
+   */
+  @FunctionalInterface
+  interface Reader<T> {
+
+    /**
+     * Deserializes the json input stream.
+     *
+     * @param is the input stream containing the JSON data
+     * @return the deserialized object
+     */
+    T fromJson(InputStream is);
+
+    /**
+     * Deserializes the json byte[].
+     *
+     * @param data the byte[] containing the JSON data
+     * @return the deserialized object
+     */
+    default T fromJson(byte[] data) {
+      return fromJson(new ByteArrayInputStream(data));
+    }
+  }
+
   /**
    * Serializes a Java object into JSON format and writes the resulting JSON to the specified
    * output stream.
@@ -66,4 +111,36 @@ public non-sealed interface JsonService extends JexExtension {
   default <E> void toJsonStream(Iterator<E> iterator, OutputStream os) {
     throw new UnsupportedOperationException("toJsonStream is unimplemented in this JsonService");
   }
+
+  /**
+   * Return a writer for beans of the given type. The type is resolved once so a route can hold
+   * the writer rather than resolving the type of the bean per request.
+   *
+   * @param type the type of the beans to write
+   * @return the writer for the type
+   */
+  default <T> Writer<T> writer(Type type) {
+    return this::toJson;
+  }
+
+  /**
+   * Return a reader for beans of the given type. The type is resolved once so a route can hold
+   * the reader rather than resolving the type per request.
+   *
+   * @param type the type of the beans to read
+   * @return the reader for the type
+   */
+  default <T> Reader<T> reader(Type type) {
+    return new Reader<>() {
+      @Override
+      public T fromJson(InputStream is) {
+        return JsonService.this.fromJson(type, is);
+      }
+
+      @Override
+      public T fromJson(byte[] data) {
+        return JsonService.this.fromJson(type, data);
+      }
+    };
+  }
 }
@@ -25,6 +25,7 @@ module io.avaje.jex {
   exports io.avaje.jex.http.sse;
   exports io.avaje.jex.core to io.avaje.jex.staticcontent, io.avaje.jex.http3.flupke;
   exports io.avaje.jex.core.json;
+  exports io.avaje.jex.metrics;
   exports io.avaje.jex.security;
   exports io.avaje.jex.spi;
 
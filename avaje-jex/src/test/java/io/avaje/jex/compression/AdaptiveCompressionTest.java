@@ -0,0 +1,125 @@
+package io.avaje.jex.compression;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.IOException;
+import java.net.http.HttpResponse;
+import java.util.Random;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+
+import io.avaje.jex.Jex;
+import io.avaje.jex.core.Constants;
+import io.avaje.jex.core.TestPair;
+import io.avaje.jex.http.ContentType;
+import io.avaje.jex.http.Context;
+
+class AdaptiveCompressionTest {
+
+  static final byte[] RANDOM = random();
+  static final String TEXT = "{\"id\":42,\"name\":\"adaptive\"}".repeat(500);
+
+  static CompressionConfig compression;
+  static TestPair pair = init();
+
+  static byte[] random() {
+    final byte[] bytes = new byte[16_000];
+    new Random(42).nextBytes(bytes);
+    return bytes;
+  }
+
+  static TestPair init() {
+    final Jex app =
+        Jex.create()
+            .config(c -> compression = c.compression().adaptive(0.9).latencyCritical("/critical"))
+            .get("/text", ctx -> write(ctx, TEXT.getBytes()))
+            .get("/random", ctx -> write(ctx, RANDOM))
+            .get("/critical", ctx -> write(ctx, TEXT.getBytes()));
+
+    return TestPair.create(app);
+  }
+
+  /** Write via the output stream which is compressed, unlike byte array writes. */
+  static void write(Context ctx, byte[] content) throws IOException {
+    try (var os = ctx.contentType(ContentType.APPLICATION_JSON).outputStream()) {
+      os.write(content);
+    }
+  }
+
+  @AfterAll
+  static void end() {
+    pair.close();
+  }
+
+  static HttpResponse<byte[]> get(String path) {
+    return pair.request()
+        .header(Constants.ACCEPT_ENCODING, "gzip")
+        .path(path)
+        .GET()
+        .asByteArray();
+  }
+
+  @Test
+  void compressible() {
+    var res = get("text");
+    assertThat(res.statusCode()).isEqualTo(200);
+    assertThat(res.headers().firstValue(Constants.CONTENT_ENCODING)).contains("gzip");
+  }
+
+  @Test
+  void incompressible_skipped() {
+    for (int i = 0; i < 12; i++) {
+      var res = get("random");
+      assertThat(res.headers().firstValue(Constants.CONTENT_ENCODING)).isEmpty();
+      assertThat(res.body()).isEqualTo(RANDOM);
+    }
+    var metric =
+        compression.metrics().stream()
+            .filter(m -> "/random".equals(m.path()))
+            .findFirst()
+            .orElseThrow();
+    assertThat(metric.skipped()).isEqualTo(12);
+    assertThat(metric.compressed()).isZero();
+  }
+
+  @Test
+  void latencyCritical_notCompressed() {
+    var res = get("critical");
+    assertThat(res.headers().firstValue(Constants.CONTENT_ENCODING)).isEmpty();
+    assertThat(new String(res.body())).isEqualTo(TEXT);
+  }
+
+  @Test
+  void metrics_achievedRatio() {
+    get("text");
+    var metric =
+        compression.metrics().stream()
+            .filter(m -> "/text".equals(m.path()))
+            .findFirst()
+            .orElseThrow();
+    assertThat(metric.method()).isEqualTo("GET");
+    assertThat(metric.compressed()).isGreaterThan(0);
+    assertThat(metric.bytesIn()).isGreaterThanOrEqualTo(TEXT.length());
+    assertThat(metric.ratio()).isLessThan(0.1);
+  }
+
+  @Test
+  void metrics_routesBounded() {
+    var adaptive = new AdaptiveCompression(0.9);
+    for (int i = 0; i < AdaptiveCompression.MAX_ROUTES; i++) {
+      adaptive.stats("GET", "/missing-" + i);
+    }
+    var other = adaptive.stats("GET", "/missing-" + AdaptiveCompression.MAX_ROUTES);
+    assertThat(adaptive.stats("PUT", "/another")).isSameAs(other);
+    assertThat(adaptive.stats("GET", "/missing-0")).isNotSameAs(other);
+    assertThat(adaptive.snapshot()).hasSize(AdaptiveCompression.MAX_ROUTES + 1);
+  }
+
+  @Test
+  void invalidRatio() {
+    assertThatThrownBy(() -> new CompressionConfig().adaptive(1.5))
+        .isInstanceOf(IllegalArgumentException.class);
+  }
+}
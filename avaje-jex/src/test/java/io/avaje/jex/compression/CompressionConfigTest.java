@@ -102,4 +102,66 @@ class CompressionConfigTest {
     var match = config.findMatchingCompressor(List.of("gzip, br, zstd"));
     assertThat(match).map(Compressor::encoding).contains("zstd");
   }
+
+  @Test
+  void explicitQBeatsWildcard() {
+    var config = new CompressionConfig().compressor(ZSTD);
+    // zstd is explicitly less preferred than the wildcard that gzip matches
+    var match = config.findMatchingCompressor(List.of("zstd;q=0.2, *;q=0.8"));
+    assertThat(match).map(Compressor::encoding).contains("gzip");
+  }
+
+  @Test
+  void qZeroNotOverriddenByWildcard() {
+    var config = new CompressionConfig();
+    var match = config.findMatchingCompressor(List.of("gzip;q=0, *"));
+    assertThat(match).isEmpty();
+  }
+
+  @Test
+  void whitespaceCaseAndParams() {
+    var config = new CompressionConfig().compressor(ZSTD);
+    var match = config.findMatchingCompressor(List.of(" GZIP ; q=0.9 ,zstd;level=1; q = 1, br"));
+    // invalid q parameter on zstd is ignored, treating it as q=1
+    assertThat(match).map(Compressor::encoding).contains("zstd");
+    assertThat(config.findMatchingCompressor(List.of("zstd;q=0.50, GZip;q=0.6")))
+        .map(Compressor::encoding)
+        .contains("gzip");
+  }
+
+  @Test
+  void cachedResultUpdatedWhenCompressorsChange() {
+    var config = new CompressionConfig();
+    var header = List.of("gzip, br");
+    assertThat(config.findMatchingCompressor(header)).map(Compressor::encoding).contains("gzip");
+    assertThat(config.findMatchingCompressor(header)).map(Compressor::encoding).contains("gzip");
+
+    config.compressor(BR);
+    assertThat(config.findMatchingCompressor(header)).map(Compressor::encoding).contains("br");
+  }
+
+  @Test
+  void negotiatedCache_floodOfDistinctValues() {
+    var config = new CompressionConfig();
+    var common = List.of("gzip, deflate, br");
+    config.findMatchingCompressor(common);
+    for (int i = 0; i < 1_000; i++) {
+      config.findMatchingCompressor(List.of("gzip, x-junk-" + i));
+      if (i % 10 == 0) {
+        config.findMatchingCompressor(common);
+      }
+    }
+    // frequently sent values stay cached and new values are still cached after the flood
+    assertThat(config.isNegotiated("gzip, deflate, br")).isTrue();
+    config.findMatchingCompressor(List.of("gzip, zstd"));
+    assertThat(config.isNegotiated("gzip, zstd")).isTrue();
+    assertThat(config.isNegotiated("gzip, x-junk-0")).isFalse();
+  }
+
+  @Test
+  void findMatchingEncoding() {
+    var match = CompressionConfig.findMatchingEncoding(List.of("gzip;q=0.5, br"), List.of("gzip", "br"));
+    assertThat(match).contains("br");
+    assertThat(CompressionConfig.findMatchingEncoding(null, List.of("gzip"))).isEmpty();
+  }
 }
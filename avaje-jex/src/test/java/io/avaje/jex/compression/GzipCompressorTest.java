@@ -0,0 +1,83 @@
+package io.avaje.jex.compression;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.GZIPInputStream;
+
+import org.junit.jupiter.api.Test;
+
+class GzipCompressorTest {
+
+  static final byte[] CONTENT =
+      "{\"id\":42,\"name\":\"gzip\"}".repeat(1000).getBytes(StandardCharsets.UTF_8);
+
+  static byte[] compress(GzipCompressor compressor, byte[] content) throws IOException {
+    var out = new ByteArrayOutputStream();
+    try (OutputStream os = compressor.compress(out)) {
+      os.write(content, 0, 100);
+      os.write(content[100]);
+      os.write(content, 101, content.length - 101);
+    }
+    return out.toByteArray();
+  }
+
+  static byte[] decompress(byte[] compressed) throws IOException {
+    try (var in = new GZIPInputStream(new ByteArrayInputStream(compressed))) {
+      return in.readAllBytes();
+    }
+  }
+
+  @Test
+  void roundTrip() throws IOException {
+    byte[] compressed = compress(new GzipCompressor(), CONTENT);
+    assertThat(compressed.length).isLessThan(CONTENT.length / 10);
+    assertThat(decompress(compressed)).isEqualTo(CONTENT);
+  }
+
+  @Test
+  void roundTrip_empty() throws IOException {
+    var out = new ByteArrayOutputStream();
+    new GzipCompressor().compress(out).close();
+    assertThat(decompress(out.toByteArray())).isEmpty();
+  }
+
+  @Test
+  void deflaterReused() throws IOException {
+    var compressor = new GzipCompressor(3, 1024, false);
+    compress(compressor, CONTENT);
+    int idle = DeflaterPool.idle(3);
+    assertThat(idle).isGreaterThan(0);
+
+    // reused deflaters are reset so subsequent streams are complete and valid
+    assertThat(decompress(compress(compressor, CONTENT))).isEqualTo(CONTENT);
+    assertThat(DeflaterPool.idle(3)).isEqualTo(idle);
+  }
+
+  @Test
+  void syncFlush() throws IOException {
+    var out = new ByteArrayOutputStream();
+    try (OutputStream os = new GzipCompressor(6, 8192, true).compress(out)) {
+      os.write(CONTENT);
+      os.flush();
+      // compressed data is written on flush rather than buffered until finished
+      int flushed = out.size();
+      assertThat(flushed).isGreaterThan(10);
+    }
+    assertThat(decompress(out.toByteArray())).isEqualTo(CONTENT);
+  }
+
+  @Test
+  void closeTwice() throws IOException {
+    var out = new ByteArrayOutputStream();
+    OutputStream os = new GzipCompressor().compress(out);
+    os.write(CONTENT);
+    os.close();
+    os.close();
+    assertThat(decompress(out.toByteArray())).isEqualTo(CONTENT);
+  }
+}
@@ -0,0 +1,55 @@
+package io.avaje.jex.compression;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.net.http.HttpResponse;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+
+import io.avaje.jex.Jex;
+import io.avaje.jex.core.Constants;
+import io.avaje.jex.core.TestPair;
+
+class LatencyCriticalContextPathTest {
+
+  static final String TEXT = "{\"id\":42,\"name\":\"latency\"}".repeat(500);
+
+  static TestPair pair = init();
+
+  static TestPair init() {
+    final Jex app =
+        Jex.create()
+            .config(c -> c.contextPath("/api").compression().latencyCritical("/critical"))
+            .get("/text", ctx -> AdaptiveCompressionTest.write(ctx, TEXT.getBytes()))
+            .get("/critical", ctx -> AdaptiveCompressionTest.write(ctx, TEXT.getBytes()));
+
+    return TestPair.create(app);
+  }
+
+  @AfterAll
+  static void end() {
+    pair.close();
+  }
+
+  static HttpResponse<byte[]> get(String path) {
+    return pair.request()
+        .header(Constants.ACCEPT_ENCODING, "gzip")
+        .path(path)
+        .GET()
+        .asByteArray();
+  }
+
+  @Test
+  void compressed() {
+    var res = get("api/text");
+    assertThat(res.headers().firstValue(Constants.CONTENT_ENCODING)).contains("gzip");
+  }
+
+  @Test
+  void latencyCritical_withContextPath_notCompressed() {
+    var res = get("api/critical");
+    assertThat(res.headers().firstValue(Constants.CONTENT_ENCODING)).isEmpty();
+    assertThat(new String(res.body())).isEqualTo(TEXT);
+  }
+}
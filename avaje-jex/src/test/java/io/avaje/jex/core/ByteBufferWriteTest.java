@@ -0,0 +1,114 @@
+package io.avaje.jex.core;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.http.HttpResponse;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+
+import io.avaje.jex.Jex;
+import io.avaje.jex.spi.ByteBufferWriter;
+
+class ByteBufferWriteTest {
+
+  static final AtomicInteger gathered = new AtomicInteger();
+  static TestPair pair = init();
+
+  static TestPair init() {
+    var app = Jex.create()
+      .routing(routing -> routing
+        .get("/heap", ctx -> ctx.write(ByteBuffer.wrap(bytes("xxhello heapyy"), 2, 10)))
+        .get("/direct", ctx -> ctx.write(direct("hello direct")))
+        .get("/readOnly", ctx -> ctx.write(ByteBuffer.wrap(bytes("hello readOnly")).asReadOnlyBuffer()))
+        .get("/gather", ctx -> ctx.write(new ByteBuffer[] {ByteBuffer.wrap(bytes("hello ")), direct("gather")}))
+        .get("/empty", ctx -> ctx.write(ByteBuffer.allocate(0)))
+        .before("/writer", ctx -> {
+          var exchange = ctx.exchange();
+          exchange.setStreams(null, new GatheringStream(exchange.getResponseBody()));
+        })
+        .get("/writer", ctx -> ctx.write(new ByteBuffer[] {direct("hello "), direct("writer")}))
+      );
+    return TestPair.create(app);
+  }
+
+  static byte[] bytes(String content) {
+    return content.getBytes(StandardCharsets.UTF_8);
+  }
+
+  static ByteBuffer direct(String content) {
+    var bytes = bytes(content);
+    return ByteBuffer.allocateDirect(bytes.length).put(bytes).flip();
+  }
+
+  @AfterAll
+  static void end() {
+    pair.close();
+  }
+
+  @Test
+  void heap() {
+    HttpResponse<String> res = pair.request().path("heap").GET().asString();
+    assertThat(res.statusCode()).isEqualTo(200);
+    assertThat(res.body()).isEqualTo("hello heap");
+    assertThat(res.headers().firstValue("Content-Length")).hasValue("10");
+  }
+
+  @Test
+  void direct() {
+    HttpResponse<String> res = pair.request().path("direct").GET().asString();
+    assertThat(res.body()).isEqualTo("hello direct");
+    assertThat(res.headers().firstValue("Content-Length")).hasValue("12");
+  }
+
+  @Test
+  void readOnly() {
+    HttpResponse<String> res = pair.request().path("readOnly").GET().asString();
+    assertThat(res.body()).isEqualTo("hello readOnly");
+  }
+
+  @Test
+  void gather() {
+    HttpResponse<String> res = pair.request().path("gather").GET().asString();
+    assertThat(res.body()).isEqualTo("hello gather");
+    assertThat(res.headers().firstValue("Content-Length")).hasValue("12");
+  }
+
+  @Test
+  void empty() {
+    HttpResponse<String> res = pair.request().path("empty").GET().asString();
+    assertThat(res.statusCode()).isEqualTo(200);
+    assertThat(res.body()).isEmpty();
+  }
+
+  @Test
+  void byteBufferWriter() {
+    int before = gathered.get();
+    HttpResponse<String> res = pair.request().path("writer").GET().asString();
+    assertThat(res.body()).isEqualTo("hello writer");
+    assertThat(gathered.get()).isEqualTo(before + 1);
+  }
+
+  static final class GatheringStream extends FilterOutputStream implements ByteBufferWriter {
+
+    GatheringStream(OutputStream out) {
+      super(out);
+    }
+
+    @Override
+    public void write(ByteBuffer[] buffers) throws IOException {
+      gathered.incrementAndGet();
+      for (ByteBuffer buffer : buffers) {
+        byte[] bytes = new byte[buffer.remaining()];
+        buffer.get(bytes);
+        out.write(bytes);
+      }
+    }
+  }
+}
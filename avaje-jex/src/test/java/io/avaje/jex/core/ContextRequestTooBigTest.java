@@ -7,6 +7,7 @@ import java.io.OutputStream;
 import java.net.HttpURLConnection;
 import java.net.URI;
 import java.net.http.HttpResponse;
+import java.util.Map;
 
 import org.junit.jupiter.api.AfterAll;
 import org.junit.jupiter.api.Test;
@@ -19,7 +20,11 @@ class ContextRequestTooBigTest {
 
   static TestPair init() {
     final Jex app =
-        Jex.create().config(c -> c.maxRequestSize(5)).post("/", ctx -> ctx.text(ctx.body()));
+        Jex.create()
+            .config(c -> c.maxRequestSize(5))
+            .post("/", ctx -> ctx.text(ctx.body()))
+            .post("/json", ctx -> ctx.text(ctx.bodyStreamAsClass(Map.class) + ""))
+            .post("/jsonBody", ctx -> ctx.text(ctx.bodyAsClass(Map.class) + " " + ctx.body()));
 
     return TestPair.create(app);
   }
@@ -56,4 +61,41 @@ class ContextRequestTooBigTest {
 
     assertThat(connection.getResponseCode()).isEqualTo(413);
   }
+
+  @Test
+  void json_overSized() {
+    HttpResponse<String> res = pair.request().path("json").body("{\"a\":1}").POST().asString();
+    assertThat(res.statusCode()).isEqualTo(413);
+  }
+
+  @Test
+  void json_bodyAvailableAfterBodyAsClass() {
+    HttpResponse<String> res = pair.request().path("jsonBody").body("{}").POST().asString();
+    assertThat(res.statusCode()).isEqualTo(200);
+    assertThat(res.body()).isEqualTo("{} {}");
+  }
+
+  @Test
+  void json_transferEncoding_withinLimit() throws IOException {
+    assertThat(chunkedJson("{}")).isEqualTo(200);
+  }
+
+  @Test
+  void json_transferEncoding_overSized() throws IOException {
+    assertThat(chunkedJson("{\"key\":\"value\"}")).isEqualTo(413);
+  }
+
+  private static int chunkedJson(String json) throws IOException {
+    HttpURLConnection connection =
+        (HttpURLConnection) URI.create(pair.url() + "/json").toURL().openConnection();
+
+    connection.setRequestMethod("POST");
+    connection.setDoOutput(true);
+    connection.setChunkedStreamingMode(2);
+
+    try (OutputStream os = connection.getOutputStream()) {
+      os.write(json.getBytes());
+    }
+    return connection.getResponseCode();
+  }
 }
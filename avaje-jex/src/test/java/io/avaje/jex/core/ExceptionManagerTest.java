@@ -12,6 +12,7 @@ import io.avaje.jex.Jex;
 import io.avaje.jex.http.BadRequestException;
 import io.avaje.jex.http.HttpStatus;
 import io.avaje.jex.http.HttpResponseException;
+import io.avaje.jex.http.NotFoundException;
 import io.avaje.json.JsonException;
 
 class ExceptionManagerTest {
@@ -112,4 +113,28 @@ class ExceptionManagerTest {
     assertThat(res.statusCode()).isEqualTo(500);
     assertThat(res.body()).isEqualTo("Internal Server Error");
   }
+
+  @Test
+  void noRoute_default404() {
+    HttpResponse<String> res = pair.request().path("missing").GET().asString();
+    assertThat(res.statusCode()).isEqualTo(404);
+    assertThat(res.body()).isEqualTo("No route matching http method GET, with path /missing");
+
+    res = pair.request().path("missing").header("Accept", "application/json").GET().asString();
+    assertThat(res.statusCode()).isEqualTo(404);
+    assertThat(res.body())
+        .isEqualTo("{\"title\": No route matching http method GET, with path /missing, \"status\": 404}");
+  }
+
+  @Test
+  void noRoute_notFoundHandler() {
+    var app = Jex.create()
+      .get("/", ctx -> ctx.text("ok"))
+      .error(NotFoundException.class, (ctx, e) -> ctx.status(404).text("custom|" + e.getMessage()));
+    try (var notFoundPair = TestPair.create(app)) {
+      HttpResponse<String> res = notFoundPair.request().path("missing").GET().asString();
+      assertThat(res.statusCode()).isEqualTo(404);
+      assertThat(res.body()).isEqualTo("custom|No route matching http method GET, with path /missing");
+    }
+  }
 }
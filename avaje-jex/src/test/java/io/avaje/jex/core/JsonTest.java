@@ -6,6 +6,7 @@ import static org.assertj.core.api.Assertions.assertThat;
 
 import java.net.http.HttpHeaders;
 import java.net.http.HttpResponse;
+import java.util.Collections;
 import java.util.List;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.locks.LockSupport;
@@ -22,6 +23,7 @@ import org.junit.jupiter.api.Test;
 
 import io.avaje.jex.Jex;
 import io.avaje.jex.core.json.JacksonJsonService;
+import io.avaje.jex.spi.JsonService;
 
 public class JsonTest {
 
@@ -33,6 +35,10 @@ public class JsonTest {
     return new AutoCloseIterator<>(HELLO_BEANS.iterator());
   }
 
+  static final JsonService jsonService = new JacksonJsonService();
+  static final JsonService.Writer<HelloDto> helloWriter = jsonService.writer(HelloDto.class);
+  static final JsonService.Reader<HelloDto> helloReader = jsonService.reader(HelloDto.class);
+
   static final TestPair pair = init();
   static final Jsonb jsonb = Jsonb.builder().build();
   static final JsonType<HelloDto> jsonTypeHelloDto = jsonb.type(HelloDto.class);
@@ -43,7 +49,7 @@ public class JsonTest {
   static TestPair init() {
     Jex app =
         Jex.create()
-            .jsonService(new JacksonJsonService())
+            .jsonService(jsonService)
             .get("/", ctx -> ctx.status(200).json(HelloDto.rob()))
             .post(
                 "/generic",
@@ -68,6 +74,9 @@ public class JsonTest {
               })
             .get("/iterate", ctx -> ctx.jsonStream(ITERATOR))
             .get("/stream", ctx -> ctx.jsonStream(HELLO_BEANS.stream()))
+            .get("/large", ctx -> ctx.json(Collections.nCopies(500, HelloDto.rob())))
+            .get("/handle", ctx -> ctx.json(helloWriter, HelloDto.fi()))
+            .post("/handle", ctx -> ctx.text("bean[" + ctx.bodyAs(helloReader) + "]"))
             .post("/", ctx -> ctx.text("bean[" + ctx.bodyAsClass(HelloDto.class) + "]"));
 
     return TestPair.create(app);
@@ -95,6 +104,24 @@ public class JsonTest {
     assertThat(headers.firstValue("Content-Type").orElseThrow()).isEqualTo("application/json");
   }
 
+  @Test
+  void get_fixedLength() {
+    final HttpResponse<String> hres = pair.request().GET().asString();
+
+    assertThat(hres.statusCode()).isEqualTo(200);
+    assertThat(hres.headers().firstValue("Content-Length"))
+      .hasValue(String.valueOf(hres.body().length()));
+  }
+
+  @Test
+  void get_exceedsJsonBuffer() {
+    final HttpResponse<String> hres = pair.request().path("large").GET().asString();
+
+    assertThat(hres.statusCode()).isEqualTo(200);
+    assertThat(hres.body()).startsWith("[{").endsWith("}]");
+    assertThat(hres.body().split("\"rob\"")).hasSize(501);
+  }
+
   @Test
   void generic() {
     var generic = new Generic<>("stringy");
@@ -203,4 +230,26 @@ public class JsonTest {
     assertThat(res.statusCode()).isEqualTo(200);
   }
 
+  @Test
+  void handle_write() {
+    final HttpResponse<String> hres = pair.request().path("handle").GET().asString();
+    assertThat(hres.headers().firstValue("Content-Type").orElseThrow()).isEqualTo("application/json");
+    assertThat(hres.headers().firstValue("Content-Length"))
+      .hasValue(String.valueOf(hres.body().length()));
+
+    var bean = pair.request().path("handle").GET().bean(HelloDto.class);
+    assertThat(bean.id).isEqualTo(45);
+    assertThat(bean.name).isEqualTo("fi");
+  }
+
+  @Test
+  void handle_read() {
+    HelloDto dto = new HelloDto();
+    dto.id = 42;
+    dto.name = "rob was here";
+
+    var res = pair.request().path("handle").body(dto).POST().asString();
+    assertThat(res.statusCode()).isEqualTo(200);
+    assertThat(res.body()).isEqualTo("bean[id:42 name:rob was here]");
+  }
 }
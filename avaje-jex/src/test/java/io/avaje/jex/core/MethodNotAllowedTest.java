@@ -0,0 +1,86 @@
+package io.avaje.jex.core;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+
+import io.avaje.jex.Jex;
+
+class MethodNotAllowedTest {
+
+  static TestPair pair = init();
+
+  static TestPair init() {
+    final Jex app =
+        Jex.create()
+            .get("/items/{id}", ctx -> ctx.text("get " + ctx.pathParam("id")))
+            .post("/items/new", ctx -> ctx.text("post"))
+            .delete("/items/{id}", ctx -> ctx.status(204))
+            .options("/custom", ctx -> ctx.header("Allow", "custom").status(200).text("options"))
+            .get("/custom", ctx -> ctx.text("custom"));
+
+    return TestPair.create(app);
+  }
+
+  @AfterAll
+  static void end() {
+    pair.close();
+  }
+
+  @Test
+  void get_paramRoute_whenLiteralForOtherMethod() {
+    HttpResponse<String> res = pair.request().path("items/new").GET().asString();
+    assertThat(res.statusCode()).isEqualTo(200);
+    assertThat(res.body()).isEqualTo("get new");
+  }
+
+  @Test
+  void put_405_withAllow() {
+    HttpResponse<String> res = pair.request().path("items/new").PUT().asString();
+    assertThat(res.statusCode()).isEqualTo(405);
+    assertThat(res.headers().firstValue(Constants.ALLOW).orElseThrow()).isEqualTo("GET, POST, DELETE");
+  }
+
+  @Test
+  void post_405_withAllow() {
+    HttpResponse<String> res = pair.request().path("items/42").POST().asString();
+    assertThat(res.statusCode()).isEqualTo(405);
+    assertThat(res.headers().firstValue(Constants.ALLOW).orElseThrow()).isEqualTo("GET, DELETE");
+  }
+
+  @Test
+  void unknownPath_404() {
+    HttpResponse<String> res = pair.request().path("other").PUT().asString();
+    assertThat(res.statusCode()).isEqualTo(404);
+    assertThat(res.body()).isEqualTo("No route matching http method PUT, with path /other");
+  }
+
+  @Test
+  void options_allow() throws Exception {
+    HttpResponse<String> res = options("/items/42");
+    assertThat(res.statusCode()).isEqualTo(204);
+    assertThat(res.headers().firstValue(Constants.ALLOW).orElseThrow()).isEqualTo("GET, DELETE, OPTIONS");
+  }
+
+  @Test
+  void options_route() throws Exception {
+    HttpResponse<String> res = options("/custom");
+    assertThat(res.statusCode()).isEqualTo(200);
+    assertThat(res.body()).isEqualTo("options");
+  }
+
+  private HttpResponse<String> options(String path) throws Exception {
+    try (var client = HttpClient.newHttpClient()) {
+      var request = HttpRequest.newBuilder(URI.create(pair.url() + path))
+        .method("OPTIONS", HttpRequest.BodyPublishers.noBody())
+        .build();
+      return client.send(request, HttpResponse.BodyHandlers.ofString());
+    }
+  }
+}
@@ -0,0 +1,50 @@
+package io.avaje.jex.core;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.net.http.HttpResponse;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+
+import io.avaje.jex.Jex;
+
+class ScopedFilterContextPathTest {
+
+  static final TestPair pair = init();
+
+  static TestPair init() {
+    final Jex app =
+        Jex.create()
+            .config(c -> c.contextPath("/api"))
+            .routing(
+                routing ->
+                    routing
+                        .get("/items", ctx -> ctx.text("items"))
+                        .get("/other", ctx -> ctx.text("other"))
+                        .before("/api/items*", ctx -> ctx.header("before-items", "set"))
+                        .before("/other", ctx -> ctx.header("before-other", "set")));
+
+    return TestPair.create(app);
+  }
+
+  @AfterAll
+  static void end() {
+    pair.close();
+  }
+
+  @Test
+  void matchesPathWithContextPath() {
+    HttpResponse<String> res = pair.request().path("api/items").GET().asString();
+    assertThat(res.body()).isEqualTo("items");
+    assertThat(res.headers().firstValue("before-items")).hasValue("set");
+  }
+
+  @Test
+  void pathWithoutContextPath_notMatched() {
+    HttpResponse<String> res = pair.request().path("api/other").GET().asString();
+    assertThat(res.body()).isEqualTo("other");
+    assertThat(res.headers().firstValue("before-items")).isEmpty();
+    assertThat(res.headers().firstValue("before-other")).isEmpty();
+  }
+}
@@ -0,0 +1,102 @@
+package io.avaje.jex.core;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.net.http.HttpResponse;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+
+import io.avaje.jex.Jex;
+import io.avaje.jex.Routing;
+
+class ScopedFilterTest {
+
+  static final TestPair pair = init();
+
+  static TestPair init() {
+    final Jex app =
+        Jex.create()
+            .routing(
+                routing ->
+                    routing
+                        .get("/one", ctx -> ctx.text("one"))
+                        .get("/api/items", ctx -> ctx.text("items"))
+                        .get("/api/items/{id}", ctx -> ctx.text("item"))
+                        .post("/api/items", ctx -> ctx.text("posted"))
+                        .before(ctx -> ctx.header("before-all", "set"))
+                        .before("/api/*", ctx -> ctx.header("before-api", "set"))
+                        .filter(
+                            "/api/items",
+                            (ctx, chain) -> {
+                              ctx.header("post-items", "set");
+                              chain.proceed();
+                            },
+                            Routing.Type.POST)
+                        .group(
+                            "/grouped",
+                            group ->
+                                group
+                                    .get("/a", ctx -> ctx.text("a"))
+                                    .get("/b", ctx -> ctx.text("b"))
+                                    .before("/a", ctx -> ctx.header("grouped-a", "set"))))
+            .filter(
+                "/one",
+                (ctx, chain) -> {
+                  ctx.header("one", "set");
+                  chain.proceed();
+                });
+
+    return TestPair.create(app);
+  }
+
+  @AfterAll
+  static void end() {
+    pair.close();
+  }
+
+  @Test
+  void unscopedRoute() {
+    HttpResponse<String> res = pair.request().path("one").GET().asString();
+    assertThat(res.body()).isEqualTo("one");
+    assertThat(res.headers().firstValue("before-all")).hasValue("set");
+    assertThat(res.headers().firstValue("one")).hasValue("set");
+    assertThat(res.headers().firstValue("before-api")).isEmpty();
+    assertThat(res.headers().firstValue("post-items")).isEmpty();
+  }
+
+  @Test
+  void prefixScope() {
+    HttpResponse<String> res = pair.request().path("api/items/42").GET().asString();
+    assertThat(res.body()).isEqualTo("item");
+    assertThat(res.headers().firstValue("before-all")).hasValue("set");
+    assertThat(res.headers().firstValue("before-api")).hasValue("set");
+    assertThat(res.headers().firstValue("one")).isEmpty();
+    assertThat(res.headers().firstValue("post-items")).isEmpty();
+  }
+
+  @Test
+  void methodScope() {
+    HttpResponse<String> res = pair.request().path("api/items").GET().asString();
+    assertThat(res.body()).isEqualTo("items");
+    assertThat(res.headers().firstValue("before-api")).hasValue("set");
+    assertThat(res.headers().firstValue("post-items")).isEmpty();
+
+    res = pair.request().path("api/items").body("x").POST().asString();
+    assertThat(res.body()).isEqualTo("posted");
+    assertThat(res.headers().firstValue("before-api")).hasValue("set");
+    assertThat(res.headers().firstValue("post-items")).hasValue("set");
+  }
+
+  @Test
+  void groupScope() {
+    HttpResponse<String> res = pair.request().path("grouped/a").GET().asString();
+    assertThat(res.body()).isEqualTo("a");
+    assertThat(res.headers().firstValue("before-all")).hasValue("set");
+    assertThat(res.headers().firstValue("grouped-a")).hasValue("set");
+
+    res = pair.request().path("grouped/b").GET().asString();
+    assertThat(res.body()).isEqualTo("b");
+    assertThat(res.headers().firstValue("grouped-a")).isEmpty();
+  }
+}
@@ -0,0 +1,139 @@
+package io.avaje.jex.core;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.http.HttpResponse;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+
+import io.avaje.jex.Jex;
+import io.avaje.jex.spi.FileChannelWriter;
+
+class SendFileTest {
+
+  static final String CONTENT = "0123456789".repeat(5000);
+  static final AtomicInteger transfers = new AtomicInteger();
+  static final Path file = createFile();
+  static TestPair pair = init();
+
+  static Path createFile() {
+    try {
+      var path = Files.createTempFile("sendFile", ".txt");
+      path.toFile().deleteOnExit();
+      return Files.writeString(path, CONTENT);
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  static TestPair init() {
+    var app = Jex.create()
+      .routing(routing -> routing
+        .get("/whole", ctx -> ctx.contentType("text/plain").sendFile(file))
+        .get("/part", ctx -> ctx.contentType("text/plain").sendFile(file, 5, 10))
+        .get("/ranged", ctx -> ctx.contentType("text/plain").rangedWrite(file, CONTENT.length()))
+        .get("/rangedVideo", ctx -> ctx.contentType("video/mp4").rangedWrite(file, CONTENT.length()))
+        .before("/transfer/*", ctx -> {
+          var exchange = ctx.exchange();
+          exchange.setStreams(null, new TransferStream(exchange.getResponseBody()));
+        })
+        .get("/transfer/whole", ctx -> ctx.contentType("text/plain").sendFile(file))
+        .get("/transfer/ranged", ctx -> ctx.contentType("video/mp4").rangedWrite(file, CONTENT.length()))
+      );
+    return TestPair.create(app);
+  }
+
+  @AfterAll
+  static void end() {
+    pair.close();
+  }
+
+  @Test
+  void whole() {
+    HttpResponse<String> res = pair.request().path("whole").GET().asString();
+    assertThat(res.statusCode()).isEqualTo(200);
+    assertThat(res.body()).isEqualTo(CONTENT);
+    assertThat(res.headers().firstValue("Content-Length")).hasValue("50000");
+  }
+
+  @Test
+  void part() {
+    HttpResponse<String> res = pair.request().path("part").GET().asString();
+    assertThat(res.body()).isEqualTo("5678901234");
+    assertThat(res.headers().firstValue("Content-Length")).hasValue("10");
+  }
+
+  @Test
+  void ranged_noRange() {
+    HttpResponse<String> res = pair.request().path("ranged").GET().asString();
+    assertThat(res.statusCode()).isEqualTo(200);
+    assertThat(res.body()).isEqualTo(CONTENT);
+    assertThat(res.headers().firstValue("Accept-Ranges")).hasValue("bytes");
+  }
+
+  @Test
+  void ranged_video() {
+    HttpResponse<String> res =
+        pair.request().path("rangedVideo").header("Range", "bytes=10-29").GET().asString();
+    assertThat(res.statusCode()).isEqualTo(206);
+    assertThat(res.body()).isEqualTo(CONTENT.substring(10, 30));
+    assertThat(res.headers().firstValue("Content-Range")).hasValue("bytes 10-29/50000");
+  }
+
+  @Test
+  void ranged_multiple() {
+    HttpResponse<String> res =
+        pair.request().path("ranged").header("Range", "bytes=0-1,-2").GET().asString();
+    assertThat(res.statusCode()).isEqualTo(206);
+    assertThat(res.headers().firstValue("Content-Type").orElseThrow()).startsWith("multipart/byteranges");
+    assertThat(res.body())
+        .contains("Content-Range: bytes 0-1/50000\r\n\r\n01\r\n")
+        .contains("Content-Range: bytes 49998-49999/50000\r\n\r\n89\r\n");
+  }
+
+  @Test
+  void fileChannelWriter_whole() {
+    int before = transfers.get();
+    HttpResponse<String> res = pair.request().path("transfer/whole").GET().asString();
+    assertThat(res.statusCode()).isEqualTo(200);
+    assertThat(res.body()).isEqualTo(CONTENT);
+    assertThat(transfers.get()).isEqualTo(before + 1);
+  }
+
+  @Test
+  void fileChannelWriter_range() {
+    int before = transfers.get();
+    HttpResponse<String> res =
+        pair.request().path("transfer/ranged").header("Range", "bytes=10-29").GET().asString();
+    assertThat(res.statusCode()).isEqualTo(206);
+    assertThat(res.body()).isEqualTo(CONTENT.substring(10, 30));
+    assertThat(transfers.get()).isEqualTo(before + 1);
+  }
+
+  static final class TransferStream extends FilterOutputStream implements FileChannelWriter {
+
+    TransferStream(OutputStream out) {
+      super(out);
+    }
+
+    @Override
+    public void transferFrom(FileChannel file, long position, long count) throws IOException {
+      transfers.incrementAndGet();
+      var target = Channels.newChannel(out);
+      long end = position + count;
+      while (position < end) {
+        position += file.transferTo(position, end - position, target);
+      }
+    }
+  }
+}
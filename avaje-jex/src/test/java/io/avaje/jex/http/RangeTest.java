@@ -4,6 +4,9 @@ import static org.assertj.core.api.Assertions.assertThat;
 
 import java.io.ByteArrayInputStream;
 import java.net.http.HttpResponse;
+import java.nio.ByteBuffer;
+import java.nio.channels.NonWritableChannelException;
+import java.nio.channels.SeekableByteChannel;
 import java.nio.charset.StandardCharsets;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
@@ -19,6 +22,7 @@ class RangeTest {
 
   static final TestPair pair = init();
   private static final int chunkSize = 3000;
+  private static volatile long channelBytesRead;
 
   static TestPair init() {
     final Jex app =
@@ -41,7 +45,20 @@ class RangeTest {
                       .rangedWrite(
                           new LargeSeekableInput(prefixSize, contentSize),
                           prefixSize + contentSize);
-                });
+                })
+            .get(
+                "/range-channel",
+                ctx -> {
+                  var channel = new ByteArrayChannel(getInput().readAllBytes());
+                  ctx.contentType(ContentType.APPLICATION_OCTET_STREAM).rangedWrite(channel);
+                  channelBytesRead = channel.bytesRead;
+                })
+            .get(
+                "/range-validated",
+                ctx ->
+                    ctx.contentType(ContentType.APPLICATION_OCTET_STREAM)
+                        .header(Constants.ETAG, "\"v1\"")
+                        .rangedWrite(getInput()));
 
     return TestPair.create(app);
   }
@@ -85,7 +102,7 @@ class RangeTest {
             .GET()
             .asString();
 
-    assertThat(response.statusCode()).isEqualTo(200);
+    assertThat(response.statusCode()).isEqualTo(206);
     assertThat(response.headers().firstValueAsLong(Constants.CONTENT_LENGTH).orElseThrow())
         .isEqualTo(getInput().available());
   }
@@ -119,7 +136,7 @@ class RangeTest {
             Integer.parseInt(response.headers().firstValue(Constants.CONTENT_LENGTH).orElseThrow()))
         .isEqualTo(available - chunkSize);
 
-    assertThat(response.statusCode()).isEqualTo(HttpStatus.OK_200.status());
+    assertThat(response.statusCode()).isEqualTo(HttpStatus.PARTIAL_CONTENT_206.status());
   }
 
   @Test
@@ -141,7 +158,7 @@ class RangeTest {
             Integer.parseInt(response.headers().firstValue(Constants.CONTENT_LENGTH).orElseThrow()))
         .isEqualTo(available - chunkSize);
 
-    assertThat(response.statusCode()).isEqualTo(HttpStatus.OK_200.status());
+    assertThat(response.statusCode()).isEqualTo(HttpStatus.PARTIAL_CONTENT_206.status());
 
   }
 
@@ -192,4 +209,198 @@ class RangeTest {
     assertThat(response.body()).hasSize((int) contentSize);
     assertThat(response.body()).doesNotContain(" ");
   }
+
+  @Test
+  void suffixRange() {
+    int available = getInput().available();
+    HttpResponse<String> response =
+        pair.request().path("range-noaudiovideo").header(Constants.RANGE, "bytes=-10").GET().asString();
+
+    assertThat(response.statusCode()).isEqualTo(206);
+    assertThat(response.body()).isEqualTo("c".repeat(10));
+    assertThat(response.headers().firstValue(Constants.CONTENT_RANGE).orElseThrow())
+        .isEqualTo("bytes " + (available - 10) + "-" + (available - 1) + "/" + available);
+  }
+
+  @Test
+  void multipleRanges() {
+    HttpResponse<String> response =
+        pair.request()
+            .path("range-noaudiovideo")
+            .header(Constants.RANGE, "bytes=" + chunkSize * 2 + "-" + (chunkSize * 2 + 2) + ", 0-4")
+            .GET()
+            .asString();
+
+    assertThat(response.statusCode()).isEqualTo(206);
+    String contentType = response.headers().firstValue(Constants.CONTENT_TYPE).orElseThrow();
+    assertThat(contentType).startsWith("multipart/byteranges; boundary=");
+    String boundary = contentType.substring(contentType.indexOf('=') + 1);
+    int total = getInput().available();
+    assertThat(response.body())
+        .isEqualTo(
+            "\r\n--" + boundary + "\r\n"
+                + "Content-Type: application/octet-stream\r\n"
+                + "Content-Range: bytes 0-4/" + total + "\r\n\r\n"
+                + "aaaaa"
+                + "\r\n--" + boundary + "\r\n"
+                + "Content-Type: application/octet-stream\r\n"
+                + "Content-Range: bytes " + chunkSize * 2 + "-" + (chunkSize * 2 + 2) + "/" + total + "\r\n\r\n"
+                + "ccc"
+                + "\r\n--" + boundary + "--\r\n");
+    assertThat(response.headers().firstValueAsLong(Constants.CONTENT_LENGTH).orElseThrow())
+        .isEqualTo(response.body().length());
+  }
+
+  @Test
+  void overlappingRanges_coalesced() {
+    HttpResponse<String> response =
+        pair.request().path("range-noaudiovideo").header(Constants.RANGE, "bytes=0-9,5-14").GET().asString();
+
+    assertThat(response.statusCode()).isEqualTo(206);
+    assertThat(response.body()).isEqualTo("a".repeat(15));
+  }
+
+  @Test
+  void unsatisfiableRange_416() {
+    int available = getInput().available();
+    HttpResponse<String> response =
+        pair.request()
+            .path("range-noaudiovideo")
+            .header(Constants.RANGE, "bytes=" + available + "-")
+            .GET()
+            .asString();
+
+    assertThat(response.statusCode()).isEqualTo(416);
+    assertThat(response.headers().firstValue(Constants.CONTENT_RANGE).orElseThrow())
+        .isEqualTo("bytes */" + available);
+  }
+
+  @Test
+  void invalidRange_ignored() {
+    HttpResponse<String> response =
+        pair.request().path("range-noaudiovideo").header(Constants.RANGE, "bytes=9-5").GET().asString();
+
+    assertThat(response.statusCode()).isEqualTo(200);
+    assertThat(response.body().length()).isEqualTo(getInput().available());
+  }
+
+  @Test
+  void ifRange_match() {
+    HttpResponse<String> response =
+        pair.request()
+            .path("range-validated")
+            .header(Constants.RANGE, "bytes=0-4")
+            .header(Constants.IF_RANGE, "\"v1\"")
+            .GET()
+            .asString();
+
+    assertThat(response.statusCode()).isEqualTo(206);
+    assertThat(response.body()).isEqualTo("aaaaa");
+  }
+
+  @Test
+  void ifRange_mismatch_wholeBody() {
+    HttpResponse<String> response =
+        pair.request()
+            .path("range-validated")
+            .header(Constants.RANGE, "bytes=0-4")
+            .header(Constants.IF_RANGE, "\"v0\"")
+            .GET()
+            .asString();
+
+    assertThat(response.statusCode()).isEqualTo(200);
+    assertThat(response.body().length()).isEqualTo(getInput().available());
+  }
+
+  @Test
+  void channel_readsOnlyRequestedBytes() {
+    HttpResponse<String> response =
+        pair.request()
+            .path("range-channel")
+            .header(Constants.RANGE, "bytes=" + (chunkSize * 3 - 5) + "-")
+            .GET()
+            .asString();
+
+    assertThat(response.statusCode()).isEqualTo(206);
+    assertThat(response.body()).isEqualTo("ccccc");
+    assertThat(channelBytesRead).isEqualTo(5);
+  }
+
+  @Test
+  void channel_multipleRanges() {
+    HttpResponse<String> response =
+        pair.request().path("range-channel").header(Constants.RANGE, "bytes=0-1,-2").GET().asString();
+
+    assertThat(response.statusCode()).isEqualTo(206);
+    assertThat(response.body())
+        .contains("\r\n\r\naa\r\n")
+        .contains("\r\n\r\ncc\r\n");
+    assertThat(channelBytesRead).isEqualTo(4);
+  }
+
+  @Test
+  void channel_whole() {
+    HttpResponse<String> response = pair.request().path("range-channel").GET().asString();
+
+    assertThat(response.statusCode()).isEqualTo(200);
+    assertThat(response.body().getBytes()).isEqualTo(getInput().readAllBytes());
+  }
+
+  /** In memory channel that counts the bytes read. */
+  static final class ByteArrayChannel implements SeekableByteChannel {
+
+    private final byte[] content;
+    private int position;
+    long bytesRead;
+
+    ByteArrayChannel(byte[] content) {
+      this.content = content;
+    }
+
+    @Override
+    public int read(ByteBuffer dst) {
+      if (position >= content.length) {
+        return -1;
+      }
+      int len = Math.min(dst.remaining(), content.length - position);
+      dst.put(content, position, len);
+      position += len;
+      bytesRead += len;
+      return len;
+    }
+
+    @Override
+    public int write(ByteBuffer src) {
+      throw new NonWritableChannelException();
+    }
+
+    @Override
+    public long position() {
+      return position;
+    }
+
+    @Override
+    public SeekableByteChannel position(long newPosition) {
+      position = (int) newPosition;
+      return this;
+    }
+
+    @Override
+    public long size() {
+      return content.length;
+    }
+
+    @Override
+    public SeekableByteChannel truncate(long size) {
+      throw new NonWritableChannelException();
+    }
+
+    @Override
+    public boolean isOpen() {
+      return true;
+    }
+
+    @Override
+    public void close() {}
+  }
 }
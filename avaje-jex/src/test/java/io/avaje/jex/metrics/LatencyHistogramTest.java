@@ -0,0 +1,51 @@
+package io.avaje.jex.metrics;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+
+class LatencyHistogramTest {
+
+  @Test
+  void index_contiguous() {
+    int previous = -1;
+    for (long value = 0; value < 100_000; value++) {
+      int index = LatencyHistogram.index(value);
+      assertThat(index).isBetween(previous, previous + 1);
+      assertThat(LatencyHistogram.highestValue(index)).isGreaterThanOrEqualTo(value);
+      previous = index;
+    }
+  }
+
+  @Test
+  void highestValue_withinPrecision() {
+    for (long value : new long[] {1, 7, 8, 9, 100, 1_000, 12_345, 1_000_000, 60_000_000}) {
+      long highest = LatencyHistogram.highestValue(LatencyHistogram.index(value));
+      assertThat(highest).isBetween(value, value + value / 8);
+    }
+  }
+
+  @Test
+  void index_capsLargeValues() {
+    int last = LatencyHistogram.index(Long.MAX_VALUE);
+    assertThat(LatencyHistogram.index(1L << 40)).isEqualTo(last);
+    new LatencyHistogram().record(Long.MAX_VALUE);
+  }
+
+  @Test
+  void percentile() {
+    var histogram = new LatencyHistogram();
+    for (int i = 1; i <= 1000; i++) {
+      histogram.record(i);
+    }
+    long[] counts = histogram.counts();
+    assertThat(LatencyHistogram.percentile(counts, 50)).isBetween(500L, 563L);
+    assertThat(LatencyHistogram.percentile(counts, 99)).isBetween(990L, 1114L);
+    assertThat(LatencyHistogram.percentile(counts, 100)).isBetween(1000L, 1125L);
+  }
+
+  @Test
+  void percentile_empty() {
+    assertThat(LatencyHistogram.percentile(new LatencyHistogram().counts(), 99)).isZero();
+  }
+}
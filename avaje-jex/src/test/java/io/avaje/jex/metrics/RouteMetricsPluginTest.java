@@ -0,0 +1,83 @@
+package io.avaje.jex.metrics;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.net.http.HttpResponse;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+
+import io.avaje.jex.Jex;
+import io.avaje.jex.Routing;
+import io.avaje.jex.compression.CompressionMetric;
+import io.avaje.jex.core.TestPair;
+
+class RouteMetricsPluginTest {
+
+  static final RouteMetrics metrics = RouteMetrics.create();
+  static final TestPair pair = init();
+
+  static TestPair init() {
+    final Jex app =
+        Jex.create()
+            .plugin(RouteMetricsPlugin.create(metrics).prometheusPath("/metrics"))
+            .get("/users/{id}", ctx -> ctx.text("user " + ctx.pathParam("id")))
+            .get("/fail", ctx -> {
+              throw new IllegalStateException("fail");
+            });
+
+    return TestPair.create(app);
+  }
+
+  @AfterAll
+  static void end() {
+    pair.close();
+  }
+
+  @Test
+  void snapshot_and_prometheus() {
+    for (int i = 0; i < 3; i++) {
+      assertThat(pair.request().path("users/" + i).GET().asString().statusCode()).isEqualTo(200);
+    }
+    assertThat(pair.request().path("fail").GET().asString().statusCode()).isEqualTo(500);
+
+    RouteMetric users = metric("/users/{id}");
+    assertThat(users.method()).isEqualTo(Routing.Type.GET);
+    assertThat(users.count()).isEqualTo(3);
+    assertThat(users.errors()).isZero();
+    assertThat(users.maxMicros()).isGreaterThanOrEqualTo(users.p50Micros());
+
+    RouteMetric fail = metric("/fail");
+    assertThat(fail.count()).isEqualTo(1);
+    assertThat(fail.errors()).isEqualTo(1);
+
+    HttpResponse<String> res = pair.request().path("metrics").GET().asString();
+    assertThat(res.statusCode()).isEqualTo(200);
+    assertThat(res.headers().firstValue("Content-Type").orElseThrow()).startsWith("text/plain");
+    assertThat(res.body())
+        .contains("# TYPE jex_route_requests_total counter")
+        .contains("jex_route_requests_total{method=\"GET\",path=\"/users/{id}\"} 3")
+        .contains("jex_route_errors_total{method=\"GET\",path=\"/fail\"} 1")
+        .contains("jex_route_duration_seconds{method=\"GET\",path=\"/users/{id}\",quantile=\"0.99\"} ")
+        .contains("jex_route_duration_seconds_count{method=\"GET\",path=\"/users/{id}\"} 3");
+  }
+
+  @Test
+  void prometheus_compression() {
+    var compression = List.of(new CompressionMetric("GET", "/users/{id}", 3, 1, 3000, 300));
+
+    assertThat(RouteMetrics.create().prometheus(compression))
+        .contains("# TYPE jex_compression_responses_total counter")
+        .contains("jex_compression_responses_total{method=\"GET\",path=\"/users/{id}\",result=\"compressed\"} 3")
+        .contains("jex_compression_responses_total{method=\"GET\",path=\"/users/{id}\",result=\"skipped\"} 1")
+        .contains("jex_compression_ratio{method=\"GET\",path=\"/users/{id}\"} 0.1000");
+  }
+
+  private static RouteMetric metric(String path) {
+    return metrics.snapshot().stream()
+        .filter(m -> m.path().equals(path))
+        .findFirst()
+        .orElseThrow();
+  }
+}
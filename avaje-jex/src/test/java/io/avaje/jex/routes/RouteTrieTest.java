@@ -0,0 +1,318 @@
+package io.avaje.jex.routes;
+
+import static io.avaje.jex.Routing.Type.DELETE;
+import static io.avaje.jex.Routing.Type.GET;
+import static io.avaje.jex.Routing.Type.POST;
+import static io.avaje.jex.Routing.Type.PUT;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+
+import io.avaje.jex.Routing;
+import io.avaje.jex.http.ExchangeHandler;
+import io.avaje.jex.http.HttpFilter;
+
+class RouteTrieTest {
+
+  @Test
+  void match() {
+    var indexBuild = new RouteTrieBuild(true);
+    indexBuild.add(entry("/"));
+    indexBuild.add(entry("/a/b/c"));
+    indexBuild.add(entry("/a/b/d"));
+    indexBuild.add(entry("/a/b/d/e"));
+    indexBuild.add(entry("/a/b/d/e/f"));
+    indexBuild.add(entry("/a/b/d/e/f/g"));
+    indexBuild.add(entry("/a/b/d/e/f/g/h"));
+    indexBuild.add(entry("/a/b/d/e/f/g2/h"));
+
+    RouteTrie index = indexBuild.build();
+
+    assertThat(index.match(GET, "/").entry().matchPath()).isEqualTo("/");
+    assertThat(index.match(GET, "/a/b/d/e/f/g2/h").entry().matchPath()).isEqualTo("/a/b/d/e/f/g2/h");
+  }
+
+  @Test
+  void matchMulti() {
+    var indexBuild = new RouteTrieBuild(true);
+    indexBuild.add(entry("/hi/{id}"));
+    indexBuild.add(entry("/a/b/c"));
+    indexBuild.add(entry("/hi/{id}"));
+    indexBuild.add(entry("/b"));
+
+    RouteTrie index = indexBuild.build();
+
+    SpiRoutes.Match match = index.match(GET, "/hi/42");
+    assertThat(match).isNotNull();
+    assertThat(match.pathParam("id")).isEqualTo("42");
+  }
+
+  @Test
+  void match_args() {
+    var indexBuild = new RouteTrieBuild(true);
+    indexBuild.add(entry("/"));
+    indexBuild.add(entry("/{id}"));
+    indexBuild.add(entry("/{id}/a"));
+    indexBuild.add(entry("/{id}/b"));
+    indexBuild.add(entry("/a/{id}/c"));
+    indexBuild.add(entry("/a/{name}/d"));
+    indexBuild.add(entry("/a/b/d/e"));
+    indexBuild.add(entry("/a/b/d/e/f"));
+    indexBuild.add(entry("/a/b/d/e/f/g"));
+    indexBuild.add(entry("/a/b/d/e/f/g/h"));
+    indexBuild.add(entry("/a/b/d/e/f/g2/h"));
+
+    var index = indexBuild.build();
+    assertThat(index.match(GET, "/").entry().matchPath()).isEqualTo("/");
+    assertThat(index.match(GET, "/42").entry().matchPath()).isEqualTo("/{id}");
+    assertThat(index.match(GET, "/99").entry().matchPath()).isEqualTo("/{id}");
+    assertThat(index.match(GET, "/99/a").entry().matchPath()).isEqualTo("/{id}/a");
+    assertThat(index.match(GET, "/99/b").entry().matchPath()).isEqualTo("/{id}/b");
+    assertThat(index.match(GET, "/99/c")).isNull();
+  }
+
+  @Test
+  void match_splat() {
+    var indexBuild = new RouteTrieBuild(true);
+    indexBuild.add(entry("/"));
+    indexBuild.add(entry("/{id}"));
+    indexBuild.add(entry("/{id}/a"));
+    indexBuild.add(entry("/{id}/*"));
+
+    var index = indexBuild.build();
+    assertThat(index.match(GET, "/").entry().matchPath()).isEqualTo("/");
+    assertThat(index.match(GET, "/42").entry().matchPath()).isEqualTo("/{id}");
+    assertThat(index.match(GET, "/42/a").entry().matchPath()).isEqualTo("/{id}/a");
+    assertThat(index.match(GET, "/42/banana").entry().matchPath()).isEqualTo("/{id}/*");
+    assertThat(index.match(GET, "/42/banana/apple/grape/bean/nut").entry().matchPath()).isEqualTo("/{id}/*");
+  }
+
+  @Test
+  void match_literalBeforeParam() {
+    var indexBuild = new RouteTrieBuild(true);
+    indexBuild.add(entry("/{id}"));
+    indexBuild.add(entry("/{id}/orders"));
+    indexBuild.add(entry("/health"));
+    indexBuild.add(entry("/a/{id}"));
+    indexBuild.add(entry("/{name}/b"));
+
+    var index = indexBuild.build();
+    assertThat(index.match(GET, "/health").entry().matchPath()).isEqualTo("/health");
+    assertThat(index.match(GET, "/health/").entry().matchPath()).isEqualTo("/health");
+    assertThat(index.match(GET, "/42").entry().matchPath()).isEqualTo("/{id}");
+    assertThat(index.match(GET, "/health/orders").entry().matchPath()).isEqualTo("/{id}/orders");
+    assertThat(index.match(GET, "/a/b").entry().matchPath()).isEqualTo("/a/{id}");
+    assertThat(index.match(GET, "/x/b").entry().matchPath()).isEqualTo("/{name}/b");
+    assertThat(index.match(GET, "/a//b")).isNull();
+  }
+
+  @Test
+  void match_typedBeforePlainParam() {
+    var indexBuild = new RouteTrieBuild(true);
+    indexBuild.add(entry("/{name}"));
+    indexBuild.add(entry("/{id:[0-9]+}"));
+    indexBuild.add(entry("/x{a}y"));
+
+    var index = indexBuild.build();
+    assertThat(index.match(GET, "/42").entry().matchPath()).isEqualTo("/{id:[0-9]+}");
+    assertThat(index.match(GET, "/xAy").entry().matchPath()).isEqualTo("/x{a}y");
+    assertThat(index.match(GET, "/foo").entry().matchPath()).isEqualTo("/{name}");
+  }
+
+  @Test
+  void match_catchAll_registrationOrder() {
+    var indexBuild = new RouteTrieBuild(true);
+    indexBuild.add(entry("/api/*"));
+    indexBuild.add(entry("/*"));
+    indexBuild.add(entry("/api/<path>"));
+    indexBuild.add(entry("/{id}/*/and/*"));
+    indexBuild.add(entry("/api/{id}"));
+
+    var index = indexBuild.build();
+    assertThat(index.match(GET, "/api/42").entry().matchPath()).isEqualTo("/api/{id}");
+    assertThat(index.match(GET, "/api/42/more").entry().matchPath()).isEqualTo("/api/*");
+    assertThat(index.match(GET, "/api/").entry().matchPath()).isEqualTo("/api/*");
+    assertThat(index.match(GET, "/other/a/b").entry().matchPath()).isEqualTo("/*");
+    assertThat(index.match(GET, "/").entry().matchPath()).isEqualTo("/*");
+  }
+
+  @Test
+  void match_catchAll_terminalParam() {
+    var indexBuild = new RouteTrieBuild(true);
+    indexBuild.add(entry("/files/<path>"));
+    indexBuild.add(entry("/one/*/three"));
+
+    var index = indexBuild.build();
+    assertThat(index.match(GET, "/files/a/b/c.txt").entry().matchPath()).isEqualTo("/files/<path>");
+    assertThat(index.match(GET, "/files/")).isNull();
+    assertThat(index.match(GET, "/files")).isNull();
+    assertThat(index.match(GET, "/one/two/three").entry().matchPath()).isEqualTo("/one/*/three");
+    assertThat(index.match(GET, "/one/two/four")).isNull();
+  }
+
+  @Test
+  void match_honorTrailingSlash() {
+    var indexBuild = new RouteTrieBuild(false);
+    indexBuild.add(entry("/", false));
+    indexBuild.add(entry("/slash", false));
+    indexBuild.add(entry("/one/{id}/", false));
+
+    var index = indexBuild.build();
+    assertThat(index.match(GET, "/").entry().matchPath()).isEqualTo("/");
+    assertThat(index.match(GET, "/slash").entry().matchPath()).isEqualTo("/slash");
+    assertThat(index.match(GET, "/slash/")).isNull();
+    assertThat(index.match(GET, "/one/1/").entry().matchPath()).isEqualTo("/one/{id}/");
+    assertThat(index.match(GET, "/one/1")).isNull();
+  }
+
+  @Test
+  void match_pathParams() {
+    var indexBuild = new RouteTrieBuild(true);
+    indexBuild.add(entry("/a/{id}/b/{name}"));
+    indexBuild.add(entry("/x{a}y/{b}"));
+    indexBuild.add(entry("/typed/{id:[0-9]+}"));
+    indexBuild.add(entry("/files/{id}/<path>"));
+    indexBuild.add(entry("/literal"));
+
+    var index = indexBuild.build();
+    var match = index.match(GET, "/a/42/b/hello%20there");
+    assertThat(match.pathParam("id")).isEqualTo("42");
+    assertThat(match.pathParam("name")).isEqualTo("hello there");
+    assertThat(match.pathParam("other")).isNull();
+    assertThat(match.pathParams()).containsOnlyKeys("id", "name");
+
+    match = index.match(GET, "/xHELLOy/there/");
+    assertThat(match.pathParam("a")).isEqualTo("HELLO");
+    assertThat(match.pathParam("b")).isEqualTo("there");
+
+    assertThat(index.match(GET, "/typed/7").pathParam("id")).isEqualTo("7");
+
+    match = index.match(GET, "/files/9/a/b/c.txt/");
+    assertThat(match.pathParam("id")).isEqualTo("9");
+    assertThat(match.pathParam("path")).isEqualTo("a/b/c.txt");
+
+    match = index.match(GET, "/literal");
+    assertThat(match.pathParams()).isEmpty();
+    assertThat(match).isSameAs(index.match(GET, "/literal/"));
+  }
+
+  @Test
+  void match_exactLiteral() {
+    var indexBuild = new RouteTrieBuild(true);
+    indexBuild.add(entry("/health/liveness"));
+    indexBuild.add(entry("/{a}/{b}"));
+    indexBuild.add(entry("/metrics/"));
+
+    var index = indexBuild.build();
+    assertThat(index.match(GET, "/health/liveness").entry().matchPath()).isEqualTo("/health/liveness");
+    assertThat(index.match(GET, "/health/liveness/").entry().matchPath()).isEqualTo("/health/liveness");
+    assertThat(index.match(GET, "/metrics").entry().matchPath()).isEqualTo("/metrics/");
+    assertThat(index.match(GET, "/metrics/").entry().matchPath()).isEqualTo("/metrics/");
+    assertThat(index.match(GET, "/health/readiness").entry().matchPath()).isEqualTo("/{a}/{b}");
+  }
+
+  @Test
+  void match_exactLiteral_honorTrailingSlash() {
+    var indexBuild = new RouteTrieBuild(false);
+    indexBuild.add(entry("/health", false));
+    indexBuild.add(entry("/metrics/", false));
+
+    var index = indexBuild.build();
+    assertThat(index.match(GET, "/health").entry().matchPath()).isEqualTo("/health");
+    assertThat(index.match(GET, "/health/")).isNull();
+    assertThat(index.match(GET, "/metrics")).isNull();
+    assertThat(index.match(GET, "/metrics/").entry().matchPath()).isEqualTo("/metrics/");
+  }
+
+  @Test
+  void reorder_byHits_keepsPrecedence() {
+    var indexBuild = new RouteTrieBuild(true);
+    indexBuild.add(entry("/{id:[0-9]+}"));
+    indexBuild.add(entry("/{code:[0-9a-z]+}"));
+    indexBuild.add(entry("/x{a}"));
+    indexBuild.add(entry("/y{b}"));
+
+    var index = indexBuild.build();
+    for (String path : List.of("/abc", "/y-1", "/y-1", "/abc")) {
+      var entry = index.match(GET, path).entry();
+      entry.inc();
+      entry.dec();
+    }
+    assertThat(index.match(GET, "/y-1").entry().hits()).isEqualTo(2);
+    index.reorder();
+
+    assertThat(index.match(GET, "/123").entry().matchPath()).isEqualTo("/{id:[0-9]+}");
+    assertThat(index.match(GET, "/abc").entry().matchPath()).isEqualTo("/{code:[0-9a-z]+}");
+    assertThat(index.match(GET, "/y-1").entry().matchPath()).isEqualTo("/y{b}");
+    assertThat(index.match(GET, "/x-1").entry().matchPath()).isEqualTo("/x{a}");
+  }
+
+  @Test
+  void match_byMethod() {
+    var indexBuild = new RouteTrieBuild(true);
+    indexBuild.add(entry(GET, "/a/{id}"));
+    indexBuild.add(entry(POST, "/a/b"));
+    indexBuild.add(entry(PUT, "/a/{id}"));
+    indexBuild.add(entry(DELETE, "/files/*"));
+
+    var index = indexBuild.build();
+    assertThat(index.match(GET, "/a/b").entry().matchPath()).isEqualTo("/a/{id}");
+    assertThat(index.match(POST, "/a/b").entry().matchPath()).isEqualTo("/a/b");
+    assertThat(index.match(PUT, "/a/b").entry().type()).isEqualTo(PUT);
+    assertThat(index.match(DELETE, "/files/x/y").entry().matchPath()).isEqualTo("/files/*");
+  }
+
+  @Test
+  void match_otherMethods_allowed() {
+    var indexBuild = new RouteTrieBuild(true);
+    indexBuild.add(entry(GET, "/a/{id}"));
+    indexBuild.add(entry(POST, "/a/b"));
+    indexBuild.add(entry(DELETE, "/a/*"));
+
+    var index = indexBuild.build();
+    var match = index.match(PUT, "/a/b");
+    assertThat(match.entry()).isNull();
+    assertThat(match.allowedMethods()).containsExactly(GET, POST, DELETE);
+
+    match = index.match(POST, "/a/c");
+    assertThat(match.entry()).isNull();
+    assertThat(match.allowedMethods()).containsExactly(GET, DELETE);
+
+    match = index.match(null, "/a/c/d");
+    assertThat(match.entry()).isNull();
+    assertThat(match.allowedMethods()).containsExactly(DELETE);
+
+    assertThat(index.match(GET, "/b")).isNull();
+    assertThat(index.match(GET, "/a/b").allowedMethods()).isEmpty();
+  }
+
+  @Test
+  void hits_notCountedWithoutReorder() {
+    var entry =
+        new RouteEntry(GET, new PathParser("/{id}", true), null, new HttpFilter[0], Set.of(), null, false);
+    entry.inc();
+    entry.dec();
+    assertThat(entry.hits()).isZero();
+
+    var multi = entry.multiHandler(new ExchangeHandler[0]);
+    multi.inc();
+    multi.dec();
+    assertThat(multi.hits()).isZero();
+  }
+
+  private RouteEntry entry(Routing.Type type, String path) {
+    return new RouteEntry(type, new PathParser(path, true), null, Set.of());
+  }
+
+  private RouteEntry entry(String path) {
+    return entry(path, true);
+  }
+
+  private RouteEntry entry(String path, boolean ignoreTrailingSlashes) {
+    return new RouteEntry(GET, new PathParser(path, ignoreTrailingSlashes), null, Set.of());
+  }
+
+}
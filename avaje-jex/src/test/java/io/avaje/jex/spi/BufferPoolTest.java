@@ -0,0 +1,71 @@
+package io.avaje.jex.spi;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+
+class BufferPoolTest {
+
+  @Test
+  void sizeClass() {
+    assertThat(DBufferPool.sizeClass(1)).isEqualTo(0);
+    assertThat(DBufferPool.sizeClass(256)).isEqualTo(0);
+    assertThat(DBufferPool.sizeClass(257)).isEqualTo(1);
+    assertThat(DBufferPool.sizeClass(512)).isEqualTo(1);
+    assertThat(DBufferPool.sizeClass(4096)).isEqualTo(4);
+    assertThat(DBufferPool.sizeClass(65536)).isEqualTo(8);
+  }
+
+  @Test
+  void acquire_roundsUpToSizeClass() {
+    BufferPool pool = BufferPool.create();
+    assertThat(pool.acquire(10)).hasSize(256);
+    assertThat(pool.acquire(300)).hasSize(512);
+    assertThat(pool.acquire(4096)).hasSize(4096);
+  }
+
+  @Test
+  void release_reused() {
+    BufferPool pool = BufferPool.create();
+    byte[] first = pool.acquire(1000);
+    pool.release(first);
+    assertThat(pool.acquire(1000)).isSameAs(first);
+    assertThat(pool.stats()).isEqualTo(new BufferPool.Stats(2, 1, 1, 0));
+  }
+
+  @Test
+  void release_full_discarded() {
+    BufferPool pool = BufferPool.create();
+    byte[][] buffers = new byte[6][];
+    for (int i = 0; i < buffers.length; i++) {
+      buffers[i] = pool.acquire(256);
+    }
+    for (byte[] buffer : buffers) {
+      pool.release(buffer);
+    }
+    var stats = pool.stats();
+    assertThat(stats.allocated()).isEqualTo(6);
+    assertThat(stats.released()).isEqualTo(6);
+    assertThat(stats.discarded()).isEqualTo(2);
+  }
+
+  @Test
+  void largerThanMax_notPooled() {
+    BufferPool pool = BufferPool.create(1024);
+    byte[] buffer = pool.acquire(3000);
+    assertThat(buffer).hasSize(3000);
+    pool.release(buffer);
+    assertThat(pool.acquire(3000)).isNotSameAs(buffer);
+    assertThat(pool.stats().discarded()).isEqualTo(1);
+  }
+
+  @Test
+  void unpooled() {
+    BufferPool pool = BufferPool.unpooled();
+    byte[] buffer = pool.acquire(100);
+    assertThat(buffer).hasSize(100);
+    pool.release(buffer);
+    assertThat(pool.acquire(100)).isNotSameAs(buffer);
+    assertThat(pool.stats()).isEqualTo(new BufferPool.Stats(2, 2, 1, 1));
+  }
+}
@@ -0,0 +1,16 @@
+package io.avaje.loadtest;
+
+import java.util.List;
+import java.util.stream.IntStream;
+
+import io.avaje.jsonb.Json;
+
+@Json
+public record Item(long id, String name, String description, double price, List<String> tags) {
+
+  static List<Item> list(int size) {
+    return IntStream.range(0, size)
+      .mapToObj(i -> new Item(i, "item-" + i, "Description of item " + i, i * 1.25, List.of("a", "b")))
+      .toList();
+  }
+}
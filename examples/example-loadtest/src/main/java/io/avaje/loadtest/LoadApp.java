@@ -0,0 +1,51 @@
+package io.avaje.loadtest;
+
+import java.nio.file.Path;
+import java.util.List;
+
+import com.sun.net.httpserver.spi.HttpServerProvider;
+
+import io.avaje.jex.Jex;
+import io.avaje.jex.file.upload.FileUploadPlugin;
+import io.avaje.jex.file.upload.FileUploadService;
+import io.avaje.jex.file.upload.MultiPart;
+import io.avaje.jex.staticcontent.StaticContent;
+
+/**
+ * The app under test, the same routes are started on each server provider.
+ */
+final class LoadApp {
+
+  private static final List<Item> ITEMS = Item.list(50);
+
+  private LoadApp() {
+  }
+
+  static Jex.Server start(HttpServerProvider provider, Path largeFile) {
+    return Jex.create()
+      .config(c -> c.serverProvider(provider).health(false))
+      .plugin(StaticContent.ofFile(largeFile.toString()).route("/large").build())
+      .plugin(FileUploadPlugin.create())
+      .get("/text", ctx -> ctx.text("hello world"))
+      .get("/json", ctx -> ctx.json(ITEMS))
+      .sse("/sse", sse -> {
+        for (int i = 0; i < Scenario.SSE_EVENTS; i++) {
+          sse.sendEvent("tick", "event " + i);
+        }
+      })
+      .post("/upload", ctx -> {
+        var part = ctx.attribute(FileUploadService.class).uploadedFile("file");
+        ctx.text(String.valueOf(size(part)));
+      })
+      .port(0)
+      .start();
+  }
+
+  private static long size(MultiPart part) {
+    try (part) {
+      return part.data() != null ? part.data().length() : part.file().length();
+    } catch (Exception e) {
+      throw new IllegalStateException(e);
+    }
+  }
+}
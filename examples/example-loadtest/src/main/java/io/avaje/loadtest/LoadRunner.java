@@ -0,0 +1,108 @@
+package io.avaje.loadtest;
+
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.HdrHistogram.Histogram;
+
+/**
+ * Drives a request at a fixed concurrency, each worker sending the next request as soon as the
+ * previous response body has been read (closed loop).
+ */
+final class LoadRunner {
+
+  private static final long MAX_LATENCY_MICROS = TimeUnit.SECONDS.toMicros(60);
+
+  private final HttpClient client;
+  private final int concurrency;
+
+  LoadRunner(HttpClient client, int concurrency) {
+    this.client = client;
+    this.concurrency = concurrency;
+  }
+
+  /**
+   * Run for the warmup duration without recording, then for the measured duration.
+   */
+  Result run(String provider, Scenario scenario, HttpRequest request, Duration warmup, Duration duration) {
+    drive(request, warmup);
+    final long start = System.nanoTime();
+    final List<Worker> workers = drive(request, duration);
+    final double seconds = (System.nanoTime() - start) / 1e9;
+
+    final var latency = new Histogram(MAX_LATENCY_MICROS, 3);
+    long requests = 0;
+    long errors = 0;
+    for (Worker worker : workers) {
+      latency.add(worker.latency);
+      requests += worker.requests;
+      errors += worker.errors;
+    }
+    return new Result(provider, scenario, requests, errors, seconds, latency);
+  }
+
+  private List<Worker> drive(HttpRequest request, Duration duration) {
+    final long deadline = System.nanoTime() + duration.toNanos();
+    final var workers = new ArrayList<Worker>(concurrency);
+    final var futures = new ArrayList<Future<?>>(concurrency);
+    try (var executor = Executors.newVirtualThreadPerTaskExecutor()) {
+      for (int i = 0; i < concurrency; i++) {
+        var worker = new Worker(request, deadline);
+        workers.add(worker);
+        futures.add(executor.submit(worker));
+      }
+      for (Future<?> future : futures) {
+        future.get();
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IllegalStateException(e);
+    } catch (ExecutionException e) {
+      throw new IllegalStateException(e.getCause());
+    }
+    return workers;
+  }
+
+  private final class Worker implements Runnable {
+
+    private final Histogram latency = new Histogram(MAX_LATENCY_MICROS, 3);
+    private final HttpRequest request;
+    private final long deadline;
+    private long requests;
+    private long errors;
+
+    Worker(HttpRequest request, long deadline) {
+      this.request = request;
+      this.deadline = deadline;
+    }
+
+    @Override
+    public void run() {
+      while (System.nanoTime() < deadline) {
+        final long start = System.nanoTime();
+        try {
+          var response = client.send(request, HttpResponse.BodyHandlers.discarding());
+          if (response.statusCode() != 200) {
+            errors++;
+          }
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+          return;
+        } catch (Exception e) {
+          errors++;
+        }
+        final long micros = (System.nanoTime() - start) / 1000;
+        latency.recordValue(Math.min(micros, MAX_LATENCY_MICROS));
+        requests++;
+      }
+    }
+  }
+}
@@ -0,0 +1,88 @@
+package io.avaje.loadtest;
+
+import java.io.IOException;
+import java.net.http.HttpClient;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.ServiceLoader;
+
+import com.sun.net.httpserver.spi.HttpServerProvider;
+
+/**
+ * Starts the same app on each server provider and runs each scenario against it.
+ *
+ * <pre>{@code
+ *   mvn -pl examples/example-loadtest exec:java \
+ *     -Dexec.args="--providers jdk,robaho,grizzly --scenarios text,json,static,sse,multipart --concurrency 32 --warmup 5 --duration 10"
+ * }</pre>
+ */
+public class Main {
+
+  private static final String JDK_PROVIDER = "sun.net.httpserver.DefaultHttpServerProvider";
+
+  public static void main(String[] args) throws IOException {
+    // use the built-in server for HttpServerProvider.provider() with other providers on the classpath
+    System.setProperty("com.sun.net.httpserver.HttpServerProvider", JDK_PROVIDER);
+
+    List<String> providers = List.of("jdk", "robaho", "grizzly");
+    List<Scenario> scenarios = List.of(Scenario.values());
+    int concurrency = 32;
+    Duration warmup = Duration.ofSeconds(5);
+    Duration duration = Duration.ofSeconds(10);
+    for (int i = 0; i + 1 < args.length; i += 2) {
+      String value = args[i + 1];
+      switch (args[i]) {
+        case "--providers" -> providers = List.of(value.split(","));
+        case "--scenarios" -> scenarios = Arrays.stream(value.split(",")).map(s -> Scenario.valueOf(s.toUpperCase())).toList();
+        case "--concurrency" -> concurrency = Integer.parseInt(value);
+        case "--warmup" -> warmup = Duration.ofSeconds(Long.parseLong(value));
+        case "--duration" -> duration = Duration.ofSeconds(Long.parseLong(value));
+        default -> throw new IllegalArgumentException("Unknown option " + args[i]);
+      }
+    }
+
+    Path largeFile = Files.createTempFile("jex-load", ".bin");
+    largeFile.toFile().deleteOnExit();
+    Files.write(largeFile, new byte[Scenario.STATIC_SIZE]);
+
+    System.out.printf("concurrency:%d warmup:%ds duration:%ds%n", concurrency, warmup.toSeconds(), duration.toSeconds());
+    List<Result> results = new ArrayList<>();
+    for (String name : providers) {
+      var server = LoadApp.start(provider(name), largeFile);
+      var baseUrl = "http://localhost:" + server.port();
+      try (var client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build()) {
+        var runner = new LoadRunner(client, concurrency);
+        for (Scenario scenario : scenarios) {
+          var result = runner.run(name, scenario, scenario.request(baseUrl), warmup, duration);
+          System.out.println(result);
+          results.add(result);
+        }
+      } finally {
+        server.shutdown();
+      }
+    }
+
+    System.out.println();
+    System.out.println(Result.HEADER);
+    results.forEach(System.out::println);
+  }
+
+  static HttpServerProvider provider(String name) {
+    if ("jdk".equals(name)) {
+      var provider = HttpServerProvider.provider();
+      if (!JDK_PROVIDER.equals(provider.getClass().getName())) {
+        throw new IllegalStateException("Default provider is " + provider.getClass().getName());
+      }
+      return provider;
+    }
+    return ServiceLoader.load(HttpServerProvider.class).stream()
+      .filter(p -> p.type().getName().toLowerCase().contains(name))
+      .findFirst()
+      .map(ServiceLoader.Provider::get)
+      .orElseThrow(() -> new IllegalArgumentException("No HttpServerProvider on the classpath for " + name));
+  }
+}
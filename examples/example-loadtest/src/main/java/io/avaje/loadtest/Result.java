@@ -0,0 +1,29 @@
+package io.avaje.loadtest;
+
+import org.HdrHistogram.Histogram;
+
+/**
+ * The result of running a scenario against a server provider, latencies in microseconds.
+ */
+record Result(String provider, Scenario scenario, long requests, long errors, double seconds, Histogram latency) {
+
+  static final String HEADER = String.format(
+    "%-8s %-10s %10s %8s %10s %10s %10s %10s %10s",
+    "provider", "scenario", "requests", "errors", "req/s", "p50 ms", "p99 ms", "p999 ms", "max ms");
+
+  double throughput() {
+    return requests / seconds;
+  }
+
+  @Override
+  public String toString() {
+    return String.format(
+      "%-8s %-10s %10d %8d %10.0f %10.3f %10.3f %10.3f %10.3f",
+      provider, scenario.name().toLowerCase(), requests, errors, throughput(),
+      millis(50), millis(99), millis(99.9), latency.getMaxValue() / 1000.0);
+  }
+
+  private double millis(double percentile) {
+    return latency.getValueAtPercentile(percentile) / 1000.0;
+  }
+}
@@ -0,0 +1,58 @@
+package io.avaje.loadtest;
+
+import java.io.ByteArrayOutputStream;
+import java.net.URI;
+import java.net.http.HttpRequest;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * The request for each load test scenario.
+ */
+enum Scenario {
+
+  TEXT,
+  JSON,
+  STATIC,
+  SSE,
+  MULTIPART;
+
+  /** Number of events sent per SSE request. */
+  static final int SSE_EVENTS = 10;
+
+  /** Size of the generated static file. */
+  static final int STATIC_SIZE = 1024 * 1024;
+
+  private static final String BOUNDARY = "jex-load-boundary";
+  private static final byte[] MULTIPART_BODY = multipartBody(64 * 1024);
+
+  HttpRequest request(String baseUrl) {
+    return switch (this) {
+      case TEXT -> get(baseUrl + "/text").build();
+      case JSON -> get(baseUrl + "/json").build();
+      case STATIC -> get(baseUrl + "/large").build();
+      case SSE -> get(baseUrl + "/sse").header("Accept", "text/event-stream").build();
+      case MULTIPART ->
+        HttpRequest.newBuilder(URI.create(baseUrl + "/upload"))
+          .header("Content-Type", "multipart/form-data; boundary=" + BOUNDARY)
+          .POST(HttpRequest.BodyPublishers.ofByteArray(MULTIPART_BODY))
+          .build();
+    };
+  }
+
+  private static HttpRequest.Builder get(String url) {
+    return HttpRequest.newBuilder(URI.create(url)).GET();
+  }
+
+  private static byte[] multipartBody(int size) {
+    final var content = new byte[size];
+    Arrays.fill(content, (byte) 'x');
+    final var os = new ByteArrayOutputStream(size + 256);
+    os.writeBytes(("--" + BOUNDARY + "\r\n"
+      + "Content-Disposition: form-data; name=\"file\"; filename=\"upload.bin\"\r\n"
+      + "Content-Type: application/octet-stream\r\n\r\n").getBytes(StandardCharsets.US_ASCII));
+    os.writeBytes(content);
+    os.writeBytes(("\r\n--" + BOUNDARY + "--\r\n").getBytes(StandardCharsets.US_ASCII));
+    return os.toByteArray();
+  }
+}